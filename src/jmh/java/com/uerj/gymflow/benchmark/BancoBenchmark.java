@@ -0,0 +1,74 @@
+package com.uerj.gymflow.benchmark;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.GeradorDados;
+import com.uerj.gymflow.database.TipoConexao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Prepara o banco populado usado pelos benchmarks.
+ *
+ * O banco fica em um arquivo separado (propriedade {@code gymflow.bench.db}, padrão
+ * target/gymflow-bench.db) e só é populado na primeira execução; as seguintes
+ * reaproveitam o mesmo arquivo. Os dados vêm do {@link GeradorDados} com a semente
+ * padrão e a escala {@code gymflow.bench.escala}, então toda execução mede o mesmo conjunto.
+ */
+final class BancoBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BancoBenchmark.class);
+
+    private static GeradorDados gerador;
+
+    private BancoBenchmark() {
+    }
+
+    /**
+     * Aponta a aplicação para o banco de benchmark, criando e populando o arquivo se necessário.
+     * Deve ser chamado antes do primeiro uso de DatabaseConnection.
+     * @return O gerador dos dados, com as quantidades de alunos e treinos
+     */
+    static synchronized GeradorDados preparar() {
+        if (gerador != null) {
+            return gerador;
+        }
+
+        double escala = Double.parseDouble(System.getProperty("gymflow.bench.escala", "1"));
+        Path arquivo = Path.of(System.getProperty("gymflow.bench.db", "target/gymflow-bench.db")).toAbsolutePath();
+        System.setProperty("gymflow.db.url", "jdbc:sqlite:" + arquivo);
+
+        try {
+            Files.createDirectories(arquivo.getParent());
+        } catch (Exception e) {
+            throw new RuntimeException("Não foi possível criar o diretório do banco de benchmark", e);
+        }
+
+        GeradorDados novoGerador = new GeradorDados(GeradorDados.SEMENTE_PADRAO, escala);
+
+        // A inicialização do pool aplica as migrações e cria as tabelas
+        try (Connection conn = DatabaseConnection.getInstance().getConnection(TipoConexao.ESCRITA)) {
+            boolean vazio;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Aluno")) {
+                vazio = !rs.next() || rs.getInt(1) == 0;
+            }
+
+            if (vazio) {
+                novoGerador.gerar(conn);
+            } else {
+                logger.info("Banco de benchmark já populado: {}", arquivo);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao popular o banco de benchmark", e);
+        }
+
+        gerador = novoGerador;
+        return gerador;
+    }
+}
@@ -0,0 +1,154 @@
+package com.uerj.gymflow.benchmark;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.GeradorDados;
+import com.uerj.gymflow.database.HistogramaLatencia;
+import com.uerj.gymflow.servidor.ServidorRecepcao;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Teste de carga do {@link ServidorRecepcao} sobre o banco populado pelo {@link BancoBenchmark}.
+ *
+ * Sobe o servidor em uma porta livre e dispara clientes simultâneos, cada um em sua virtual
+ * thread, repetindo requisições sem pausa na proporção de um dia de recepção: a maior parte
+ * é liberação na catraca, seguida de consultas de aluno, mensalidades e progresso. Depois do
+ * aquecimento, mede a vazão e os percentis de latência de cada rota vistos pelo cliente.
+ *
+ * Propriedades: {@code gymflow.carga.clientes} (padrão 200), {@code gymflow.carga.segundos}
+ * (padrão 30) e {@code gymflow.carga.aquecimento} (padrão 5).
+ *
+ * Execução: mvn -P benchmark compile exec:exec@server-load
+ */
+public final class CargaServidor {
+    private static final HistogramaLatencia latenciaGeral = new HistogramaLatencia();
+
+    /**
+     * Rota exercitada, com o peso relativo no sorteio e os resultados medidos
+     */
+    private static final class Rota {
+        private final String nome;
+        private final int peso;
+        private final IntFunction<String> caminho;
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+        private final LongAdder falhas = new LongAdder();
+
+        private Rota(String nome, int peso, IntFunction<String> caminho) {
+            this.nome = nome;
+            this.peso = peso;
+            this.caminho = caminho;
+        }
+    }
+
+    private CargaServidor() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = Integer.getInteger("gymflow.carga.clientes", 200);
+        int segundos = Integer.getInteger("gymflow.carga.segundos", 30);
+        int aquecimento = Integer.getInteger("gymflow.carga.aquecimento", 5);
+
+        GeradorDados gerador = BancoBenchmark.preparar();
+        int alunos = gerador.getAlunos();
+
+        // Os alunos são as primeiras pessoas, então o CPF sorteado é sempre de um aluno
+        List<Rota> rotas = List.of(
+                new Rota("acesso por CPF", 50, id -> "/api/acesso?cpf=" + GeradorDados.cpf(id - 1)),
+                new Rota("aluno por ID", 15, id -> "/api/alunos/" + id),
+                new Rota("mensalidades do aluno", 15, id -> "/api/alunos/" + id + "/mensalidades"),
+                new Rota("progresso do aluno", 10, id -> "/api/alunos/" + id + "/progresso"),
+                new Rota("avaliações do aluno", 5, id -> "/api/alunos/" + id + "/avaliacoes"),
+                new Rota("planos", 5, id -> "/api/planos"));
+        int pesoTotal = rotas.stream().mapToInt(rota -> rota.peso).sum();
+
+        ServidorRecepcao servidor = new ServidorRecepcao(new InetSocketAddress("127.0.0.1", 0));
+        servidor.iniciar();
+        String base = "http://127.0.0.1:" + servidor.getPorta();
+
+        try (ExecutorService virtuais = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient cliente = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(virtuais)
+                     .build()) {
+
+            long inicioMedicao = System.nanoTime() + aquecimento * 1_000_000_000L;
+            long fim = inicioMedicao + segundos * 1_000_000_000L;
+            System.out.printf("Carga: %d clientes, %d s de aquecimento e %d s de medição, %d alunos%n",
+                    clientes, aquecimento, segundos, alunos);
+
+            List<Thread> threads = new ArrayList<>(clientes);
+            for (int i = 0; i < clientes; i++) {
+                threads.add(Thread.ofVirtual().start(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    long agora;
+                    while ((agora = System.nanoTime()) < fim) {
+                        Rota rota = sortear(rotas, aleatorio.nextInt(pesoTotal));
+                        HttpRequest requisicao = HttpRequest.newBuilder(
+                                URI.create(base + rota.caminho.apply(1 + aleatorio.nextInt(alunos)))).build();
+                        boolean sucesso;
+                        try {
+                            sucesso = cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray())
+                                    .statusCode() == 200;
+                        } catch (Exception e) {
+                            sucesso = false;
+                        }
+                        if (agora >= inicioMedicao) {
+                            long duracao = System.nanoTime() - agora;
+                            rota.latencia.registrar(duracao);
+                            latenciaGeral.registrar(duracao);
+                            if (!sucesso) {
+                                rota.falhas.increment();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            servidor.parar(1);
+        }
+
+        imprimirResultado(rotas, segundos);
+        DatabaseConnection.getInstance().closeDataSource();
+    }
+
+    private static Rota sortear(List<Rota> rotas, int sorteio) {
+        for (Rota rota : rotas) {
+            sorteio -= rota.peso;
+            if (sorteio < 0) {
+                return rota;
+            }
+        }
+        return rotas.get(rotas.size() - 1);
+    }
+
+    private static void imprimirResultado(List<Rota> rotas, int segundos) {
+        System.out.printf("%n%-24s %11s %9s %9s %9s %9s %9s %7s%n",
+                "Rota", "requisições", "req/s", "média ms", "p50 ms", "p99 ms", "máx ms", "falhas");
+        long falhas = 0;
+        for (Rota rota : rotas) {
+            imprimirLinha(rota.nome, rota.latencia, segundos, rota.falhas.sum());
+            falhas += rota.falhas.sum();
+        }
+        imprimirLinha("total", latenciaGeral, segundos, falhas);
+    }
+
+    private static void imprimirLinha(String nome, HistogramaLatencia latencia, int segundos, long falhas) {
+        System.out.printf("%-24s %11d %9.0f %9.2f %9.2f %9.2f %9.1f %7d%n",
+                nome, latencia.getTotal(), latencia.getTotal() / (double) segundos, latencia.getMediaMs(),
+                latencia.getPercentilMs(50), latencia.getPercentilMs(99), latencia.getMaximoMs(), falhas);
+    }
+}
@@ -0,0 +1,100 @@
+package com.uerj.gymflow.benchmark;
+
+import com.uerj.gymflow.dao.AlunoDAO;
+import com.uerj.gymflow.dao.AvaliacaoDAO;
+import com.uerj.gymflow.dao.CarregamentoTardio;
+import com.uerj.gymflow.dao.MensalidadeDAO;
+import com.uerj.gymflow.dao.TreinoDAO;
+import com.uerj.gymflow.database.GeradorDados;
+import com.uerj.gymflow.model.Aluno;
+import com.uerj.gymflow.model.Avaliacao;
+import com.uerj.gymflow.model.Mensalidade;
+import com.uerj.gymflow.model.Treino;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das consultas mais usadas da camada DAO, sobre o banco populado pelo
+ * {@link BancoBenchmark}.
+ *
+ * Cada método é medido em vazão (operações por segundo) e em tempo amostrado, que
+ * gera os percentis de latência (p50, p90, p99, p99.9) no relatório do JMH.
+ * As consultas por chave sorteiam um registro diferente a cada chamada; as listagens
+ * completas são reportadas por segundo, já que cada chamada lê dezenas de milhares de linhas.
+ *
+ * Execução: mvn -P benchmark compile exec:exec@benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DaoBenchmark {
+
+    private AlunoDAO alunoDAO;
+    private MensalidadeDAO mensalidadeDAO;
+    private TreinoDAO treinoDAO;
+    private AvaliacaoDAO avaliacaoDAO;
+    private int alunos;
+    private int treinos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        GeradorDados gerador = BancoBenchmark.preparar();
+        alunos = gerador.getAlunos();
+        treinos = gerador.getTreinos();
+        alunoDAO = new AlunoDAO();
+        mensalidadeDAO = new MensalidadeDAO();
+        treinoDAO = new TreinoDAO();
+        avaliacaoDAO = new AvaliacaoDAO();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Aluno> alunoListarTodos() {
+        return alunoDAO.listarTodos();
+    }
+
+    @Benchmark
+    public Aluno alunoBuscarPorCpf() {
+        // Os alunos são as primeiras pessoas, então o CPF sorteado é sempre de um aluno
+        return alunoDAO.buscarPorCpf(GeradorDados.cpf(ThreadLocalRandom.current().nextInt(alunos)));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Mensalidade> mensalidadeBuscarAtrasadas() {
+        return mensalidadeDAO.buscarMensalidadesAtrasadas();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Mensalidade> mensalidadeBuscarAtrasadasTardio() {
+        // Mesma consulta, com o aluno de cada mensalidade carregado só se for acessado
+        return CarregamentoTardio.emEscopo(mensalidadeDAO::buscarMensalidadesAtrasadas);
+    }
+
+    @Benchmark
+    public Treino treinoBuscarPorId() {
+        return treinoDAO.buscarPorId(1 + ThreadLocalRandom.current().nextInt(treinos));
+    }
+
+    @Benchmark
+    public List<Avaliacao> avaliacaoListarPorAluno() {
+        return avaliacaoDAO.listarPorAluno(1 + ThreadLocalRandom.current().nextInt(alunos));
+    }
+}
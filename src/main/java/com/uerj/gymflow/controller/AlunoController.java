@@ -2,6 +2,7 @@ package com.uerj.gymflow.controller;
 
 import com.uerj.gymflow.dao.AlunoDAO;
 import com.uerj.gymflow.dao.AlunoTreinoDAO;
+import com.uerj.gymflow.dao.ImportadorAlunos;
 import com.uerj.gymflow.dao.PlanoDAO;
 import com.uerj.gymflow.dao.TreinoDAO;
 import com.uerj.gymflow.model.Aluno;
@@ -12,6 +13,8 @@ import com.uerj.gymflow.view.AlunoView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -21,6 +24,7 @@ import java.util.Scanner;
  */
 public class AlunoController {
     private static final Logger logger = LoggerFactory.getLogger(AlunoController.class);
+    private static final int TAMANHO_PAGINA = 20;
     private final AlunoDAO alunoDAO;
     private final PlanoDAO planoDAO;
     private final TreinoDAO treinoDAO;
@@ -67,6 +71,9 @@ public class AlunoController {
                     case 7:
                         gerenciarTreinosAluno();
                         break;
+                    case 8:
+                        importarAlunos();
+                        break;
                     case 0:
                         System.out.println("Voltando ao menu principal...");
                         break;
@@ -111,6 +118,34 @@ public class AlunoController {
         }
     }
 
+    /**
+     * Importa alunos de um arquivo CSV, exibindo o andamento a cada lote gravado
+     */
+    private void importarAlunos() {
+        try {
+            String caminho = alunoView.solicitarArquivoImportacao();
+            
+            if (caminho != null) {
+                ImportadorAlunos.Resultado resultado = new ImportadorAlunos().importar(Path.of(caminho),
+                        progresso -> alunoView.exibirProgressoImportacao(progresso.linhasLidas(),
+                                progresso.importados(), progresso.rejeitados(), progresso.linhasPorSegundo()));
+                
+                List<String> rejeicoes = new ArrayList<>();
+                for (ImportadorAlunos.Rejeicao rejeicao : resultado.rejeicoes()) {
+                    rejeicoes.add("Linha " + rejeicao.linha() + ": " + rejeicao.motivo());
+                }
+                ImportadorAlunos.Progresso totais = resultado.totais();
+                alunoView.exibirResultadoImportacao(totais.importados(), totais.rejeitados(),
+                        totais.milissegundos() / 1000.0, rejeicoes);
+                logger.info("Importação de alunos de {}: {} importados, {} rejeitados",
+                        caminho, totais.importados(), totais.rejeitados());
+            }
+        } catch (Exception e) {
+            alunoView.exibirMensagemErro("Erro ao importar alunos: " + e.getMessage());
+            logger.error("Erro ao importar alunos", e);
+        }
+    }
+
     /**
      * Busca um aluno pelo ID
      */
@@ -158,13 +193,30 @@ public class AlunoController {
     }
 
     /**
-     * Lista todos os alunos cadastrados
+     * Lista os alunos cadastrados, uma página por vez
      */
     private void listarTodosAlunos() {
         try {
-            List<Aluno> alunos = alunoDAO.listarTodos();
-            alunoView.exibirListaAlunos(alunos);
-            logger.info("Listagem de alunos concluída. Total: {}", alunos.size());
+            Integer ultimoId = null;
+            int numeroPagina = 0;
+            int total = 0;
+            List<Aluno> pagina;
+            
+            do {
+                pagina = alunoDAO.listarPagina(ultimoId, TAMANHO_PAGINA);
+                if (pagina.isEmpty()) {
+                    if (numeroPagina == 0) {
+                        alunoView.exibirListaAlunos(pagina);
+                    }
+                    break;
+                }
+
+                alunoView.exibirPaginaAlunos(pagina, ++numeroPagina);
+                total += pagina.size();
+                ultimoId = pagina.get(pagina.size() - 1).getIdAluno();
+            } while (pagina.size() == TAMANHO_PAGINA && alunoView.solicitarProximaPagina());
+            
+            logger.info("Listagem de alunos concluída. Exibidos: {}", total);
         } catch (Exception e) {
             alunoView.exibirMensagemErro("Erro ao listar alunos: " + e.getMessage());
             logger.error("Erro ao listar alunos", e);
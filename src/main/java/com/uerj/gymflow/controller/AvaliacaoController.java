@@ -2,6 +2,7 @@ package com.uerj.gymflow.controller;
 
 import com.uerj.gymflow.dao.AlunoDAO;
 import com.uerj.gymflow.dao.AvaliacaoDAO;
+import com.uerj.gymflow.dao.InstantaneoAvaliacoes;
 import com.uerj.gymflow.dao.ProfessorDAO;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.Avaliacao;
@@ -10,6 +11,9 @@ import com.uerj.gymflow.view.AvaliacaoView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Scanner;
 
@@ -19,6 +23,7 @@ import java.util.Scanner;
  */
 public class AvaliacaoController {
     private static final Logger logger = LoggerFactory.getLogger(AvaliacaoController.class);
+    private static final int LIMITE_PROFESSORES_ESTATISTICAS = 10;
     private final AvaliacaoDAO avaliacaoDAO;
     private final AlunoDAO alunoDAO;
     private final ProfessorDAO professorDAO;
@@ -57,6 +62,12 @@ public class AvaliacaoController {
                     case 5:
                         excluirAvaliacao();
                         break;
+                    case 6:
+                        exibirEstatisticas();
+                        break;
+                    case 7:
+                        acompanharProgressoAluno();
+                        break;
                     case 0:
                         System.out.println("Voltando ao menu principal...");
                         break;
@@ -236,4 +247,56 @@ public class AvaliacaoController {
             logger.error("Erro ao excluir avaliação", e);
         }
     }
+
+    /**
+     * Exibe a evolução de um aluno ao longo de todas as suas avaliações
+     */
+    private void acompanharProgressoAluno() {
+        try {
+            Integer idAluno = avaliacaoView.solicitarIdAluno();
+            
+            if (idAluno != null) {
+                Aluno aluno = alunoDAO.buscarPorId(idAluno);
+                
+                if (aluno == null) {
+                    avaliacaoView.exibirMensagemErro("Aluno não encontrado.");
+                    return;
+                }
+                
+                avaliacaoView.exibirProgresso(avaliacaoDAO.acompanharProgresso(idAluno), aluno);
+            }
+        } catch (Exception e) {
+            avaliacaoView.exibirMensagemErro("Erro ao acompanhar progresso: " + e.getMessage());
+            logger.error("Erro ao acompanhar progresso do aluno", e);
+        }
+    }
+
+    /**
+     * Exibe a distribuição do IMC nos últimos 12 meses e os professores cujos alunos
+     * tiveram a maior redução média de peso entre avaliações
+     */
+    private void exibirEstatisticas() {
+        try {
+            LocalDate fim = LocalDate.now();
+            LocalDate inicio = fim.minusMonths(12);
+            avaliacaoView.exibirDistribuicaoIMC(avaliacaoDAO.distribuicaoIMC(inicio, fim),
+                    avaliacaoDAO.imcMedio(inicio, fim), inicio, fim);
+
+            List<InstantaneoAvaliacoes.VariacaoPesoProfessor> variacoes = new ArrayList<>(
+                    avaliacaoDAO.variacaoPesoPorProfessor());
+            variacoes.sort(Comparator.comparingDouble(InstantaneoAvaliacoes.VariacaoPesoProfessor::variacaoMedia));
+            List<InstantaneoAvaliacoes.VariacaoPesoProfessor> maioresReducoes =
+                    variacoes.subList(0, Math.min(LIMITE_PROFESSORES_ESTATISTICAS, variacoes.size()));
+
+            avaliacaoView.exibirCabecalhoVariacaoPeso(maioresReducoes.size());
+            for (InstantaneoAvaliacoes.VariacaoPesoProfessor variacao : maioresReducoes) {
+                Professor professor = professorDAO.buscarPorId(variacao.idProfessor());
+                String nome = professor != null ? professor.getNome() : "Professor " + variacao.idProfessor();
+                avaliacaoView.exibirVariacaoPeso(nome, variacao.avaliacoes(), variacao.variacaoMedia());
+            }
+        } catch (Exception e) {
+            avaliacaoView.exibirMensagemErro("Erro ao calcular estatísticas: " + e.getMessage());
+            logger.error("Erro ao calcular estatísticas das avaliações", e);
+        }
+    }
 }
@@ -15,6 +15,7 @@ import java.util.Scanner;
  */
 public class PessoaController {
     private static final Logger logger = LoggerFactory.getLogger(PessoaController.class);
+    private static final int TAMANHO_PAGINA = 20;
     private final PessoaDAO pessoaDAO;
     private final PessoaView pessoaView;
 
@@ -137,13 +138,30 @@ public class PessoaController {
     }
 
     /**
-     * Lista todas as pessoas cadastradas
+     * Lista as pessoas cadastradas, uma página por vez
      */
     private void listarTodasPessoas() {
         try {
-            List<Pessoa> pessoas = pessoaDAO.listarTodos();
-            pessoaView.exibirListaPessoas(pessoas);
-            logger.info("Listagem de pessoas concluída. Total: {}", pessoas.size());
+            Integer ultimoId = null;
+            int numeroPagina = 0;
+            int total = 0;
+            List<Pessoa> pagina;
+            
+            do {
+                pagina = pessoaDAO.listarPagina(ultimoId, TAMANHO_PAGINA);
+                if (pagina.isEmpty()) {
+                    if (numeroPagina == 0) {
+                        pessoaView.exibirListaPessoas(pagina);
+                    }
+                    break;
+                }
+
+                pessoaView.exibirPaginaPessoas(pagina, ++numeroPagina);
+                total += pagina.size();
+                ultimoId = pagina.get(pagina.size() - 1).getIdPessoa();
+            } while (pagina.size() == TAMANHO_PAGINA && pessoaView.solicitarProximaPagina());
+            
+            logger.info("Listagem de pessoas concluída. Exibidos: {}", total);
         } catch (Exception e) {
             pessoaView.exibirMensagemErro("Erro ao listar pessoas: " + e.getMessage());
             logger.error("Erro ao listar pessoas", e);
@@ -15,6 +15,7 @@ import java.util.Scanner;
  */
 public class ProfessorController {
     private static final Logger logger = LoggerFactory.getLogger(ProfessorController.class);
+    private static final int TAMANHO_PAGINA = 20;
     private final ProfessorDAO professorDAO;
     private final ProfessorView professorView;
 
@@ -139,13 +140,30 @@ public class ProfessorController {
     }
 
     /**
-     * Lista todos os professores cadastrados
+     * Lista os professores cadastrados, uma página por vez
      */
     private void listarTodosProfessores() {
         try {
-            List<Professor> professores = professorDAO.listarTodos();
-            professorView.exibirListaProfessores(professores);
-            logger.info("Listagem de professores concluída. Total: {}", professores.size());
+            Integer ultimoId = null;
+            int numeroPagina = 0;
+            int total = 0;
+            List<Professor> pagina;
+            
+            do {
+                pagina = professorDAO.listarPagina(ultimoId, TAMANHO_PAGINA);
+                if (pagina.isEmpty()) {
+                    if (numeroPagina == 0) {
+                        professorView.exibirListaProfessores(pagina);
+                    }
+                    break;
+                }
+
+                professorView.exibirPaginaProfessores(pagina, ++numeroPagina);
+                total += pagina.size();
+                ultimoId = pagina.get(pagina.size() - 1).getIdProfessor();
+            } while (pagina.size() == TAMANHO_PAGINA && professorView.solicitarProximaPagina());
+            
+            logger.info("Listagem de professores concluída. Exibidos: {}", total);
         } catch (Exception e) {
             professorView.exibirMensagemErro("Erro ao listar professores: " + e.getMessage());
             logger.error("Erro ao listar professores", e);
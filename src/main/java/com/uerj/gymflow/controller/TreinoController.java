@@ -20,6 +20,7 @@ import java.util.Scanner;
  */
 public class TreinoController {
     private static final Logger logger = LoggerFactory.getLogger(TreinoController.class);
+    private static final int TAMANHO_PAGINA = 20;
     private final TreinoDAO treinoDAO;
     private final TreinoView treinoView;
     private final ExercicioDAO exercicioDAO;
@@ -120,7 +121,6 @@ public class TreinoController {
                 
                 // Exibir os dados do treino cadastrado
                 Treino treinoCadastrado = treinoDAO.buscarPorId(novoTreino.getIdTreino());
-                treinoCadastrado.setExercicios(exercicioDAO.buscarPorTreino(novoTreino.getIdTreino()));
                 treinoView.exibirDadosTreino(treinoCadastrado);
             }
         } catch (Exception e) {
@@ -130,19 +130,30 @@ public class TreinoController {
     }
 
     /**
-     * Lista todos os treinos cadastrados
+     * Lista os treinos cadastrados, uma página por vez
      */
     private void listarTreinos() {
         try {
-            List<Treino> treinos = treinoDAO.listarTodos();
-            logger.info("Listagem de todos os treinos. Total: {}", treinos.size());
+            Integer ultimoId = null;
+            int numeroPagina = 0;
+            int total = 0;
+            List<Treino> pagina;
             
-            // Carregar exercícios para cada treino
-            for (Treino treino : treinos) {
-                treino.setExercicios(exercicioDAO.buscarPorTreino(treino.getIdTreino()));
-            }
+            do {
+                pagina = treinoDAO.listarPagina(ultimoId, TAMANHO_PAGINA);
+                if (pagina.isEmpty()) {
+                    if (numeroPagina == 0) {
+                        treinoView.exibirListaTreinos(pagina);
+                    }
+                    break;
+                }
+                
+                treinoView.exibirPaginaTreinos(pagina, ++numeroPagina);
+                total += pagina.size();
+                ultimoId = pagina.get(pagina.size() - 1).getIdTreino();
+            } while (pagina.size() == TAMANHO_PAGINA && treinoView.solicitarProximaPagina());
             
-            treinoView.exibirListaTreinos(treinos);
+            logger.info("Listagem de treinos concluída. Exibidos: {}", total);
         } catch (Exception e) {
             treinoView.exibirMensagemErro("Erro ao listar treinos: " + e.getMessage());
             logger.error("Erro ao listar treinos", e);
@@ -162,9 +173,6 @@ public class TreinoController {
                 Treino treino = treinoDAO.buscarPorId(id);
                 
                 if (treino != null) {
-                    // Carregar exercícios do treino
-                    treino.setExercicios(exercicioDAO.buscarPorTreino(treino.getIdTreino()));
-                    
                     treinoView.exibirDadosTreino(treino);
                     logger.info("Treino encontrado por ID: {}", id);
                     return treino;
@@ -203,12 +211,6 @@ public class TreinoController {
                 List<Treino> treinos = treinoDAO.buscarPorProfessor(idProfessor);
                 logger.info("Encontrados {} treinos para o professor {}", treinos.size(), professor.getNome());
                 
-                // Carregar exercícios para cada treino
-                for (Treino treino : treinos) {
-                    treino.setExercicios(exercicioDAO.buscarPorTreino(treino.getIdTreino()));
-                    treino.setProfessor(professor);
-                }
-                
                 if (treinos.isEmpty()) {
                     treinoView.exibirMensagemNaoEncontrado("Nenhum treino encontrado para o professor " + professor.getNome() + ".");
                 } else {
@@ -255,7 +257,6 @@ public class TreinoController {
                 
                 // Buscar treino atualizado para exibir
                 Treino treinoAposAtualizacao = treinoDAO.buscarPorId(treinoAtualizado.getIdTreino());
-                treinoAposAtualizacao.setExercicios(exercicioDAO.buscarPorTreino(treinoAtualizado.getIdTreino()));
                 treinoView.exibirDadosTreino(treinoAposAtualizacao);
             }
         } catch (Exception e) {
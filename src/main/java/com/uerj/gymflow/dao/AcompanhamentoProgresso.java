@@ -0,0 +1,379 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
+import com.uerj.gymflow.model.Avaliacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evolução de um aluno ao longo de todas as suas avaliações: variação em relação à avaliação
+ * anterior, tendência recente de peso e IMC e marcos atingidos.
+ *
+ * O histórico é lido em ordem de data, pelo índice de avaliações por aluno, e processado em
+ * uma única passada. A tendência é a inclinação da reta de mínimos quadrados das últimas
+ * {@link #JANELA_TENDENCIA} avaliações, em unidades por 30 dias. O resultado fica em cache
+ * até a próxima inclusão ou alteração de avaliação do aluno (as exclusões descartam o cache
+ * inteiro, já que só recebem o ID da avaliação); o cache guarda até
+ * {@code gymflow.cache.progresso.tamanho} alunos (padrão 1000; 0 desliga).
+ */
+public final class AcompanhamentoProgresso {
+    private static final Logger logger = LoggerFactory.getLogger(AcompanhamentoProgresso.class);
+    static final String PROPRIEDADE_TAMANHO = "gymflow.cache.progresso.tamanho";
+    private static final AcompanhamentoProgresso instance = new AcompanhamentoProgresso();
+    public static final int JANELA_TENDENCIA = 4;
+    private static final int DIAS_POR_MES = 30;
+    // Reduções acumuladas do peso inicial que viram marco, em fração do peso
+    private static final float[] METAS_REDUCAO = {0.05f, 0.10f, 0.15f, 0.20f};
+    static final String SQL_HISTORICO = "SELECT id_avaliacao, data_avaliacao, peso, altura FROM Avaliacao " +
+            "WHERE fk_aluno = ? ORDER BY data_avaliacao, id_avaliacao";
+
+    /**
+     * Acontecimento relevante no histórico do aluno
+     * @param indice Posição da avaliação no histórico
+     * @param data Data da avaliação
+     * @param descricao Descrição do marco
+     */
+    public record Marco(int indice, LocalDate data, String descricao) {
+    }
+
+    /**
+     * Histórico calculado de um aluno, da avaliação mais antiga para a mais recente. Os valores
+     * ausentes (peso ou altura não informados, ou sem avaliação anterior para comparar) são NaN.
+     * Os vetores não são expostos, então a mesma instância pode ser compartilhada pelo cache.
+     */
+    public static final class Progresso {
+        private final int idAluno;
+        private final int[] idsAvaliacao;
+        private final int[] dias;
+        private final float[] pesos;
+        private final float[] imcs;
+        private final float[] variacoesPeso;
+        private final float[] variacoesImc;
+        private final float[] tendenciasPeso;
+        private final float[] tendenciasImc;
+        private final List<Marco> marcos;
+
+        private Progresso(int idAluno, int[] idsAvaliacao, int[] dias, float[] pesos, float[] imcs,
+                          float[] variacoesPeso, float[] variacoesImc, float[] tendenciasPeso,
+                          float[] tendenciasImc, List<Marco> marcos) {
+            this.idAluno = idAluno;
+            this.idsAvaliacao = idsAvaliacao;
+            this.dias = dias;
+            this.pesos = pesos;
+            this.imcs = imcs;
+            this.variacoesPeso = variacoesPeso;
+            this.variacoesImc = variacoesImc;
+            this.tendenciasPeso = tendenciasPeso;
+            this.tendenciasImc = tendenciasImc;
+            this.marcos = Collections.unmodifiableList(marcos);
+        }
+
+        public int getIdAluno() {
+            return idAluno;
+        }
+
+        public int getQuantidade() {
+            return dias.length;
+        }
+
+        public int getIdAvaliacao(int indice) {
+            return idsAvaliacao[indice];
+        }
+
+        public LocalDate getData(int indice) {
+            return LocalDate.ofEpochDay(dias[indice]);
+        }
+
+        public float getPeso(int indice) {
+            return pesos[indice];
+        }
+
+        public float getImc(int indice) {
+            return imcs[indice];
+        }
+
+        /**
+         * @return Diferença de peso para a avaliação anterior, em quilos
+         */
+        public float getVariacaoPeso(int indice) {
+            return variacoesPeso[indice];
+        }
+
+        /**
+         * @return Diferença de IMC para a avaliação anterior
+         */
+        public float getVariacaoImc(int indice) {
+            return variacoesImc[indice];
+        }
+
+        /**
+         * @return Tendência de peso até a avaliação, em quilos por 30 dias
+         */
+        public float getTendenciaPeso(int indice) {
+            return tendenciasPeso[indice];
+        }
+
+        /**
+         * @return Tendência de IMC até a avaliação, em pontos por 30 dias
+         */
+        public float getTendenciaImc(int indice) {
+            return tendenciasImc[indice];
+        }
+
+        public List<Marco> getMarcos() {
+            return marcos;
+        }
+
+        /**
+         * @return Diferença entre o primeiro e o último peso informados, ou NaN se houver menos de dois
+         */
+        public float getVariacaoPesoTotal() {
+            float primeiro = Float.NaN;
+            float ultimo = Float.NaN;
+            for (float peso : pesos) {
+                if (peso == peso) {
+                    if (primeiro != primeiro) {
+                        primeiro = peso;
+                    } else {
+                        ultimo = peso;
+                    }
+                }
+            }
+            return ultimo - primeiro;
+        }
+    }
+
+    /**
+     * Reta de mínimos quadrados das últimas avaliações com valor, atualizada a cada nova avaliação
+     */
+    private static final class Tendencia {
+        private final double[] xs = new double[JANELA_TENDENCIA];
+        private final double[] ys = new double[JANELA_TENDENCIA];
+        private int quantidade;
+        private int proxima;
+        private double somaX;
+        private double somaY;
+        private double somaXX;
+        private double somaXY;
+
+        /**
+         * Acrescenta um ponto, descartando o mais antigo se a janela estiver cheia
+         * @return A inclinação por dia, ou NaN com menos de dois pontos ou todos no mesmo dia
+         */
+        private double adicionar(double x, double y) {
+            if (quantidade == JANELA_TENDENCIA) {
+                double xAntigo = xs[proxima];
+                double yAntigo = ys[proxima];
+                somaX -= xAntigo;
+                somaY -= yAntigo;
+                somaXX -= xAntigo * xAntigo;
+                somaXY -= xAntigo * yAntigo;
+            } else {
+                quantidade++;
+            }
+            xs[proxima] = x;
+            ys[proxima] = y;
+            proxima = (proxima + 1) % JANELA_TENDENCIA;
+            somaX += x;
+            somaY += y;
+            somaXX += x * x;
+            somaXY += x * y;
+
+            double denominador = quantidade * somaXX - somaX * somaX;
+            if (quantidade < 2 || denominador <= 0) {
+                return Double.NaN;
+            }
+            return (quantidade * somaXY - somaX * somaY) / denominador;
+        }
+    }
+
+    private final DatabaseConnection dbConnection;
+    private final int capacidade;
+    private final LinkedHashMap<Integer, Progresso> cache;
+    // Incrementada a cada invalidação; um cálculo iniciado antes dela não é guardado
+    private long versao;
+
+    private AcompanhamentoProgresso() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.capacidade = Math.max(0, Integer.getInteger(PROPRIEDADE_TAMANHO, 1000));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Progresso> maisAntigo) {
+                return size() > capacidade;
+            }
+        };
+    }
+
+    public static AcompanhamentoProgresso getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retorna a evolução do aluno, do cache ou calculada a partir do histórico de avaliações
+     * @param idAluno ID do aluno
+     * @return O progresso do aluno, sem avaliações se ele não tiver nenhuma
+     */
+    public Progresso calcular(Integer idAluno) {
+        long versaoLeitura;
+        synchronized (this) {
+            Progresso guardado = cache.get(idAluno);
+            if (guardado != null) {
+                return guardado;
+            }
+            versaoLeitura = versao;
+        }
+
+        Progresso progresso = processar(idAluno);
+
+        synchronized (this) {
+            if (capacidade > 0 && versaoLeitura == versao) {
+                cache.put(idAluno, progresso);
+            }
+        }
+        return progresso;
+    }
+
+    /**
+     * Descarta o progresso guardado do aluno. Deve ser chamado após incluir ou alterar
+     * avaliações dele
+     * @param idAluno ID do aluno, ou null para descartar todos
+     */
+    public synchronized void invalidar(Integer idAluno) {
+        versao++;
+        if (idAluno != null) {
+            cache.remove(idAluno);
+        } else {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Lê o histórico do aluno em ordem de data e calcula variações, tendências e marcos
+     * em uma única passada
+     */
+    private Progresso processar(Integer idAluno) {
+        int capacidadeVetores = 16;
+        int quantidade = 0;
+        int[] ids = new int[capacidadeVetores];
+        int[] dias = new int[capacidadeVetores];
+        float[] pesos = new float[capacidadeVetores];
+        float[] imcs = new float[capacidadeVetores];
+        float[] variacoesPeso = new float[capacidadeVetores];
+        float[] variacoesImc = new float[capacidadeVetores];
+        float[] tendenciasPeso = new float[capacidadeVetores];
+        float[] tendenciasImc = new float[capacidadeVetores];
+        List<Marco> marcos = new ArrayList<>();
+
+        Tendencia tendenciaPeso = new Tendencia();
+        Tendencia tendenciaImc = new Tendencia();
+        float pesoAnterior = Float.NaN;
+        float imcAnterior = Float.NaN;
+        float pesoInicial = Float.NaN;
+        float menorPeso = Float.NaN;
+        int faixaAnterior = -1;
+        int metasAtingidas = 0;
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_HISTORICO)) {
+
+            stmt.setInt(1, idAluno);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Date data = rs.getDate("data_avaliacao");
+                    if (data == null) {
+                        continue;
+                    }
+                    if (quantidade == ids.length) {
+                        capacidadeVetores *= 2;
+                        ids = Arrays.copyOf(ids, capacidadeVetores);
+                        dias = Arrays.copyOf(dias, capacidadeVetores);
+                        pesos = Arrays.copyOf(pesos, capacidadeVetores);
+                        imcs = Arrays.copyOf(imcs, capacidadeVetores);
+                        variacoesPeso = Arrays.copyOf(variacoesPeso, capacidadeVetores);
+                        variacoesImc = Arrays.copyOf(variacoesImc, capacidadeVetores);
+                        tendenciasPeso = Arrays.copyOf(tendenciasPeso, capacidadeVetores);
+                        tendenciasImc = Arrays.copyOf(tendenciasImc, capacidadeVetores);
+                    }
+
+                    int i = quantidade++;
+                    LocalDate dataAvaliacao = data.toLocalDate();
+                    int dia = (int) dataAvaliacao.toEpochDay();
+                    float peso = rs.getFloat("peso");
+                    if (rs.wasNull()) {
+                        peso = Float.NaN;
+                    }
+                    float altura = rs.getFloat("altura");
+                    if (rs.wasNull()) {
+                        altura = Float.NaN;
+                    }
+                    float imc = Avaliacao.calcularIMC(peso, altura);
+
+                    ids[i] = rs.getInt("id_avaliacao");
+                    dias[i] = dia;
+                    pesos[i] = peso;
+                    imcs[i] = imc;
+                    variacoesPeso[i] = peso - pesoAnterior;
+                    variacoesImc[i] = imc - imcAnterior;
+                    tendenciasPeso[i] = peso == peso
+                            ? (float) (tendenciaPeso.adicionar(dia, peso) * DIAS_POR_MES) : Float.NaN;
+                    tendenciasImc[i] = imc == imc
+                            ? (float) (tendenciaImc.adicionar(dia, imc) * DIAS_POR_MES) : Float.NaN;
+
+                    if (imc == imc) {
+                        int faixa = Avaliacao.faixaIMC(imc);
+                        if (faixaAnterior >= 0 && faixa != faixaAnterior) {
+                            marcos.add(new Marco(i, dataAvaliacao, "Classificação do IMC: "
+                                    + Avaliacao.CLASSIFICACOES_IMC.get(faixaAnterior) + " -> "
+                                    + Avaliacao.CLASSIFICACOES_IMC.get(faixa)));
+                        }
+                        faixaAnterior = faixa;
+                        imcAnterior = imc;
+                    }
+
+                    if (peso == peso) {
+                        if (pesoInicial != pesoInicial) {
+                            pesoInicial = peso;
+                            menorPeso = peso;
+                        } else {
+                            if (peso < menorPeso) {
+                                menorPeso = peso;
+                                marcos.add(new Marco(i, dataAvaliacao,
+                                        String.format("Menor peso registrado: %.1f kg", peso)));
+                            }
+                            while (metasAtingidas < METAS_REDUCAO.length
+                                    && peso <= pesoInicial * (1 - METAS_REDUCAO[metasAtingidas])) {
+                                marcos.add(new Marco(i, dataAvaliacao, String.format("Redução de %.0f%% do peso inicial",
+                                        METAS_REDUCAO[metasAtingidas] * 100)));
+                                metasAtingidas++;
+                            }
+                        }
+                        pesoAnterior = peso;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular progresso do aluno {}", idAluno, e);
+            throw new RuntimeException("Erro ao calcular progresso do aluno", e);
+        }
+
+        return new Progresso(idAluno, Arrays.copyOf(ids, quantidade), Arrays.copyOf(dias, quantidade),
+                Arrays.copyOf(pesos, quantidade), Arrays.copyOf(imcs, quantidade),
+                Arrays.copyOf(variacoesPeso, quantidade), Arrays.copyOf(variacoesImc, quantidade),
+                Arrays.copyOf(tendenciasPeso, quantidade), Arrays.copyOf(tendenciasImc, quantidade), marcos);
+    }
+}
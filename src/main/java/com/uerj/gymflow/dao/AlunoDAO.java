@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.Pessoa;
 import com.uerj.gymflow.model.Plano;
@@ -10,9 +11,23 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class AlunoDAO {
     private static final Logger logger = LoggerFactory.getLogger(AlunoDAO.class);
+    // Aluno, Pessoa e Plano vêm de uma única consulta para evitar uma ida ao banco por linha
+    private static final String SQL_LISTAGEM =
+            "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_pessoa, a.fk_plano, " +
+            "p.id_pessoa, p.nome, p.data_nascimento, p.cpf, p.telefone, p.email, " +
+            "pl.id_plano, pl.nome_plano, pl.descricao, pl.duracao, pl.valor_mensal " +
+            "FROM Aluno a " +
+            "INNER JOIN Pessoa p ON a.fk_pessoa = p.id_pessoa " +
+            "LEFT JOIN Plano pl ON a.fk_plano = pl.id_plano ";
+    static final String SQL_BUSCAR_POR_CPF =
+            "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_pessoa, a.fk_plano " +
+            "FROM Aluno a INNER JOIN Pessoa p ON a.fk_pessoa = p.id_pessoa " +
+            "WHERE p.cpf = ?";
+    private final CacheAlunos cache = CacheAlunos.getInstance();
     private final DatabaseConnection dbConnection;
     private final PessoaDAO pessoaDAO;
     private final PlanoDAO planoDAO;
@@ -26,7 +41,7 @@ public class AlunoDAO {
     public void inserir(Aluno aluno) {
         String sqlAluno = "INSERT INTO Aluno (data_matricula, data_assinatura, fk_pessoa, fk_plano) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -64,7 +79,7 @@ public class AlunoDAO {
                 
                 conn.commit();
                 logger.info("Aluno inserido com sucesso: ID {}", aluno.getIdAluno());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao inserir aluno", e);
                 throw new RuntimeException("Erro ao inserir aluno", e);
@@ -76,10 +91,35 @@ public class AlunoDAO {
     }
 
     public Aluno buscarPorId(Integer id) {
+        return MapaIdentidade.obter(Aluno.class, id, this::buscarPorIdNoCache);
+    }
+
+    /**
+     * Busca no cache de alunos e, se não estiver lá, no banco, guardando uma cópia no cache
+     */
+    private Aluno buscarPorIdNoCache(Integer id) {
+        if (!cache.isAtivo()) {
+            return carregarPorId(id);
+        }
+
+        Aluno guardado = cache.buscarPorId(id);
+        if (guardado != null) {
+            return copiar(guardado);
+        }
+
+        long versao = cache.getVersao();
+        Aluno aluno = carregarPorId(id);
+        if (aluno != null) {
+            cache.guardar(copiar(aluno), versao);
+        }
+        return aluno;
+    }
+
+    private Aluno carregarPorId(Integer id) {
         String sql = "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_pessoa, a.fk_plano " +
                      "FROM Aluno a WHERE a.id_aluno = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -99,30 +139,66 @@ public class AlunoDAO {
 
     public List<Aluno> listarTodos() {
         List<Aluno> alunos = new ArrayList<>();
-        String sql = "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_pessoa, a.fk_plano FROM Aluno a";
+        percorrer(alunos::add);
+        return alunos;
+    }
+
+    /**
+     * Lista uma página de alunos em ordem de ID, a partir do último ID da página anterior
+     * @param aposId ID do último registro da página anterior, ou null para a primeira página
+     * @param limite Quantidade máxima de registros da página
+     * @return A página, vazia quando não houver mais registros
+     */
+    public List<Aluno> listarPagina(Integer aposId, int limite) {
+        List<Aluno> alunos = new ArrayList<>();
+        String sql = SQL_LISTAGEM + "WHERE a.id_aluno > ? ORDER BY a.id_aluno LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, aposId != null ? aposId : 0);
+            stmt.setInt(2, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    alunos.add(montarAlunoDoJoin(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao listar página de alunos", e);
+            throw new RuntimeException("Erro ao listar página de alunos", e);
+        }
+        
+        return alunos;
+    }
+
+    /**
+     * Percorre todos os alunos em ordem de ID, com pessoa e plano vindos da mesma consulta,
+     * entregando um por vez ao consumidor sem guardar a lista
+     * @param consumidor Recebe cada aluno
+     */
+    public void percorrer(Consumer<Aluno> consumidor) {
+        String sql = SQL_LISTAGEM + "ORDER BY a.id_aluno";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Aluno aluno = montarAluno(rs);
-                if (aluno != null) {
-                    alunos.add(aluno);
-                }
+                consumidor.accept(montarAlunoDoJoin(rs));
             }
         } catch (SQLException e) {
             logger.error("Erro ao listar alunos", e);
             throw new RuntimeException("Erro ao listar alunos", e);
         }
-        
-        return alunos;
     }
 
     public void atualizar(Aluno aluno) {
+        MapaIdentidade.remover(Aluno.class, aluno.getIdAluno());
+
         String sqlAluno = "UPDATE Aluno SET data_matricula = ?, data_assinatura = ?, fk_plano = ? WHERE id_aluno = ?";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -148,8 +224,9 @@ public class AlunoDAO {
                 }
                 
                 conn.commit();
+                cache.remover(aluno.getIdAluno());
                 logger.info("Aluno atualizado com sucesso: ID {}", aluno.getIdAluno());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao atualizar aluno", e);
                 throw new RuntimeException("Erro ao atualizar aluno", e);
@@ -161,6 +238,8 @@ public class AlunoDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Aluno.class, id);
+
         Aluno aluno = buscarPorId(id);
         if (aluno == null) {
             logger.warn("Nenhum aluno encontrado para exclusão com ID {}", id);
@@ -169,7 +248,7 @@ public class AlunoDAO {
 
         String sql = "DELETE FROM Aluno WHERE id_aluno = ?";
         
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -185,8 +264,9 @@ public class AlunoDAO {
                 pessoaDAO.excluir(aluno.getIdPessoa());
                 
                 conn.commit();
+                cache.remover(id);
                 logger.info("Aluno excluído com sucesso: ID {}", id);
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao excluir aluno", e);
                 throw new RuntimeException("Erro ao excluir aluno", e);
@@ -198,12 +278,26 @@ public class AlunoDAO {
     }
 
     public Aluno buscarPorCpf(String cpf) {
-        String sql = "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_pessoa, a.fk_plano " +
-                     "FROM Aluno a INNER JOIN Pessoa p ON a.fk_pessoa = p.id_pessoa " +
-                     "WHERE p.cpf = ?";
+        if (!cache.isAtivo()) {
+            return carregarPorCpf(cpf);
+        }
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Aluno guardado = cache.buscarPorCpf(cpf);
+        if (guardado != null) {
+            return copiar(guardado);
+        }
+
+        long versao = cache.getVersao();
+        Aluno aluno = carregarPorCpf(cpf);
+        if (aluno != null) {
+            cache.guardar(copiar(aluno), versao);
+        }
+        return aluno;
+    }
+
+    private Aluno carregarPorCpf(String cpf) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_CPF)) {
             
             stmt.setString(1, cpf);
             
@@ -220,6 +314,37 @@ public class AlunoDAO {
         return null;
     }
 
+    /**
+     * Monta um aluno a partir de uma linha que já traz as colunas de Aluno, Pessoa e Plano
+     * (consulta com JOIN), sem consultas adicionais ao banco.
+     */
+    private Aluno montarAlunoDoJoin(ResultSet rs) throws SQLException {
+        Aluno aluno = new Aluno();
+        PessoaDAO.preencherPessoa(rs, aluno);
+        aluno.setIdAluno(rs.getInt("id_aluno"));
+
+        if (rs.getDate("data_matricula") != null) {
+            aluno.setDataMatricula(rs.getDate("data_matricula").toLocalDate());
+        }
+
+        if (rs.getDate("data_assinatura") != null) {
+            aluno.setDataAssinatura(rs.getDate("data_assinatura").toLocalDate());
+        }
+
+        Integer idPlano = rs.getInt("fk_plano");
+        if (!rs.wasNull()) {
+            aluno.setIdPlano(idPlano);
+
+            // LEFT JOIN: id_plano nulo indica que o plano referenciado não existe mais
+            rs.getInt("id_plano");
+            if (!rs.wasNull()) {
+                aluno.setPlano(planoDAO.extrairPlanoDoResultSet(rs));
+            }
+        }
+
+        return aluno;
+    }
+
     private Aluno montarAluno(ResultSet rs) throws SQLException {
         Integer idPessoa = rs.getInt("fk_pessoa");
         Pessoa pessoa = pessoaDAO.buscarPorId(idPessoa);
@@ -248,16 +373,50 @@ public class AlunoDAO {
         aluno.setTelefone(pessoa.getTelefone());
         aluno.setEmail(pessoa.getEmail());
 
-        // Busca e configura o plano se existir
         Integer idPlano = rs.getInt("fk_plano");
         if (!rs.wasNull()) {
-            aluno.setIdPlano(idPlano);
+            definirPlano(aluno, idPlano);
+        }
+        
+        return aluno;
+    }
+
+    /**
+     * Busca e configura o plano do aluno; com o carregamento tardio, só no primeiro acesso
+     */
+    private void definirPlano(Aluno aluno, Integer idPlano) {
+        aluno.setIdPlano(idPlano);
+        if (CarregamentoTardio.isAtivo()) {
+            aluno.setReferenciaPlano(CarregamentoTardio.referencia(Plano.class, idPlano));
+        } else {
             Plano plano = planoDAO.buscarPorId(idPlano);
             if (plano != null) {
                 aluno.setPlano(plano);
             }
         }
-        
+    }
+
+    /**
+     * Cria uma cópia independente do aluno, para guardar no cache ou entregar a partir dele.
+     * O plano não é copiado: é buscado de novo no catálogo de planos, que acompanha as
+     * alterações do plano.
+     */
+    private Aluno copiar(Aluno original) {
+        Aluno aluno = new Aluno();
+        aluno.setIdPessoa(original.getIdPessoa());
+        aluno.setNome(original.getNome());
+        aluno.setDataNascimento(original.getDataNascimento());
+        aluno.setCpf(original.getCpf());
+        aluno.setTelefone(original.getTelefone());
+        aluno.setEmail(original.getEmail());
+        aluno.setIdAluno(original.getIdAluno());
+        aluno.setDataMatricula(original.getDataMatricula());
+        aluno.setDataAssinatura(original.getDataAssinatura());
+
+        if (original.getIdPlano() != null) {
+            definirPlano(aluno, original.getIdPlano());
+        }
+
         return aluno;
     }
 }
@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.AlunoTreino;
 import com.uerj.gymflow.model.Treino;
@@ -14,6 +15,12 @@ import java.util.List;
 
 public class AlunoTreinoDAO {
     private static final Logger logger = LoggerFactory.getLogger(AlunoTreinoDAO.class);
+    static final String SQL_TREINOS_DO_ALUNO =
+            "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
+            "FROM Aluno_treino WHERE id_aluno = ? ORDER BY data_inicio DESC";
+    static final String SQL_ALUNOS_DO_TREINO =
+            "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
+            "FROM Aluno_treino WHERE id_treino = ? ORDER BY data_inicio DESC";
     private final DatabaseConnection dbConnection;
     private final AlunoDAO alunoDAO;
     private final TreinoDAO treinoDAO;
@@ -31,7 +38,7 @@ public class AlunoTreinoDAO {
     public void associarTreinoAoAluno(AlunoTreino alunoTreino) {
         String sql = "INSERT INTO Aluno_treino (id_aluno, id_treino, data_inicio, data_fim, observacoes) VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, alunoTreino.getIdAluno());
@@ -72,7 +79,7 @@ public class AlunoTreinoDAO {
         String sql = "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
                      "FROM Aluno_treino WHERE id_aluno = ? AND id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idAluno);
@@ -84,15 +91,12 @@ public class AlunoTreinoDAO {
                     
                     // Carregar objetos relacionados
                     Aluno aluno = alunoDAO.buscarPorId(idAluno);
-                    Treino treino = treinoDAO.buscarPorId(idTreino);
                     
                     if (aluno != null) {
                         alunoTreino.setAluno(aluno);
                     }
                     
-                    if (treino != null) {
-                        alunoTreino.setTreino(treino);
-                    }
+                    carregarTreino(alunoTreino);
                     
                     return alunoTreino;
                 }
@@ -111,34 +115,31 @@ public class AlunoTreinoDAO {
      * @return Lista de objetos AlunoTreino com os treinos do aluno
      */
     public List<AlunoTreino> listarTreinosDoAluno(Integer idAluno) {
-        List<AlunoTreino> treinosDoAluno = new ArrayList<>();
-        String sql = "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
-                     "FROM Aluno_treino WHERE id_aluno = ? ORDER BY data_inicio DESC";
+        return MapaIdentidade.emEscopo(() -> {
+            List<AlunoTreino> treinosDoAluno = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_TREINOS_DO_ALUNO)) {
             
-            stmt.setInt(1, idAluno);
+                stmt.setInt(1, idAluno);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
                     
-                    // Carregar o treino
-                    Treino treino = treinoDAO.buscarPorId(alunoTreino.getIdTreino());
-                    if (treino != null) {
-                        alunoTreino.setTreino(treino);
-                    }
+                        // Carregar o treino
+                        carregarTreino(alunoTreino);
                     
-                    treinosDoAluno.add(alunoTreino);
+                        treinosDoAluno.add(alunoTreino);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar treinos do aluno", e);
+                throw new RuntimeException("Erro ao listar treinos do aluno", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar treinos do aluno", e);
-            throw new RuntimeException("Erro ao listar treinos do aluno", e);
-        }
         
-        return treinosDoAluno;
+            return treinosDoAluno;
+        });
     }
 
     /**
@@ -147,34 +148,34 @@ public class AlunoTreinoDAO {
      * @return Lista de objetos AlunoTreino com os alunos do treino
      */
     public List<AlunoTreino> listarAlunosDoTreino(Integer idTreino) {
-        List<AlunoTreino> alunosDoTreino = new ArrayList<>();
-        String sql = "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
-                     "FROM Aluno_treino WHERE id_treino = ? ORDER BY data_inicio DESC";
+        return MapaIdentidade.emEscopo(() -> {
+            List<AlunoTreino> alunosDoTreino = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_ALUNOS_DO_TREINO)) {
             
-            stmt.setInt(1, idTreino);
+                stmt.setInt(1, idTreino);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
                     
-                    // Carregar o aluno
-                    Aluno aluno = alunoDAO.buscarPorId(alunoTreino.getIdAluno());
-                    if (aluno != null) {
-                        alunoTreino.setAluno(aluno);
-                    }
+                        // Carregar o aluno
+                        Aluno aluno = alunoDAO.buscarPorId(alunoTreino.getIdAluno());
+                        if (aluno != null) {
+                            alunoTreino.setAluno(aluno);
+                        }
                     
-                    alunosDoTreino.add(alunoTreino);
+                        alunosDoTreino.add(alunoTreino);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar alunos do treino", e);
+                throw new RuntimeException("Erro ao listar alunos do treino", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar alunos do treino", e);
-            throw new RuntimeException("Erro ao listar alunos do treino", e);
-        }
         
-        return alunosDoTreino;
+            return alunosDoTreino;
+        });
     }
 
     /**
@@ -183,37 +184,36 @@ public class AlunoTreinoDAO {
      * @return Lista de objetos AlunoTreino com os treinos ativos
      */
     public List<AlunoTreino> listarTreinosAtivosDoAluno(Integer idAluno) {
-        List<AlunoTreino> treinosAtivos = new ArrayList<>();
-        String sql = "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
-                     "FROM Aluno_treino " +
-                     "WHERE id_aluno = ? AND (data_fim IS NULL OR data_fim >= ?) " +
-                     "ORDER BY data_inicio DESC";
+        return MapaIdentidade.emEscopo(() -> {
+            List<AlunoTreino> treinosAtivos = new ArrayList<>();
+            String sql = "SELECT id_aluno, id_treino, data_inicio, data_fim, observacoes " +
+                         "FROM Aluno_treino " +
+                         "WHERE id_aluno = ? AND (data_fim IS NULL OR data_fim >= ?) " +
+                         "ORDER BY data_inicio DESC";
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, idAluno);
-            stmt.setDate(2, Date.valueOf(LocalDate.now()));
+                stmt.setInt(1, idAluno);
+                stmt.setDate(2, Date.valueOf(LocalDate.now()));
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        AlunoTreino alunoTreino = extrairAlunoTreinoDoResultSet(rs);
                     
-                    // Carregar o treino
-                    Treino treino = treinoDAO.buscarPorId(alunoTreino.getIdTreino());
-                    if (treino != null) {
-                        alunoTreino.setTreino(treino);
-                    }
+                        // Carregar o treino
+                        carregarTreino(alunoTreino);
                     
-                    treinosAtivos.add(alunoTreino);
+                        treinosAtivos.add(alunoTreino);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar treinos ativos do aluno", e);
+                throw new RuntimeException("Erro ao listar treinos ativos do aluno", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar treinos ativos do aluno", e);
-            throw new RuntimeException("Erro ao listar treinos ativos do aluno", e);
-        }
         
-        return treinosAtivos;
+            return treinosAtivos;
+        });
     }
 
     /**
@@ -224,7 +224,7 @@ public class AlunoTreinoDAO {
         String sql = "UPDATE Aluno_treino SET data_inicio = ?, data_fim = ?, observacoes = ? " +
                      "WHERE id_aluno = ? AND id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             if (alunoTreino.getDataInicio() != null) {
@@ -264,7 +264,7 @@ public class AlunoTreinoDAO {
     public void removerTreinoDoAluno(Integer idAluno, Integer idTreino) {
         String sql = "DELETE FROM Aluno_treino WHERE id_aluno = ? AND id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idAluno);
@@ -291,7 +291,7 @@ public class AlunoTreinoDAO {
     public void encerrarTreino(Integer idAluno, Integer idTreino) {
         String sql = "UPDATE Aluno_treino SET data_fim = ? WHERE id_aluno = ? AND id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setDate(1, Date.valueOf(LocalDate.now()));
@@ -321,7 +321,7 @@ public class AlunoTreinoDAO {
         String sqlSelect = "SELECT data_fim FROM Aluno_treino WHERE id_aluno = ? AND id_treino = ?";
         String sqlUpdate = "UPDATE Aluno_treino SET data_fim = ? WHERE id_aluno = ? AND id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             LocalDate novaDataFim;
             
             // Determinar a nova data de fim
@@ -394,4 +394,19 @@ public class AlunoTreinoDAO {
         
         return alunoTreino;
     }
+
+    /**
+     * Associa o treino: buscado agora ou, com o {@link CarregamentoTardio} ativo,
+     * apenas no primeiro acesso
+     */
+    private void carregarTreino(AlunoTreino alunoTreino) {
+        if (CarregamentoTardio.isAtivo()) {
+            alunoTreino.setReferenciaTreino(CarregamentoTardio.referencia(Treino.class, alunoTreino.getIdTreino()));
+            return;
+        }
+        Treino treino = treinoDAO.buscarPorId(alunoTreino.getIdTreino());
+        if (treino != null) {
+            alunoTreino.setTreino(treino);
+        }
+    }
 }
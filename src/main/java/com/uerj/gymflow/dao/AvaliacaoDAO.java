@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.Avaliacao;
 import com.uerj.gymflow.model.Professor;
@@ -11,17 +12,23 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class AvaliacaoDAO {
     private static final Logger logger = LoggerFactory.getLogger(AvaliacaoDAO.class);
+    static final String SQL_LISTAR_POR_ALUNO = "SELECT * FROM Avaliacao WHERE fk_aluno = ? ORDER BY data_avaliacao DESC";
     private final DatabaseConnection dbConnection;
     private final AlunoDAO alunoDAO;
     private final ProfessorDAO professorDAO;
+    private final InstantaneoAvaliacoes instantaneo;
+    private final AcompanhamentoProgresso acompanhamentoProgresso;
 
     public AvaliacaoDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
         this.alunoDAO = new AlunoDAO();
         this.professorDAO = new ProfessorDAO();
+        this.instantaneo = InstantaneoAvaliacoes.getInstance();
+        this.acompanhamentoProgresso = AcompanhamentoProgresso.getInstance();
     }
 
     /**
@@ -33,7 +40,7 @@ public class AvaliacaoDAO {
         String sql = "INSERT INTO Avaliacao (data_avaliacao, peso, altura, observacoes, fk_aluno, fk_professor) " +
                      "VALUES (?, ?, ?, ?, ?, ?)";
     
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             // Preencher os parâmetros
@@ -61,6 +68,7 @@ public class AvaliacaoDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         avaliacao.setIdAvaliacao(rs.getInt(1));
+                        acompanhamentoProgresso.invalidar(avaliacao.getIdAluno());
                         logger.info("Avaliação inserida com sucesso. ID: {}", avaliacao.getIdAvaliacao());
                         return avaliacao;
                     }
@@ -82,7 +90,7 @@ public class AvaliacaoDAO {
     public Avaliacao buscarPorId(Integer idAvaliacao) {
         String sql = "SELECT * FROM Avaliacao WHERE id_avaliacao = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idAvaliacao);
@@ -97,10 +105,7 @@ public class AvaliacaoDAO {
                         avaliacao.setAluno(aluno);
                     }
                     
-                    if (avaliacao.getIdProfessor() != null) {
-                        Professor professor = professorDAO.buscarPorId(avaliacao.getIdProfessor());
-                        avaliacao.setProfessor(professor);
-                    }
+                    carregarProfessor(avaliacao);
                     
                     return avaliacao;
                 }
@@ -119,60 +124,86 @@ public class AvaliacaoDAO {
      * @return Lista de avaliações do aluno, ordenadas pela data mais recente primeiro
      */
     public List<Avaliacao> listarPorAluno(Integer idAluno) {
-        List<Avaliacao> avaliacoes = new ArrayList<>();
-        String sql = "SELECT * FROM Avaliacao WHERE fk_aluno = ? ORDER BY data_avaliacao DESC";
-        
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return MapaIdentidade.emEscopo(() -> {
+            List<Avaliacao> avaliacoes = new ArrayList<>();
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_LISTAR_POR_ALUNO)) {
             
-            stmt.setInt(1, idAluno);
+                stmt.setInt(1, idAluno);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Avaliacao avaliacao = extrairAvaliacaoDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Avaliacao avaliacao = extrairAvaliacaoDoResultSet(rs);
                     
-                    // Carregar objeto Professor relacionado
-                    if (avaliacao.getIdProfessor() != null) {
-                        Professor professor = professorDAO.buscarPorId(avaliacao.getIdProfessor());
-                        avaliacao.setProfessor(professor);
-                    }
+                        // Carregar objeto Professor relacionado
+                        carregarProfessor(avaliacao);
                     
-                    avaliacoes.add(avaliacao);
+                        avaliacoes.add(avaliacao);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar avaliações por aluno", e);
+                throw new RuntimeException("Erro ao listar avaliações por aluno", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar avaliações por aluno", e);
-            throw new RuntimeException("Erro ao listar avaliações por aluno", e);
-        }
         
-        return avaliacoes;
+            return avaliacoes;
+        });
     }
 
     /**
-     * Atualiza uma avaliação existente
+     * Atualiza uma avaliação existente. O aluno da avaliação não muda; o progresso descartado
+     * é o do aluno gravado no banco, além do informado no objeto, se for outro.
      * @param avaliacao A avaliação com os dados atualizados
      */
     public void atualizar(Avaliacao avaliacao) {
+        String sqlAluno = "SELECT fk_aluno FROM Avaliacao WHERE id_avaliacao = ?";
         String sql = "UPDATE Avaliacao SET data_avaliacao = ?, peso = ?, altura = ?, observacoes = ?, " +
                      "fk_professor = ? WHERE id_avaliacao = ?";
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            if (avaliacao.getDataAvaliacao() != null) {
-                stmt.setDate(1, Date.valueOf(avaliacao.getDataAvaliacao()));
-            } else {
-                stmt.setNull(1, Types.DATE);
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
+            // Lido na conexão de escrita, nenhuma outra escrita acontece entre a leitura e o UPDATE
+            Integer idAlunoGravado = null;
+            try (PreparedStatement stmt = conn.prepareStatement(sqlAluno)) {
+                stmt.setInt(1, avaliacao.getIdAvaliacao());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        idAlunoGravado = rs.getObject("fk_aluno", Integer.class);
+                    }
+                }
             }
-            
-            setFloatOrNull(stmt, 2, avaliacao.getPeso());
-            
-            int linhasAfetadas = stmt.executeUpdate();
-            
-            if (linhasAfetadas > 0) {
-                logger.info("Avaliação atualizada com sucesso. ID: {}", avaliacao.getIdAvaliacao());
-            } else {
-                logger.warn("Nenhuma avaliação encontrada para atualização com ID: {}", avaliacao.getIdAvaliacao());
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                if (avaliacao.getDataAvaliacao() != null) {
+                    stmt.setDate(1, Date.valueOf(avaliacao.getDataAvaliacao()));
+                } else {
+                    stmt.setNull(1, Types.DATE);
+                }
+                
+                setFloatOrNull(stmt, 2, avaliacao.getPeso());
+                setFloatOrNull(stmt, 3, avaliacao.getAltura());
+                stmt.setString(4, avaliacao.getObservacoes());
+                
+                if (avaliacao.getIdProfessor() != null) {
+                    stmt.setInt(5, avaliacao.getIdProfessor());
+                } else {
+                    stmt.setNull(5, Types.INTEGER);
+                }
+                
+                stmt.setInt(6, avaliacao.getIdAvaliacao());
+                
+                int linhasAfetadas = stmt.executeUpdate();
+                
+                if (linhasAfetadas > 0) {
+                    instantaneo.invalidar();
+                    acompanhamentoProgresso.invalidar(idAlunoGravado);
+                    if (avaliacao.getIdAluno() != null && !avaliacao.getIdAluno().equals(idAlunoGravado)) {
+                        acompanhamentoProgresso.invalidar(avaliacao.getIdAluno());
+                    }
+                    logger.info("Avaliação atualizada com sucesso. ID: {}", avaliacao.getIdAvaliacao());
+                } else {
+                    logger.warn("Nenhuma avaliação encontrada para atualização com ID: {}", avaliacao.getIdAvaliacao());
+                }
             }
         } catch (SQLException e) {
             logger.error("Erro ao atualizar avaliação", e);
@@ -187,7 +218,7 @@ public class AvaliacaoDAO {
     public void excluir(Integer idAvaliacao) {
         String sql = "DELETE FROM Avaliacao WHERE id_avaliacao = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idAvaliacao);
@@ -195,6 +226,8 @@ public class AvaliacaoDAO {
             int linhasAfetadas = stmt.executeUpdate();
             
             if (linhasAfetadas > 0) {
+                instantaneo.invalidar();
+                acompanhamentoProgresso.invalidar(null);
                 logger.info("Avaliação excluída com sucesso. ID: {}", idAvaliacao);
             } else {
                 logger.warn("Nenhuma avaliação encontrada para exclusão com ID: {}", idAvaliacao);
@@ -205,6 +238,44 @@ public class AvaliacaoDAO {
         }
     }
 
+    /**
+     * Calcula a evolução do aluno em todas as suas avaliações: variações, tendências e marcos
+     * @param idAluno ID do aluno
+     * @return O progresso do aluno, guardado em cache até a próxima alteração nas avaliações dele
+     */
+    public AcompanhamentoProgresso.Progresso acompanharProgresso(Integer idAluno) {
+        return acompanhamentoProgresso.calcular(idAluno);
+    }
+
+    /**
+     * Conta as avaliações do período por classificação do IMC, a partir das avaliações em memória
+     * @param inicio Primeiro dia considerado
+     * @param fim Último dia considerado
+     * @return Quantidade por classificação, incluindo "Não calculado"
+     */
+    public Map<String, Integer> distribuicaoIMC(LocalDate inicio, LocalDate fim) {
+        return instantaneo.distribuicaoIMC(inicio, fim);
+    }
+
+    /**
+     * Calcula o IMC médio das avaliações do período, a partir das avaliações em memória
+     * @param inicio Primeiro dia considerado
+     * @param fim Último dia considerado
+     * @return O IMC médio ou NaN se nenhuma avaliação do período tiver IMC
+     */
+    public double imcMedio(LocalDate inicio, LocalDate fim) {
+        return instantaneo.imcMedio(inicio, fim);
+    }
+
+    /**
+     * Calcula a variação média de peso dos alunos por professor avaliador, a partir das
+     * avaliações em memória
+     * @return Uma linha por professor, em ordem de ID
+     */
+    public List<InstantaneoAvaliacoes.VariacaoPesoProfessor> variacaoPesoPorProfessor() {
+        return instantaneo.variacaoPesoPorProfessor();
+    }
+
     /**
      * Extrai uma avaliação do ResultSet
      * @param rs ResultSet contendo os dados
@@ -256,4 +327,19 @@ public class AvaliacaoDAO {
             stmt.setNull(paramIndex, Types.FLOAT);
         }
     }
+
+    /**
+     * Associa o professor da avaliação: buscado agora ou, com o {@link CarregamentoTardio}
+     * ativo, apenas no primeiro acesso
+     */
+    private void carregarProfessor(Avaliacao avaliacao) {
+        if (avaliacao.getIdProfessor() == null) {
+            return;
+        }
+        if (CarregamentoTardio.isAtivo()) {
+            avaliacao.setReferenciaProfessor(CarregamentoTardio.referencia(Professor.class, avaliacao.getIdProfessor()));
+        } else {
+            avaliacao.setProfessor(professorDAO.buscarPorId(avaliacao.getIdProfessor()));
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.RegistroMetricas;
+import com.uerj.gymflow.model.Aluno;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU de alunos, compartilhado por toda a aplicação, consultado por ID do aluno e por CPF.
+ *
+ * Guarda até um número fixo de alunos; ao passar do limite, sai o usado há mais tempo. As
+ * escritas em Aluno e Pessoa removem o aluno afetado depois de gravadas, e uma leitura do
+ * banco que tenha começado antes de uma remoção não é guardada (ver {@link #getVersao()}).
+ * O próprio cache guarda e entrega as instâncias; as cópias ficam a cargo do AlunoDAO.
+ *
+ * O limite vem da propriedade {@code gymflow.cache.aluno.tamanho} (padrão 10000); 0 desliga o cache.
+ */
+final class CacheAlunos {
+    static final String PROPRIEDADE_TAMANHO = "gymflow.cache.aluno.tamanho";
+    private static final CacheAlunos instance = new CacheAlunos();
+
+    private final int capacidade;
+    private final LinkedHashMap<Integer, Aluno> porId;
+    private final Map<String, Integer> idPorCpf = new HashMap<>();
+    private final Map<Integer, Integer> idPorPessoa = new HashMap<>();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    // Incrementada a cada remoção; guardar() recusa alunos lidos antes dela
+    private long versao;
+
+    private CacheAlunos() {
+        this.capacidade = Math.max(0, Integer.getInteger(PROPRIEDADE_TAMANHO, 10_000));
+        this.porId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Aluno> maisAntigo) {
+                if (size() > capacidade) {
+                    removerIndices(maisAntigo.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        RegistroMetricas metricas = RegistroMetricas.getInstance();
+        metricas.registrarMedidor("cache.aluno.acertos", acertos::sum);
+        metricas.registrarMedidor("cache.aluno.falhas", falhas::sum);
+        metricas.registrarMedidor("cache.aluno.taxa_acerto_pct", () -> {
+            long totalAcertos = acertos.sum();
+            long total = totalAcertos + falhas.sum();
+            return total == 0 ? 0 : Math.round(totalAcertos * 100.0 / total);
+        });
+        metricas.registrarMedidor("cache.aluno.tamanho", this::getTamanho);
+    }
+
+    static CacheAlunos getInstance() {
+        return instance;
+    }
+
+    boolean isAtivo() {
+        return capacidade > 0;
+    }
+
+    /**
+     * @return O aluno guardado ou null se não estiver no cache
+     */
+    synchronized Aluno buscarPorId(Integer idAluno) {
+        return contabilizar(porId.get(idAluno));
+    }
+
+    /**
+     * @return O aluno guardado ou null se não estiver no cache
+     */
+    synchronized Aluno buscarPorCpf(String cpf) {
+        Integer idAluno = idPorCpf.get(cpf);
+        return contabilizar(idAluno != null ? porId.get(idAluno) : null);
+    }
+
+    /**
+     * @return Versão atual, a ser lida antes de buscar o aluno no banco e passada a guardar()
+     */
+    synchronized long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Guarda um aluno lido do banco, a menos que algum aluno tenha sido removido depois
+     * da leitura (versão diferente), caso em que a leitura pode estar desatualizada
+     * @param aluno Aluno lido
+     * @param versaoLeitura Versão obtida antes da leitura
+     */
+    synchronized void guardar(Aluno aluno, long versaoLeitura) {
+        if (!isAtivo() || versaoLeitura != versao) {
+            return;
+        }
+        Aluno anterior = porId.put(aluno.getIdAluno(), aluno);
+        if (anterior != null) {
+            removerIndices(anterior);
+        }
+        if (aluno.getCpf() != null) {
+            idPorCpf.put(aluno.getCpf(), aluno.getIdAluno());
+        }
+        if (aluno.getIdPessoa() != null) {
+            idPorPessoa.put(aluno.getIdPessoa(), aluno.getIdAluno());
+        }
+    }
+
+    /**
+     * Remove o aluno, após uma atualização ou exclusão
+     * @param idAluno ID do aluno
+     */
+    synchronized void remover(Integer idAluno) {
+        versao++;
+        Aluno aluno = porId.remove(idAluno);
+        if (aluno != null) {
+            removerIndices(aluno);
+        }
+    }
+
+    /**
+     * Remove o aluno da pessoa, após uma atualização ou exclusão direta em Pessoa
+     * @param idPessoa ID da pessoa
+     */
+    synchronized void removerPorPessoa(Integer idPessoa) {
+        versao++;
+        Integer idAluno = idPorPessoa.get(idPessoa);
+        if (idAluno != null) {
+            remover(idAluno);
+        }
+    }
+
+    synchronized long getTamanho() {
+        return porId.size();
+    }
+
+    private Aluno contabilizar(Aluno aluno) {
+        if (aluno != null) {
+            acertos.increment();
+        } else {
+            falhas.increment();
+        }
+        return aluno;
+    }
+
+    private void removerIndices(Aluno aluno) {
+        idPorCpf.remove(aluno.getCpf(), aluno.getIdAluno());
+        idPorPessoa.remove(aluno.getIdPessoa(), aluno.getIdAluno());
+    }
+}
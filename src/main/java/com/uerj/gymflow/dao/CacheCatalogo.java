@@ -0,0 +1,205 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.RegistroMetricas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache de leitura, compartilhado por toda a aplicação, de uma tabela de catálogo pequena
+ * e pouco alterada (Plano, Exercicio).
+ *
+ * Na primeira consulta a tabela inteira é carregada, e buscarPorId e listarTodos passam a
+ * ser atendidos da memória até vencer a validade (TTL), quando a tabela é relida. As escritas
+ * do DAO invalidam só o registro alterado, que é relido sozinho na próxima busca por ID; a
+ * listagem completa relê a tabela enquanto houver registro invalidado. Como as entidades são
+ * mutáveis, quem consulta recebe sempre cópias.
+ *
+ * A validade vem da propriedade {@code gymflow.cache.catalogo.ttl}, em segundos (padrão 300);
+ * 0 desliga o cache. Acertos, falhas e a taxa de acerto aparecem no relatório de métricas.
+ */
+public final class CacheCatalogo<T> {
+    private static final Logger logger = LoggerFactory.getLogger(CacheCatalogo.class);
+    static final String PROPRIEDADE_TTL = "gymflow.cache.catalogo.ttl";
+
+    /**
+     * Conteúdo carregado da tabela, nunca alterado depois de publicado
+     */
+    private static final class Tabela<T> {
+        private final Map<Integer, T> porId;
+        private final long carregadaEm;
+
+        private Tabela(Map<Integer, T> porId, long carregadaEm) {
+            this.porId = porId;
+            this.carregadaEm = carregadaEm;
+        }
+    }
+
+    private final String nome;
+    private final Supplier<List<T>> carregadorTabela;
+    private final Function<Integer, T> carregadorRegistro;
+    private final Function<T, Integer> obterId;
+    private final UnaryOperator<T> copiar;
+    private final long ttlNanos;
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    // IDs alterados desde a última carga, relidos do banco na próxima consulta
+    private final Set<Integer> pendentes = ConcurrentHashMap.newKeySet();
+    private volatile Tabela<T> tabela;
+
+    /**
+     * @param nome Nome usado no log e nos medidores, por exemplo "plano"
+     * @param carregadorTabela Lê a tabela inteira, em ordem de ID
+     * @param carregadorRegistro Lê um registro pelo ID, ou null se não existir
+     * @param obterId Retorna o ID de uma entidade
+     * @param copiar Cria uma cópia independente da entidade
+     */
+    CacheCatalogo(String nome, Supplier<List<T>> carregadorTabela, Function<Integer, T> carregadorRegistro,
+                  Function<T, Integer> obterId, UnaryOperator<T> copiar) {
+        this.nome = nome;
+        this.carregadorTabela = carregadorTabela;
+        this.carregadorRegistro = carregadorRegistro;
+        this.obterId = obterId;
+        this.copiar = copiar;
+        this.ttlNanos = Math.max(0, Long.getLong(PROPRIEDADE_TTL, 300L)) * 1_000_000_000L;
+
+        RegistroMetricas metricas = RegistroMetricas.getInstance();
+        metricas.registrarMedidor("cache." + nome + ".acertos", this::getAcertos);
+        metricas.registrarMedidor("cache." + nome + ".falhas", this::getFalhas);
+        metricas.registrarMedidor("cache." + nome + ".taxa_acerto_pct", () -> Math.round(getTaxaAcerto() * 100));
+    }
+
+    public boolean isAtivo() {
+        return ttlNanos > 0;
+    }
+
+    /**
+     * Busca uma entidade pelo ID, da memória sempre que possível
+     * @param id ID da entidade
+     * @return Uma cópia da entidade ou null se não existir
+     */
+    T buscarPorId(Integer id) {
+        if (!isAtivo()) {
+            return carregadorRegistro.apply(id);
+        }
+
+        Tabela<T> atual = tabela;
+        if (valida(atual) && !pendentes.contains(id)) {
+            acertos.increment();
+            return copiaDe(atual.porId.get(id));
+        }
+
+        falhas.increment();
+        return copiaDe(recarregar(id).porId.get(id));
+    }
+
+    /**
+     * @return Cópias de todas as entidades, em ordem de ID
+     */
+    List<T> listarTodos() {
+        if (!isAtivo()) {
+            return carregadorTabela.get();
+        }
+
+        Tabela<T> atual = tabela;
+        if (valida(atual) && pendentes.isEmpty()) {
+            acertos.increment();
+        } else {
+            falhas.increment();
+            atual = recarregar(null);
+        }
+
+        List<T> entidades = new ArrayList<>(atual.porId.size());
+        for (T entidade : atual.porId.values()) {
+            entidades.add(copiar.apply(entidade));
+        }
+        return entidades;
+    }
+
+    /**
+     * Marca um registro como alterado. Deve ser chamado depois que a escrita for gravada,
+     * para que a próxima leitura veja o valor novo.
+     * @param id ID inserido, atualizado ou excluído
+     */
+    synchronized void invalidar(Integer id) {
+        if (id != null && tabela != null) {
+            pendentes.add(id);
+            logger.debug("Cache de {}: registro {} invalidado", nome, id);
+        }
+    }
+
+    /**
+     * Descarta todo o conteúdo, que será relido na próxima consulta
+     */
+    public synchronized void limpar() {
+        tabela = null;
+        pendentes.clear();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * @return Fração das consultas atendidas da memória, entre 0 e 1
+     */
+    public double getTaxaAcerto() {
+        long totalAcertos = acertos.sum();
+        long total = totalAcertos + falhas.sum();
+        return total == 0 ? 0 : (double) totalAcertos / total;
+    }
+
+    private boolean valida(Tabela<T> atual) {
+        return atual != null && System.nanoTime() - atual.carregadaEm < ttlNanos;
+    }
+
+    /**
+     * Relê a tabela inteira se ela venceu (ou se id for null e houver pendências), ou
+     * apenas o registro pendente informado. Sob o mesmo lock de invalidar, então uma
+     * invalidação nunca é perdida para uma leitura que começou antes dela.
+     */
+    private synchronized Tabela<T> recarregar(Integer id) {
+        Tabela<T> atual = tabela;
+        if (!valida(atual) || (id == null && !pendentes.isEmpty())) {
+            Map<Integer, T> porId = new LinkedHashMap<>();
+            for (T entidade : carregadorTabela.get()) {
+                porId.put(obterId.apply(entidade), entidade);
+            }
+            atual = new Tabela<>(Collections.unmodifiableMap(porId), System.nanoTime());
+            pendentes.clear();
+            tabela = atual;
+            logger.debug("Cache de {} carregado: {} registros", nome, porId.size());
+        } else if (id != null && pendentes.contains(id)) {
+            Map<Integer, T> porId = new LinkedHashMap<>(atual.porId);
+            T entidade = carregadorRegistro.apply(id);
+            if (entidade != null) {
+                porId.put(id, entidade);
+            } else {
+                porId.remove(id);
+            }
+            atual = new Tabela<>(Collections.unmodifiableMap(porId), atual.carregadaEm);
+            pendentes.remove(id);
+            tabela = atual;
+        }
+        return atual;
+    }
+
+    private T copiaDe(T entidade) {
+        return entidade != null ? copiar.apply(entidade) : null;
+    }
+}
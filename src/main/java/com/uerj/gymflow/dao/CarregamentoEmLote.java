@@ -0,0 +1,74 @@
+package com.uerj.gymflow.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Apoio às buscas em lote por ID com {@code IN (...)}.
+ *
+ * Os IDs são divididos em lotes de até {@link #TAMANHO_LOTE}, abaixo do limite de
+ * parâmetros por comando do SQLite, então uma listagem custa uma consulta por
+ * associação a cada lote, e não uma por registro.
+ */
+final class CarregamentoEmLote {
+    static final int TAMANHO_LOTE = 500;
+
+    private CarregamentoEmLote() {
+    }
+
+    /**
+     * Divide os IDs em lotes, descartando nulos e repetidos e mantendo a ordem da primeira ocorrência
+     * @param ids IDs a buscar
+     * @return Os lotes, vazio se não houver IDs
+     */
+    static List<List<Integer>> dividir(Collection<Integer> ids) {
+        Set<Integer> distintos = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            if (id != null) {
+                distintos.add(id);
+            }
+        }
+
+        List<List<Integer>> lotes = new ArrayList<>();
+        List<Integer> lote = new ArrayList<>(Math.min(distintos.size(), TAMANHO_LOTE));
+        for (Integer id : distintos) {
+            lote.add(id);
+            if (lote.size() == TAMANHO_LOTE) {
+                lotes.add(lote);
+                lote = new ArrayList<>(TAMANHO_LOTE);
+            }
+        }
+        if (!lote.isEmpty()) {
+            lotes.add(lote);
+        }
+        return lotes;
+    }
+
+    /**
+     * Monta a condição {@code coluna IN (?, ?, ...)} para um lote
+     * @param coluna Coluna comparada
+     * @param quantidade Quantidade de IDs do lote
+     * @return A condição, sem espaços nas pontas
+     */
+    static String condicaoIn(String coluna, int quantidade) {
+        StringBuilder condicao = new StringBuilder(coluna).append(" IN (");
+        for (int i = 0; i < quantidade; i++) {
+            condicao.append(i == 0 ? "?" : ", ?");
+        }
+        return condicao.append(')').toString();
+    }
+
+    /**
+     * Define os IDs do lote como parâmetros, a partir da posição 1
+     */
+    static void definirIds(PreparedStatement stmt, List<Integer> lote) throws SQLException {
+        for (int i = 0; i < lote.size(); i++) {
+            stmt.setInt(i + 1, lote.get(i));
+        }
+    }
+}
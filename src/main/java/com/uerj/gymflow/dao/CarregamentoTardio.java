@@ -0,0 +1,102 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.model.Aluno;
+import com.uerj.gymflow.model.Plano;
+import com.uerj.gymflow.model.Professor;
+import com.uerj.gymflow.model.Referencia;
+import com.uerj.gymflow.model.Treino;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Carregamento sob demanda das associações, ativado por unidade de trabalho.
+ *
+ * Enquanto um escopo estiver aberto na thread atual, os DAOs deixam de buscar na leitura
+ * o plano do aluno, o aluno da mensalidade, o treino de AlunoTreino e o professor da
+ * avaliação: guardam apenas a chave estrangeira em uma {@link Referencia}, resolvida no
+ * primeiro acesso pelo buscarPorId do DAO correspondente (que usa o {@link MapaIdentidade}
+ * se houver um aberto nesse momento). Fora do escopo, as associações continuam sendo
+ * carregadas na leitura.
+ *
+ * Uso, para listagens que só precisam dos IDs das associações:
+ * <pre>
+ * List&lt;Mensalidade&gt; mensalidades = CarregamentoTardio.emEscopo(() -&gt; mensalidadeDAO.buscarPorAluno(id));
+ * </pre>
+ */
+public final class CarregamentoTardio implements AutoCloseable {
+    private static final ThreadLocal<CarregamentoTardio> escopoAtual = new ThreadLocal<>();
+
+    private int profundidade;
+
+    private CarregamentoTardio() {
+    }
+
+    /**
+     * Carregadores compartilhados por todas as referências, criados no primeiro uso
+     */
+    private static final class Carregadores {
+        private static final Map<Class<?>, Function<Integer, ?>> porTipo = Map.of(
+                Plano.class, new PlanoDAO()::buscarPorId,
+                Aluno.class, new AlunoDAO()::buscarPorId,
+                Treino.class, new TreinoDAO()::buscarPorId,
+                Professor.class, new ProfessorDAO()::buscarPorId);
+    }
+
+    /**
+     * Ativa o carregamento sob demanda na thread atual ou entra no escopo já aberto
+     * @return O escopo, que deve ser fechado ao final da unidade de trabalho
+     */
+    public static CarregamentoTardio ativar() {
+        CarregamentoTardio escopo = escopoAtual.get();
+        if (escopo == null) {
+            escopo = new CarregamentoTardio();
+            escopoAtual.set(escopo);
+        }
+        escopo.profundidade++;
+        return escopo;
+    }
+
+    /**
+     * Executa a unidade de trabalho com o carregamento sob demanda ativo na thread atual
+     * @param unidade Trabalho a executar, normalmente uma listagem
+     * @return O resultado da unidade de trabalho
+     */
+    public static <T> T emEscopo(Supplier<T> unidade) {
+        CarregamentoTardio escopo = ativar();
+        try {
+            return unidade.get();
+        } finally {
+            escopo.close();
+        }
+    }
+
+    /**
+     * @return true se houver um escopo aberto na thread atual
+     */
+    public static boolean isAtivo() {
+        return escopoAtual.get() != null;
+    }
+
+    /**
+     * Cria uma referência que busca a entidade no primeiro acesso
+     * @param tipo Classe da entidade: Plano, Aluno, Treino ou Professor
+     * @param id ID da entidade
+     * @return A referência
+     */
+    static <T> Referencia<T> referencia(Class<T> tipo, Integer id) {
+        Function<Integer, ?> carregador = Carregadores.porTipo.get(tipo);
+        if (carregador == null) {
+            throw new IllegalArgumentException("Sem carregador para " + tipo.getSimpleName());
+        }
+        return Referencia.tardia(id, chave -> tipo.cast(carregador.apply(chave)));
+    }
+
+    @Override
+    public void close() {
+        if (--profundidade == 0) {
+            escopoAtual.remove();
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Exercicio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ExercicioDAO {
     private static final Logger logger = LoggerFactory.getLogger(ExercicioDAO.class);
+    private static final String SQL_LISTAGEM =
+            "SELECT id_exercicio, nome_exercicio, descricao, grupo_muscular FROM Exercicio ";
+    static final String SQL_BUSCAR_POR_TREINO =
+            "SELECT e.id_exercicio, e.nome_exercicio, e.descricao, e.grupo_muscular " +
+            "FROM Exercicio e " +
+            "INNER JOIN Treino_exercicio te ON e.id_exercicio = te.id_exercicio " +
+            "WHERE te.id_treino = ?";
     private final DatabaseConnection dbConnection;
 
+    /**
+     * Cache do catálogo de exercícios, compartilhado por todas as instâncias e criado no primeiro uso
+     */
+    private static final class Catalogo {
+        private static final ExercicioDAO dao = new ExercicioDAO();
+        private static final CacheCatalogo<Exercicio> cache = new CacheCatalogo<>("exercicio",
+                dao::carregarTodos, dao::carregarPorId, Exercicio::getIdExercicio, ExercicioDAO::copiar);
+    }
+
     public ExercicioDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
@@ -20,7 +40,7 @@ public class ExercicioDAO {
     public void inserir(Exercicio exercicio) {
         String sql = "INSERT INTO Exercicio (nome_exercicio, descricao, grupo_muscular) VALUES (?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setString(1, exercicio.getNomeExercicio());
@@ -33,6 +53,7 @@ public class ExercicioDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         exercicio.setIdExercicio(rs.getInt(1));
+                        Catalogo.cache.invalidar(exercicio.getIdExercicio());
                         logger.info("Exercício inserido com sucesso: ID {}", exercicio.getIdExercicio());
                     }
                 }
@@ -44,9 +65,13 @@ public class ExercicioDAO {
     }
 
     public Exercicio buscarPorId(Integer id) {
-        String sql = "SELECT id_exercicio, nome_exercicio, descricao, grupo_muscular FROM Exercicio WHERE id_exercicio = ?";
+        return MapaIdentidade.obter(Exercicio.class, id, Catalogo.cache::buscarPorId);
+    }
+
+    private Exercicio carregarPorId(Integer id) {
+        String sql = SQL_LISTAGEM + "WHERE id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -65,10 +90,21 @@ public class ExercicioDAO {
     }
 
     public List<Exercicio> listarTodos() {
+        return Catalogo.cache.listarTodos();
+    }
+
+    /**
+     * @return Estatísticas e controle do cache do catálogo de exercícios
+     */
+    public static CacheCatalogo<Exercicio> getCache() {
+        return Catalogo.cache;
+    }
+
+    private List<Exercicio> carregarTodos() {
         List<Exercicio> exercicios = new ArrayList<>();
-        String sql = "SELECT id_exercicio, nome_exercicio, descricao, grupo_muscular FROM Exercicio";
+        String sql = SQL_LISTAGEM + "ORDER BY id_exercicio";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -84,9 +120,11 @@ public class ExercicioDAO {
     }
 
     public void atualizar(Exercicio exercicio) {
+        MapaIdentidade.remover(Exercicio.class, exercicio.getIdExercicio());
+
         String sql = "UPDATE Exercicio SET nome_exercicio = ?, descricao = ?, grupo_muscular = ? WHERE id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, exercicio.getNomeExercicio());
@@ -95,6 +133,7 @@ public class ExercicioDAO {
             stmt.setInt(4, exercicio.getIdExercicio());
             
             int linhasAfetadas = stmt.executeUpdate();
+            Catalogo.cache.invalidar(exercicio.getIdExercicio());
             
             if (linhasAfetadas > 0) {
                 logger.info("Exercício atualizado com sucesso: ID {}", exercicio.getIdExercicio());
@@ -108,13 +147,16 @@ public class ExercicioDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Exercicio.class, id);
+
         String sql = "DELETE FROM Exercicio WHERE id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int linhasAfetadas = stmt.executeUpdate();
+            Catalogo.cache.invalidar(id);
             
             if (linhasAfetadas > 0) {
                 logger.info("Exercício excluído com sucesso: ID {}", id);
@@ -129,13 +171,9 @@ public class ExercicioDAO {
 
     public List<Exercicio> buscarPorTreino(Integer idTreino) {
         List<Exercicio> exercicios = new ArrayList<>();
-        String sql = "SELECT e.id_exercicio, e.nome_exercicio, e.descricao, e.grupo_muscular " +
-                     "FROM Exercicio e " +
-                     "INNER JOIN Treino_exercicio te ON e.id_exercicio = te.id_exercicio " +
-                     "WHERE te.id_treino = ?";
-        
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_TREINO)) {
             
             stmt.setInt(1, idTreino);
             
@@ -152,6 +190,54 @@ public class ExercicioDAO {
         return exercicios;
     }
 
+    /**
+     * Busca os exercícios de vários treinos com uma consulta por lote de treinos,
+     * na ordem definida em Treino_exercicio
+     * @param idsTreino IDs dos treinos
+     * @return Os exercícios por ID de treino; todo treino informado tem uma lista, vazia se não houver exercícios
+     */
+    public Map<Integer, List<Exercicio>> buscarPorTreinos(Collection<Integer> idsTreino) {
+        Map<Integer, List<Exercicio>> exerciciosPorTreino = new HashMap<>();
+        // O mesmo exercício aparece em vários treinos; uma instância por ID basta
+        Map<Integer, Exercicio> exerciciosPorId = new HashMap<>();
+        List<List<Integer>> lotes = CarregamentoEmLote.dividir(idsTreino);
+        if (lotes.isEmpty()) {
+            return exerciciosPorTreino;
+        }
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA)) {
+            for (List<Integer> lote : lotes) {
+                for (Integer idTreino : lote) {
+                    exerciciosPorTreino.put(idTreino, new ArrayList<>());
+                }
+
+                String sql = "SELECT te.id_treino, e.id_exercicio, e.nome_exercicio, e.descricao, e.grupo_muscular " +
+                             "FROM Exercicio e " +
+                             "INNER JOIN Treino_exercicio te ON e.id_exercicio = te.id_exercicio " +
+                             "WHERE " + CarregamentoEmLote.condicaoIn("te.id_treino", lote.size()) + " " +
+                             "ORDER BY te.id_treino, te.ordem";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    CarregamentoEmLote.definirIds(stmt, lote);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Exercicio exercicio = exerciciosPorId.get(rs.getInt("id_exercicio"));
+                            if (exercicio == null) {
+                                exercicio = extrairExercicioDoResultSet(rs);
+                                exerciciosPorId.put(exercicio.getIdExercicio(), exercicio);
+                            }
+                            exerciciosPorTreino.get(rs.getInt("id_treino")).add(exercicio);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao buscar exercícios por treinos", e);
+            throw new RuntimeException("Erro ao buscar exercícios por treinos", e);
+        }
+        
+        return exerciciosPorTreino;
+    }
+
     private Exercicio extrairExercicioDoResultSet(ResultSet rs) throws SQLException {
         Exercicio exercicio = new Exercicio();
         
@@ -162,4 +248,9 @@ public class ExercicioDAO {
         
         return exercicio;
     }
+
+    private static Exercicio copiar(Exercicio original) {
+        return new Exercicio(original.getIdExercicio(), original.getNomeExercicio(),
+                original.getDescricao(), original.getGrupoMuscular());
+    }
 }
@@ -1,17 +1,27 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Funcionario;
-import com.uerj.gymflow.model.Pessoa;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class FuncionarioDAO {
     private static final Logger logger = LoggerFactory.getLogger(FuncionarioDAO.class);
+    // Colunas de Funcionario (alias f) e Pessoa (alias pe), lidas por preencherFuncionario
+    static final String COLUNAS_JUNCAO =
+            "f.id_funcionario, f.cargo, f.data_admissao, f.salario, f.fk_pessoa, " + PessoaDAO.COLUNAS_JUNCAO;
+    static final String JUNCAO_PESSOA = "INNER JOIN Pessoa pe ON pe.id_pessoa = f.fk_pessoa ";
+    // Funcionario e Pessoa vêm de uma única consulta para evitar uma ida ao banco por linha
+    private static final String SQL_LISTAGEM = "SELECT " + COLUNAS_JUNCAO + " FROM Funcionario f " + JUNCAO_PESSOA;
     private final DatabaseConnection dbConnection;
     private final PessoaDAO pessoaDAO;
 
@@ -23,7 +33,7 @@ public class FuncionarioDAO {
     public void inserir(Funcionario funcionario) {
         String sqlFuncionario = "INSERT INTO Funcionario (cargo, data_admissao, salario, fk_pessoa) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
 
             try {
@@ -46,7 +56,7 @@ public class FuncionarioDAO {
 
                 conn.commit();
                 logger.info("Funcionário inserido com sucesso: ID {}", funcionario.getIdFuncionario());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao inserir funcionário", e);
                 throw new RuntimeException("Erro ao inserir funcionário", e);
@@ -58,26 +68,20 @@ public class FuncionarioDAO {
     }
 
     public Funcionario buscarPorId(Integer id) {
-        String sql = "SELECT f.id_funcionario, f.cargo, f.data_admissao, f.salario, f.fk_pessoa " +
-                "FROM Funcionario f WHERE f.id_funcionario = ?";
+        return MapaIdentidade.obter(Funcionario.class, id, this::carregarPorId);
+    }
+
+    private Funcionario carregarPorId(Integer id) {
+        String sql = SQL_LISTAGEM + "WHERE f.id_funcionario = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Integer idPessoa = rs.getInt("fk_pessoa");
-
-                    // Busca a pessoa usando o PessoaDAO
-                    Pessoa pessoa = pessoaDAO.buscarPorId(idPessoa);
-                    if (pessoa == null) {
-                        return null;
-                    }
-
-                    // Cria e configura o funcionário
-                    return criarFuncionario(rs, pessoa);
+                    return extrairFuncionarioDoResultSet(rs);
                 }
             }
         } catch (SQLException e) {
@@ -88,22 +92,49 @@ public class FuncionarioDAO {
         return null;
     }
 
+    /**
+     * Busca vários funcionários com uma consulta por lote de IDs
+     * @param ids IDs dos funcionários
+     * @return Os funcionários encontrados, por ID
+     */
+    public Map<Integer, Funcionario> buscarPorIds(Collection<Integer> ids) {
+        return MapaIdentidade.obterVarios(Funcionario.class, ids, this::carregarPorIds);
+    }
+
+    private Map<Integer, Funcionario> carregarPorIds(Set<Integer> ids) {
+        Map<Integer, Funcionario> funcionarios = new HashMap<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA)) {
+            for (List<Integer> lote : CarregamentoEmLote.dividir(ids)) {
+                String sql = SQL_LISTAGEM + "WHERE " + CarregamentoEmLote.condicaoIn("f.id_funcionario", lote.size());
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    CarregamentoEmLote.definirIds(stmt, lote);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Funcionario funcionario = extrairFuncionarioDoResultSet(rs);
+                            funcionarios.put(funcionario.getIdFuncionario(), funcionario);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao buscar funcionários por IDs", e);
+            throw new RuntimeException("Erro ao buscar funcionários", e);
+        }
+
+        return funcionarios;
+    }
+
     public List<Funcionario> listarTodos() {
         List<Funcionario> funcionarios = new ArrayList<>();
-        String sql = "SELECT f.id_funcionario, f.cargo, f.data_admissao, f.salario, f.fk_pessoa " +
-                "FROM Funcionario f";
+        String sql = SQL_LISTAGEM;
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Integer idPessoa = rs.getInt("fk_pessoa");
-                Pessoa pessoa = pessoaDAO.buscarPorId(idPessoa);
-
-                if (pessoa != null) {
-                    funcionarios.add(criarFuncionario(rs, pessoa));
-                }
+                funcionarios.add(extrairFuncionarioDoResultSet(rs));
             }
         } catch (SQLException e) {
             logger.error("Erro ao listar funcionários", e);
@@ -114,10 +145,12 @@ public class FuncionarioDAO {
     }
 
     public void atualizar(Funcionario funcionario) {
+        MapaIdentidade.remover(Funcionario.class, funcionario.getIdFuncionario());
+
         String sqlFuncionario = "UPDATE Funcionario SET cargo = ?, data_admissao = ?, " +
                 "salario = ? WHERE id_funcionario = ?";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
 
             try {
@@ -135,7 +168,7 @@ public class FuncionarioDAO {
 
                 conn.commit();
                 logger.info("Funcionário atualizado com sucesso: ID {}", funcionario.getIdFuncionario());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao atualizar funcionário", e);
                 throw new RuntimeException("Erro ao atualizar funcionário", e);
@@ -147,6 +180,8 @@ public class FuncionarioDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Funcionario.class, id);
+
         Funcionario funcionario = buscarPorId(id);
         if (funcionario == null) {
             logger.warn("Nenhum funcionário encontrado para exclusão com ID {}", id);
@@ -155,7 +190,7 @@ public class FuncionarioDAO {
 
         String sql = "DELETE FROM Funcionario WHERE id_funcionario = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
@@ -177,22 +212,16 @@ public class FuncionarioDAO {
 
     public List<Funcionario> buscarPorCargo(String cargo) {
         List<Funcionario> funcionarios = new ArrayList<>();
-        String sql = "SELECT f.id_funcionario, f.cargo, f.data_admissao, f.salario, f.fk_pessoa " +
-                "FROM Funcionario f WHERE f.cargo LIKE ?";
+        String sql = SQL_LISTAGEM + "WHERE f.cargo LIKE ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, "%" + cargo + "%");
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Integer idPessoa = rs.getInt("fk_pessoa");
-                    Pessoa pessoa = pessoaDAO.buscarPorId(idPessoa);
-
-                    if (pessoa != null) {
-                        funcionarios.add(criarFuncionario(rs, pessoa));
-                    }
+                    funcionarios.add(extrairFuncionarioDoResultSet(rs));
                 }
             }
         } catch (SQLException e) {
@@ -208,23 +237,24 @@ public class FuncionarioDAO {
         return pessoaDAO.verificarPessoaExistente(cpf, email);
     }
 
-    private Funcionario criarFuncionario(ResultSet rs, Pessoa pessoa) throws SQLException {
+    private Funcionario extrairFuncionarioDoResultSet(ResultSet rs) throws SQLException {
         Funcionario funcionario = new Funcionario();
+        preencherFuncionario(rs, funcionario);
+        return funcionario;
+    }
 
-        // Define os atributos herdados de Pessoa
-        funcionario.setIdPessoa(pessoa.getIdPessoa());
-        funcionario.setNome(pessoa.getNome());
-        funcionario.setDataNascimento(pessoa.getDataNascimento());
-        funcionario.setCpf(pessoa.getCpf());
-        funcionario.setTelefone(pessoa.getTelefone());
-        funcionario.setEmail(pessoa.getEmail());
+    /**
+     * Preenche os atributos de Funcionario e de Pessoa a partir da linha atual, que deve
+     * trazer as colunas de {@link #COLUNAS_JUNCAO}. Compartilhado com o ProfessorDAO.
+     * @param rs Linha de uma consulta com Funcionario e Pessoa
+     * @param funcionario Funcionario ou subclasse a preencher
+     */
+    static void preencherFuncionario(ResultSet rs, Funcionario funcionario) throws SQLException {
+        PessoaDAO.preencherPessoa(rs, funcionario);
 
-        // Define os atributos específicos do Funcionário
         funcionario.setIdFuncionario(rs.getInt("id_funcionario"));
         funcionario.setCargo(rs.getString("cargo"));
         funcionario.setDataAdmissao(rs.getDate("data_admissao").toLocalDate());
         funcionario.setSalario(rs.getFloat("salario"));
-
-        return funcionario;
     }
 }
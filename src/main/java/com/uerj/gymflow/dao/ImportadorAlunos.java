@@ -0,0 +1,484 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
+import com.uerj.gymflow.model.Plano;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Importação em massa de alunos (Pessoa + Aluno) a partir de um arquivo CSV.
+ *
+ * O arquivo é lido linha a linha, sem carregá-lo inteiro na memória. A primeira linha é o
+ * cabeçalho, com as colunas em qualquer ordem, separadas por ponto e vírgula ou vírgula:
+ * nome, data_nascimento, cpf, telefone e email (obrigatórias) e data_matricula,
+ * data_assinatura e plano (opcionais; o plano pode ser o ID ou o nome). Datas no formato
+ * dd/mm/aaaa ou aaaa-mm-dd. Campos entre aspas podem conter o separador, mas não quebras de linha.
+ *
+ * Cada linha passa pelas mesmas validações do cadastro pela tela. CPF e e-mail repetidos
+ * (no banco ou no próprio arquivo) são verificados em conjuntos em memória, carregados
+ * uma vez no início, e a linha é rejeitada sem interromper a importação. As linhas válidas
+ * são gravadas em lotes, cada lote em uma transação própria; se um lote falhar, apenas ele
+ * é desfeito, suas linhas são rejeitadas com o motivo da falha e a importação continua.
+ */
+public class ImportadorAlunos {
+    private static final Logger logger = LoggerFactory.getLogger(ImportadorAlunos.class);
+    public static final int TAMANHO_LOTE_PADRAO = 5000;
+    // Rejeições guardadas para o relatório; as demais são apenas contadas
+    private static final int MAXIMO_REJEICOES = 1000;
+    private static final String[] COLUNAS_OBRIGATORIAS = {"nome", "data_nascimento", "cpf", "telefone", "email"};
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Andamento da importação
+     * @param linhasLidas Linhas de dados lidas do arquivo, sem contar o cabeçalho
+     * @param importados Alunos gravados
+     * @param rejeitados Linhas rejeitadas na validação ou em lotes que não puderam ser gravados
+     * @param milissegundos Tempo decorrido desde o início
+     */
+    public record Progresso(long linhasLidas, long importados, long rejeitados, long milissegundos) {
+
+        public double linhasPorSegundo() {
+            return milissegundos == 0 ? 0 : linhasLidas * 1000.0 / milissegundos;
+        }
+    }
+
+    /**
+     * Linha rejeitada na validação ou na gravação do lote
+     * @param linha Número da linha no arquivo, contando o cabeçalho como linha 1
+     * @param motivo Motivo da rejeição
+     */
+    public record Rejeicao(long linha, String motivo) {
+    }
+
+    /**
+     * Resultado da importação
+     * @param totais Totais ao final da importação
+     * @param rejeicoes As primeiras rejeições, em ordem de linha
+     */
+    public record Resultado(Progresso totais, List<Rejeicao> rejeicoes) {
+    }
+
+    /**
+     * Linha válida aguardando a gravação do lote
+     */
+    private record Linha(long numero, String nome, LocalDate dataNascimento, String cpf, String telefone, String email,
+                         LocalDate dataMatricula, LocalDate dataAssinatura, Integer idPlano) {
+    }
+
+    private final DatabaseConnection dbConnection;
+    private final PlanoDAO planoDAO;
+    private final int tamanhoLote;
+
+    public ImportadorAlunos() {
+        this(TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * @param tamanhoLote Quantidade de alunos gravados por transação
+     */
+    public ImportadorAlunos(int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo: " + tamanhoLote);
+        }
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.planoDAO = new PlanoDAO();
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Importa os alunos de um arquivo CSV em UTF-8
+     * @param arquivo Caminho do arquivo
+     * @param progresso Recebe o andamento após a gravação de cada lote
+     * @return O resultado da importação
+     */
+    public Resultado importar(Path arquivo, Consumer<Progresso> progresso) {
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return importar(leitor, progresso);
+        } catch (IOException e) {
+            logger.error("Erro ao ler o arquivo de importação {}", arquivo, e);
+            throw new RuntimeException("Erro ao ler o arquivo de importação: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Importa os alunos de um CSV
+     * @param leitor Conteúdo do CSV, lido até o fim
+     * @param progresso Recebe o andamento após a gravação de cada lote
+     * @return O resultado da importação
+     */
+    public Resultado importar(Reader leitor, Consumer<Progresso> progresso) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader linhas = leitor instanceof BufferedReader buffer ? buffer : new BufferedReader(leitor);
+
+        String cabecalho = linhas.readLine();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo vazio: o cabeçalho é obrigatório");
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        Map<String, Integer> colunas = lerCabecalho(dividir(cabecalho, separador));
+
+        Set<String> cpfs = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        carregarExistentes(cpfs, emails);
+        Map<String, Integer> planos = carregarPlanos();
+
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+        List<Rejeicao> rejeicoes = new ArrayList<>();
+        long numeroLinha = 1;
+        long lidas = 0;
+        long importados = 0;
+        long rejeitados = 0;
+        LocalDate hoje = LocalDate.now();
+
+        String texto;
+        while ((texto = linhas.readLine()) != null) {
+            numeroLinha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            lidas++;
+
+            try {
+                Linha linha = validar(numeroLinha, dividir(texto, separador), colunas, planos, hoje);
+                if (!cpfs.add(linha.cpf())) {
+                    throw new IllegalArgumentException("Já existe uma pessoa com o CPF " + linha.cpf());
+                }
+                if (!emails.add(linha.email().toLowerCase(Locale.ROOT))) {
+                    cpfs.remove(linha.cpf());
+                    throw new IllegalArgumentException("Já existe uma pessoa com o e-mail " + linha.email());
+                }
+                lote.add(linha);
+            } catch (IllegalArgumentException e) {
+                rejeitados++;
+                if (rejeicoes.size() < MAXIMO_REJEICOES) {
+                    rejeicoes.add(new Rejeicao(numeroLinha, e.getMessage()));
+                }
+            }
+
+            if (lote.size() == tamanhoLote) {
+                int gravados = gravarOuRejeitar(lote, cpfs, emails, rejeicoes);
+                importados += gravados;
+                rejeitados += lote.size() - gravados;
+                lote.clear();
+                progresso.accept(new Progresso(lidas, importados, rejeitados, decorrido(inicio)));
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            int gravados = gravarOuRejeitar(lote, cpfs, emails, rejeicoes);
+            importados += gravados;
+            rejeitados += lote.size() - gravados;
+            progresso.accept(new Progresso(lidas, importados, rejeitados, decorrido(inicio)));
+        }
+
+        // As linhas de um lote que falhou entram depois das rejeitadas na validação
+        rejeicoes.sort(Comparator.comparingLong(Rejeicao::linha));
+        Progresso totais = new Progresso(lidas, importados, rejeitados, decorrido(inicio));
+        logger.info("Importação de alunos concluída: {} importados, {} rejeitados em {} ms ({} linhas/s)",
+                importados, rejeitados, totais.milissegundos(), Math.round(totais.linhasPorSegundo()));
+        return new Resultado(totais, Collections.unmodifiableList(rejeicoes));
+    }
+
+    private Map<String, Integer> lerCabecalho(List<String> nomes) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : COLUNAS_OBRIGATORIAS) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    /**
+     * Carrega os CPFs e e-mails já cadastrados, em substituição a uma verificação por linha
+     */
+    private void carregarExistentes(Set<String> cpfs, Set<String> emails) {
+        String sql = "SELECT cpf, email FROM Pessoa";
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                String cpf = rs.getString("cpf");
+                String email = rs.getString("email");
+                if (cpf != null) {
+                    cpfs.add(cpf);
+                }
+                if (email != null) {
+                    emails.add(email.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao carregar CPFs e e-mails cadastrados", e);
+            throw new RuntimeException("Erro ao carregar CPFs e e-mails cadastrados", e);
+        }
+    }
+
+    /**
+     * @return IDs dos planos pelo ID e pelo nome em minúsculas, como podem aparecer na coluna plano
+     */
+    private Map<String, Integer> carregarPlanos() {
+        Map<String, Integer> planos = new HashMap<>();
+        for (Plano plano : planoDAO.listarTodos()) {
+            planos.put(String.valueOf(plano.getIdPlano()), plano.getIdPlano());
+            planos.put(plano.getNomePlano().trim().toLowerCase(Locale.ROOT), plano.getIdPlano());
+        }
+        return planos;
+    }
+
+    private Linha validar(long numero, List<String> campos, Map<String, Integer> colunas, Map<String, Integer> planos,
+                          LocalDate hoje) {
+        String nome = campo(campos, colunas, "nome");
+        if (nome.isEmpty()) {
+            throw new IllegalArgumentException("O nome é obrigatório");
+        }
+
+        LocalDate dataNascimento = data(campo(campos, colunas, "data_nascimento"), "data de nascimento");
+        if (dataNascimento == null) {
+            throw new IllegalArgumentException("A data de nascimento é obrigatória");
+        }
+
+        String cpf = campo(campos, colunas, "cpf").replaceAll("[^0-9]", "");
+        if (cpf.length() != 11) {
+            throw new IllegalArgumentException("CPF deve conter 11 dígitos");
+        }
+
+        String telefone = campo(campos, colunas, "telefone").replaceAll("[^0-9]", "");
+        if (telefone.isEmpty()) {
+            throw new IllegalArgumentException("O telefone é obrigatório");
+        }
+
+        String email = campo(campos, colunas, "email");
+        if (!email.contains("@") || !email.contains(".")) {
+            throw new IllegalArgumentException("E-mail inválido: " + email);
+        }
+
+        LocalDate dataMatricula = data(campo(campos, colunas, "data_matricula"), "data de matrícula");
+        if (dataMatricula == null) {
+            dataMatricula = hoje;
+        }
+        LocalDate dataAssinatura = data(campo(campos, colunas, "data_assinatura"), "data de assinatura");
+        if (dataMatricula.isAfter(hoje) || (dataAssinatura != null && dataAssinatura.isAfter(hoje))) {
+            throw new IllegalArgumentException("As datas de matrícula e assinatura não podem ser no futuro");
+        }
+
+        Integer idPlano = null;
+        String plano = campo(campos, colunas, "plano");
+        if (!plano.isEmpty() && !plano.equals("0")) {
+            idPlano = planos.get(plano.toLowerCase(Locale.ROOT));
+            if (idPlano == null) {
+                throw new IllegalArgumentException("Plano não encontrado: " + plano);
+            }
+        }
+
+        return new Linha(numero, nome, dataNascimento, cpf, telefone, email, dataMatricula, dataAssinatura, idPlano);
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String nome) {
+        Integer indice = colunas.get(nome);
+        return indice != null && indice < campos.size() ? campos.get(indice).trim() : "";
+    }
+
+    private static LocalDate data(String texto, String descricao) {
+        if (texto.isEmpty()) {
+            return null;
+        }
+        try {
+            return texto.indexOf('/') >= 0 ? LocalDate.parse(texto, FORMATO_DATA) : LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato inválido para a " + descricao + ": " + texto, e);
+        }
+    }
+
+    /**
+     * Divide uma linha do CSV nos campos, respeitando aspas (e aspas duplicadas dentro delas)
+     */
+    static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    /**
+     * Grava o lote e, se a transação falhar, rejeita todas as linhas dele com o motivo da
+     * falha e tira os CPFs e e-mails delas dos conjuntos, para que não barrem linhas seguintes
+     * @return Quantidade de alunos gravados: o tamanho do lote ou zero
+     */
+    private int gravarOuRejeitar(List<Linha> lote, Set<String> cpfs, Set<String> emails,
+                                 List<Rejeicao> rejeicoes) {
+        try {
+            return gravar(lote);
+        } catch (RuntimeException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            String motivo = "Lote não gravado: " + causa.getMessage();
+            logger.warn("Lote de {} alunos rejeitado a partir da linha {}: {}",
+                    lote.size(), lote.get(0).numero(), causa.getMessage());
+            for (Linha linha : lote) {
+                cpfs.remove(linha.cpf());
+                emails.remove(linha.email().toLowerCase(Locale.ROOT));
+                if (rejeicoes.size() < MAXIMO_REJEICOES) {
+                    rejeicoes.add(new Rejeicao(linha.numero(), motivo));
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Grava um lote de alunos em uma transação. Os IDs são atribuídos a partir dos maiores
+     * IDs de Pessoa e Aluno lidos dentro da própria transação de escrita, para que cada
+     * Aluno já saiba o ID da sua Pessoa sem consultar o banco linha a linha.
+     * @return Quantidade de alunos gravados
+     */
+    private int gravar(List<Linha> lote) {
+        String sqlPessoa = "INSERT INTO Pessoa (id_pessoa, nome, data_nascimento, cpf, telefone, email) " +
+                           "VALUES (?, ?, ?, ?, ?, ?)";
+        String sqlAluno = "INSERT INTO Aluno (id_aluno, data_matricula, data_assinatura, fk_pessoa, fk_plano) " +
+                          "VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmtPessoa = conn.prepareStatement(sqlPessoa);
+                 PreparedStatement stmtAluno = conn.prepareStatement(sqlAluno)) {
+                int idPessoa = maiorId(conn, "SELECT COALESCE(MAX(id_pessoa), 0) FROM Pessoa");
+                int idAluno = maiorId(conn, "SELECT COALESCE(MAX(id_aluno), 0) FROM Aluno");
+
+                for (Linha linha : lote) {
+                    idPessoa++;
+                    idAluno++;
+
+                    stmtPessoa.setInt(1, idPessoa);
+                    stmtPessoa.setString(2, linha.nome());
+                    stmtPessoa.setDate(3, Date.valueOf(linha.dataNascimento()));
+                    stmtPessoa.setString(4, linha.cpf());
+                    stmtPessoa.setString(5, linha.telefone());
+                    stmtPessoa.setString(6, linha.email());
+                    stmtPessoa.addBatch();
+
+                    stmtAluno.setInt(1, idAluno);
+                    stmtAluno.setDate(2, Date.valueOf(linha.dataMatricula()));
+                    if (linha.dataAssinatura() != null) {
+                        stmtAluno.setDate(3, Date.valueOf(linha.dataAssinatura()));
+                    } else {
+                        stmtAluno.setNull(3, Types.DATE);
+                    }
+                    stmtAluno.setInt(4, idPessoa);
+                    if (linha.idPlano() != null) {
+                        stmtAluno.setInt(5, linha.idPlano());
+                    } else {
+                        stmtAluno.setNull(5, Types.INTEGER);
+                    }
+                    stmtAluno.addBatch();
+                }
+
+                stmtPessoa.executeBatch();
+                stmtAluno.executeBatch();
+                conn.commit();
+                logger.debug("Lote de {} alunos importado", lote.size());
+                return lote.size();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                logger.error("Erro ao gravar lote de alunos importados", e);
+                throw new RuntimeException("Erro ao gravar lote de alunos importados", e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Erro de conexão ao importar alunos", e);
+            throw new RuntimeException("Erro de conexão ao importar alunos", e);
+        }
+    }
+
+    private static int maiorId(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static long decorrido(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    /**
+     * Importa alunos do arquivo CSV informado no banco configurado (gymflow.db.url).
+     * Argumentos: caminho do arquivo e, opcionalmente, o tamanho do lote.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Informe o arquivo CSV a importar");
+            return;
+        }
+        int tamanhoLote = args.length > 1 ? Integer.parseInt(args[1]) : TAMANHO_LOTE_PADRAO;
+
+        try {
+            Resultado resultado = new ImportadorAlunos(tamanhoLote).importar(Path.of(args[0]), progresso ->
+                    System.out.printf("%d linhas lidas, %d importadas, %d rejeitadas (%.0f linhas/s)%n",
+                            progresso.linhasLidas(), progresso.importados(), progresso.rejeitados(),
+                            progresso.linhasPorSegundo()));
+            for (Rejeicao rejeicao : resultado.rejeicoes()) {
+                System.out.println("Linha " + rejeicao.linha() + ": " + rejeicao.motivo());
+            }
+            Progresso totais = resultado.totais();
+            System.out.printf("Concluído em %.1f s: %d importados, %d rejeitados%n",
+                    totais.milissegundos() / 1000.0, totais.importados(), totais.rejeitados());
+        } catch (RuntimeException e) {
+            System.err.println("Erro na importação: " + e.getMessage());
+        } finally {
+            DatabaseConnection.getInstance().closeDataSource();
+        }
+    }
+}
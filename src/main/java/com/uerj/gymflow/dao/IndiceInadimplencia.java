@@ -0,0 +1,324 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
+import com.uerj.gymflow.model.Mensalidade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das mensalidades não pagas, ordenado por data de vencimento.
+ *
+ * É carregado do banco na primeira consulta e depois mantido pelo MensalidadeDAO a
+ * cada inserção, pagamento, atualização e exclusão. Assim, saber quem está em atraso
+ * não exige consulta ao banco nem a montagem de Mensalidade, Aluno, Plano e Pessoa:
+ * cada entrada é um {@link MensalidadeEmAberto} com apenas os IDs, o vencimento e o valor.
+ *
+ * O MensalidadeDAO aplica cada gravação com DatabaseConnection.aposCommit, então uma
+ * gravação feita dentro de uma transação maior só chega ao índice se ela for confirmada.
+ * Escritas feitas fora do MensalidadeDAO (cargas diretas em SQL, por exemplo) devem
+ * chamar {@link #invalidar()} para que o índice seja recarregado na próxima consulta.
+ */
+public final class IndiceInadimplencia {
+    private static final Logger logger = LoggerFactory.getLogger(IndiceInadimplencia.class);
+    private static final IndiceInadimplencia instance = new IndiceInadimplencia();
+
+    /**
+     * Resumo de uma mensalidade em aberto
+     * @param idMensalidade ID da mensalidade
+     * @param idAluno ID do aluno, ou 0 se não informado
+     * @param idPlano ID do plano, ou 0 se não informado
+     * @param diaVencimento Data de vencimento em dias desde 1970-01-01
+     * @param valor Valor da mensalidade
+     */
+    public record MensalidadeEmAberto(int idMensalidade, int idAluno, int idPlano, long diaVencimento, float valor) {
+
+        public LocalDate getDataVencimento() {
+            return LocalDate.ofEpochDay(diaVencimento);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Chave: dia de vencimento nos 32 bits altos e ID nos baixos, para ordenar por vencimento e depois por ID
+    private final NavigableMap<Long, MensalidadeEmAberto> porVencimento = new TreeMap<>();
+    private final Map<Integer, MensalidadeEmAberto> porId = new HashMap<>();
+    // Poucas mensalidades em aberto por aluno, então uma lista simples basta
+    private final Map<Integer, List<MensalidadeEmAberto>> porAluno = new HashMap<>();
+    // Contagem de atrasadas para diaContagem, ajustada a cada entrada incluída ou removida
+    private long diaContagem = Long.MIN_VALUE;
+    private int atrasadasNoDia;
+    private volatile boolean carregado;
+
+    private IndiceInadimplencia() {
+    }
+
+    public static IndiceInadimplencia getInstance() {
+        return instance;
+    }
+
+    /**
+     * Lista as mensalidades em aberto com vencimento anterior à data informada,
+     * da mais antiga para a mais recente, parando no limite
+     * @param hoje Data de referência
+     * @param limite Quantidade máxima de mensalidades retornadas
+     * @return As mensalidades em atraso mais antigas, até o limite
+     */
+    public List<MensalidadeEmAberto> listarAtrasadas(LocalDate hoje, int limite) {
+        garantirCarregado();
+        lock.readLock().lock();
+        try {
+            List<MensalidadeEmAberto> atrasadas = new ArrayList<>(Math.min(limite, porId.size()));
+            for (MensalidadeEmAberto entrada : porVencimento.headMap(chave(hoje.toEpochDay(), 0), false).values()) {
+                if (atrasadas.size() >= limite) {
+                    break;
+                }
+                atrasadas.add(entrada);
+            }
+            return atrasadas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lista as mensalidades em aberto de um aluno com vencimento anterior à data informada,
+     * da mais antiga para a mais recente
+     * @param idAluno ID do aluno
+     * @param hoje Data de referência
+     * @return As mensalidades em atraso do aluno, vazia se ele estiver em dia
+     */
+    public List<MensalidadeEmAberto> listarAtrasadasDoAluno(int idAluno, LocalDate hoje) {
+        garantirCarregado();
+        List<MensalidadeEmAberto> atrasadas = new ArrayList<>();
+        long diaHoje = hoje.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            for (MensalidadeEmAberto entrada : porAluno.getOrDefault(idAluno, List.of())) {
+                if (entrada.diaVencimento() < diaHoje) {
+                    atrasadas.add(entrada);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        atrasadas.sort(Comparator.comparingLong(MensalidadeEmAberto::diaVencimento)
+                .thenComparingInt(MensalidadeEmAberto::idMensalidade));
+        return atrasadas;
+    }
+
+    /**
+     * Conta as mensalidades em aberto com vencimento anterior à data informada. A contagem
+     * é mantida pelas inclusões e remoções; na virada do dia só as mensalidades que venceram
+     * desde a última contagem são somadas
+     * @param hoje Data de referência
+     * @return Quantidade de mensalidades em atraso
+     */
+    public int contarAtrasadas(LocalDate hoje) {
+        garantirCarregado();
+        long dia = hoje.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            if (dia == diaContagem) {
+                return atrasadasNoDia;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (dia > diaContagem && diaContagem != Long.MIN_VALUE) {
+                atrasadasNoDia += porVencimento.subMap(chave(diaContagem, 0), true, chave(dia, 0), false).size();
+            } else if (dia != diaContagem) {
+                atrasadasNoDia = porVencimento.headMap(chave(dia, 0), false).size();
+            }
+            diaContagem = dia;
+            return atrasadasNoDia;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade total de mensalidades não pagas, vencidas ou não
+     */
+    public int contarEmAberto() {
+        garantirCarregado();
+        lock.readLock().lock();
+        try {
+            return porId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta o índice; ele é recarregado do banco na próxima consulta
+     */
+    public void invalidar() {
+        lock.writeLock().lock();
+        try {
+            porVencimento.clear();
+            porId.clear();
+            porAluno.clear();
+            diaContagem = Long.MIN_VALUE;
+            carregado = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registra o estado atual de uma mensalidade gravada no banco: se estiver paga,
+     * sai do índice; caso contrário, entra ou tem o vencimento e o valor atualizados.
+     * Deve ser chamado depois do commit da gravação (ver DatabaseConnection.aposCommit)
+     */
+    void registrar(Mensalidade mensalidade) {
+        registrarTodas(List.of(mensalidade));
+    }
+
+    void registrarTodas(List<Mensalidade> mensalidades) {
+        // O carregado é conferido com o lock: uma carga em andamento segura o lock de escrita
+        // até terminar, então a gravação espera e é aplicada sobre o índice recém-carregado,
+        // em vez de se perder entre a leitura da carga e o fim dela
+        lock.writeLock().lock();
+        try {
+            if (!carregado) {
+                // A próxima carga lê o banco já com esta gravação
+                return;
+            }
+            for (Mensalidade mensalidade : mensalidades) {
+                if (mensalidade.getIdMensalidade() == null) {
+                    continue;
+                }
+                removerEntrada(mensalidade.getIdMensalidade());
+                if (!"Pago".equals(mensalidade.getStatusPagamento()) && mensalidade.getDataVencimento() != null) {
+                    adicionarEntrada(new MensalidadeEmAberto(
+                            mensalidade.getIdMensalidade(),
+                            mensalidade.getIdAluno() != null ? mensalidade.getIdAluno() : 0,
+                            mensalidade.getIdPlano() != null ? mensalidade.getIdPlano() : 0,
+                            mensalidade.getDataVencimento().toEpochDay(),
+                            mensalidade.getValorPago() != null ? mensalidade.getValorPago() : 0f));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove uma mensalidade do índice, após o commit do pagamento ou da exclusão
+     */
+    void remover(Integer idMensalidade) {
+        if (idMensalidade == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                removerEntrada(idMensalidade);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void garantirCarregado() {
+        if (carregado) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!carregado) {
+                carregar();
+                carregado = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void carregar() {
+        String sql = "SELECT id_mensalidade, data_vencimento, valor_pago, fk_plano, fk_aluno " +
+                     "FROM Mensalidade WHERE status_pagamento IS NOT 'Pago'";
+
+        long inicio = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection(TipoConexao.LEITURA);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Date dataVencimento = rs.getDate("data_vencimento");
+                if (dataVencimento == null) {
+                    continue;
+                }
+                adicionarEntrada(new MensalidadeEmAberto(
+                        rs.getInt("id_mensalidade"),
+                        rs.getInt("fk_aluno"),
+                        rs.getInt("fk_plano"),
+                        dataVencimento.toLocalDate().toEpochDay(),
+                        rs.getFloat("valor_pago")));
+            }
+        } catch (SQLException e) {
+            porVencimento.clear();
+            porId.clear();
+            porAluno.clear();
+            logger.error("Erro ao carregar índice de inadimplência", e);
+            throw new RuntimeException("Erro ao carregar índice de inadimplência", e);
+        }
+
+        logger.info("Índice de inadimplência carregado: {} mensalidades em aberto em {} ms",
+                porId.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void adicionarEntrada(MensalidadeEmAberto entrada) {
+        porId.put(entrada.idMensalidade(), entrada);
+        porVencimento.put(chave(entrada.diaVencimento(), entrada.idMensalidade()), entrada);
+        porAluno.computeIfAbsent(entrada.idAluno(), id -> new ArrayList<>(2)).add(entrada);
+        if (entrada.diaVencimento() < diaContagem) {
+            atrasadasNoDia++;
+        }
+    }
+
+    private void removerEntrada(int idMensalidade) {
+        MensalidadeEmAberto anterior = porId.remove(idMensalidade);
+        if (anterior != null) {
+            porVencimento.remove(chave(anterior.diaVencimento(), idMensalidade));
+            if (anterior.diaVencimento() < diaContagem) {
+                atrasadasNoDia--;
+            }
+            List<MensalidadeEmAberto> doAluno = porAluno.get(anterior.idAluno());
+            if (doAluno != null) {
+                doAluno.remove(anterior);
+                if (doAluno.isEmpty()) {
+                    porAluno.remove(anterior.idAluno());
+                }
+            }
+        }
+    }
+
+    private static long chave(long diaVencimento, int idMensalidade) {
+        return (diaVencimento << 32) | (idMensalidade & 0xFFFFFFFFL);
+    }
+}
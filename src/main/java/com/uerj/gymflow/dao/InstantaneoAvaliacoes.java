@@ -0,0 +1,339 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.RegistroMetricas;
+import com.uerj.gymflow.database.TipoConexao;
+import com.uerj.gymflow.model.Avaliacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cópia em memória, em colunas, de todas as avaliações, para análises da academia inteira
+ * (distribuição do IMC, variação de peso por professor).
+ *
+ * Cada atributo fica em um vetor primitivo (IDs, dia da avaliação em dias desde 1970-01-01,
+ * peso, altura), com o IMC, a faixa de classificação e a variação de peso em relação à
+ * avaliação anterior do mesmo aluno já calculados na carga. As análises são laços simples
+ * sobre esses vetores, sem objetos nem valores encaixotados.
+ *
+ * A primeira análise carrega a tabela inteira; as seguintes leem antes apenas as avaliações
+ * com ID maior que o último carregado, o que cobre também inclusões feitas fora do
+ * AvaliacaoDAO. Alterações e exclusões chamam {@link #invalidar()}, e a tabela é relida na
+ * próxima análise. Os vetores publicados nunca são alterados nas posições já visíveis, então
+ * as análises não precisam de lock.
+ */
+public final class InstantaneoAvaliacoes {
+    private static final Logger logger = LoggerFactory.getLogger(InstantaneoAvaliacoes.class);
+    private static final InstantaneoAvaliacoes instance = new InstantaneoAvaliacoes();
+    private static final String SQL_CARGA = "SELECT id_avaliacao, data_avaliacao, peso, altura, fk_aluno, fk_professor " +
+            "FROM Avaliacao WHERE id_avaliacao > ? ORDER BY id_avaliacao";
+    // Faixa das avaliações sem peso ou altura, depois das faixas de Avaliacao.CLASSIFICACOES_IMC
+    private static final byte SEM_IMC = (byte) Avaliacao.CLASSIFICACOES_IMC.size();
+    private static final int SEM_DATA = Integer.MIN_VALUE;
+
+    /**
+     * Variação média de peso entre avaliações consecutivas dos alunos, atribuída ao professor
+     * da avaliação mais recente
+     * @param idProfessor ID do professor
+     * @param avaliacoes Avaliações com avaliação anterior do mesmo aluno para comparar
+     * @param variacaoMedia Média da diferença de peso, em quilos (negativa quando o peso caiu)
+     */
+    public record VariacaoPesoProfessor(int idProfessor, int avaliacoes, double variacaoMedia) {
+    }
+
+    /**
+     * Vetores publicados para as análises; só as primeiras {@code tamanho} posições valem
+     */
+    private static final class Colunas {
+        private final int tamanho;
+        private final int[] ids;
+        private final int[] alunos;
+        private final int[] professores;
+        private final int[] dias;
+        private final float[] pesos;
+        private final float[] alturas;
+        private final float[] imcs;
+        private final byte[] faixas;
+        private final float[] variacoesPeso;
+        private final int maiorProfessor;
+
+        private Colunas(int tamanho, int[] ids, int[] alunos, int[] professores, int[] dias, float[] pesos,
+                        float[] alturas, float[] imcs, byte[] faixas, float[] variacoesPeso, int maiorProfessor) {
+            this.tamanho = tamanho;
+            this.ids = ids;
+            this.alunos = alunos;
+            this.professores = professores;
+            this.dias = dias;
+            this.pesos = pesos;
+            this.alturas = alturas;
+            this.imcs = imcs;
+            this.faixas = faixas;
+            this.variacoesPeso = variacoesPeso;
+            this.maiorProfessor = maiorProfessor;
+        }
+
+        private static Colunas vazias(int capacidade) {
+            return new Colunas(0, new int[capacidade], new int[capacidade], new int[capacidade], new int[capacidade],
+                    new float[capacidade], new float[capacidade], new float[capacidade], new byte[capacidade],
+                    new float[capacidade], 0);
+        }
+
+        private Colunas comCapacidade(int capacidade) {
+            return new Colunas(tamanho, Arrays.copyOf(ids, capacidade), Arrays.copyOf(alunos, capacidade),
+                    Arrays.copyOf(professores, capacidade), Arrays.copyOf(dias, capacidade),
+                    Arrays.copyOf(pesos, capacidade), Arrays.copyOf(alturas, capacidade),
+                    Arrays.copyOf(imcs, capacidade), Arrays.copyOf(faixas, capacidade),
+                    Arrays.copyOf(variacoesPeso, capacidade), maiorProfessor);
+        }
+
+        private Colunas com(int novoTamanho, float[] novasVariacoes, int novoMaiorProfessor) {
+            return new Colunas(novoTamanho, ids, alunos, professores, dias, pesos, alturas, imcs, faixas,
+                    novasVariacoes, novoMaiorProfessor);
+        }
+    }
+
+    private final DatabaseConnection dbConnection;
+    // Posição da avaliação mais recente de cada aluno, para calcular a variação de peso das novas
+    private final Map<Integer, Integer> ultimaPorAluno = new HashMap<>();
+    private volatile Colunas colunas;
+
+    private InstantaneoAvaliacoes() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        RegistroMetricas.getInstance().registrarMedidor("avaliacoes.instantaneo.linhas", () -> {
+            Colunas atual = colunas;
+            return atual != null ? atual.tamanho : 0;
+        });
+    }
+
+    public static InstantaneoAvaliacoes getInstance() {
+        return instance;
+    }
+
+    /**
+     * Conta as avaliações de cada classificação do IMC no período
+     * @param inicio Primeiro dia considerado
+     * @param fim Último dia considerado
+     * @return Quantidade por classificação, na ordem de Avaliacao.CLASSIFICACOES_IMC, seguida
+     *         de "Não calculado" para as avaliações sem peso ou altura
+     */
+    public Map<String, Integer> distribuicaoIMC(LocalDate inicio, LocalDate fim) {
+        Colunas atual = sincronizar();
+        int diaInicio = (int) inicio.toEpochDay();
+        int diaFim = (int) fim.toEpochDay();
+        int[] dias = atual.dias;
+        byte[] faixas = atual.faixas;
+        int[] quantidades = new int[SEM_IMC + 1];
+
+        for (int i = 0; i < atual.tamanho; i++) {
+            int dia = dias[i];
+            if (dia >= diaInicio && dia <= diaFim) {
+                quantidades[faixas[i]]++;
+            }
+        }
+
+        Map<String, Integer> distribuicao = new LinkedHashMap<>();
+        for (int faixa = 0; faixa < SEM_IMC; faixa++) {
+            distribuicao.put(Avaliacao.CLASSIFICACOES_IMC.get(faixa), quantidades[faixa]);
+        }
+        distribuicao.put("Não calculado", quantidades[SEM_IMC]);
+        return distribuicao;
+    }
+
+    /**
+     * Calcula o IMC médio das avaliações do período que têm peso e altura
+     * @param inicio Primeiro dia considerado
+     * @param fim Último dia considerado
+     * @return O IMC médio ou NaN se nenhuma avaliação do período tiver IMC
+     */
+    public double imcMedio(LocalDate inicio, LocalDate fim) {
+        Colunas atual = sincronizar();
+        int diaInicio = (int) inicio.toEpochDay();
+        int diaFim = (int) fim.toEpochDay();
+        int[] dias = atual.dias;
+        float[] imcs = atual.imcs;
+        double soma = 0;
+        int quantidade = 0;
+
+        for (int i = 0; i < atual.tamanho; i++) {
+            int dia = dias[i];
+            float imc = imcs[i];
+            if (dia >= diaInicio && dia <= diaFim && imc == imc) {
+                soma += imc;
+                quantidade++;
+            }
+        }
+
+        return quantidade == 0 ? Double.NaN : soma / quantidade;
+    }
+
+    /**
+     * Calcula, por professor, a variação média de peso entre cada avaliação e a anterior do
+     * mesmo aluno, atribuída ao professor da avaliação mais recente
+     * @return Uma linha por professor com ao menos uma comparação, em ordem de ID
+     */
+    public List<VariacaoPesoProfessor> variacaoPesoPorProfessor() {
+        Colunas atual = sincronizar();
+        int[] professores = atual.professores;
+        float[] variacoes = atual.variacoesPeso;
+        double[] somas = new double[atual.maiorProfessor + 1];
+        int[] quantidades = new int[atual.maiorProfessor + 1];
+
+        for (int i = 0; i < atual.tamanho; i++) {
+            float variacao = variacoes[i];
+            if (variacao == variacao) {
+                int professor = professores[i];
+                somas[professor] += variacao;
+                quantidades[professor]++;
+            }
+        }
+
+        List<VariacaoPesoProfessor> linhas = new ArrayList<>();
+        // A posição 0 acumula as avaliações sem professor, que ficam de fora
+        for (int professor = 1; professor < quantidades.length; professor++) {
+            if (quantidades[professor] > 0) {
+                linhas.add(new VariacaoPesoProfessor(professor, quantidades[professor],
+                        somas[professor] / quantidades[professor]));
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * @return Quantidade de avaliações carregadas, sem consultar o banco
+     */
+    public int getTamanho() {
+        Colunas atual = colunas;
+        return atual != null ? atual.tamanho : 0;
+    }
+
+    /**
+     * Descarta a cópia; a tabela é relida na próxima análise. Deve ser chamado após alterar
+     * ou excluir avaliações
+     */
+    public synchronized void invalidar() {
+        colunas = null;
+        ultimaPorAluno.clear();
+    }
+
+    /**
+     * Carrega a tabela na primeira chamada (ou após invalidar) e, nas demais, apenas as
+     * avaliações incluídas desde a última carga
+     * @return Os vetores atualizados
+     */
+    private synchronized Colunas sincronizar() {
+        Colunas atual = colunas;
+        boolean completa = atual == null;
+        if (completa) {
+            atual = Colunas.vazias(1024);
+        }
+
+        long inicio = System.nanoTime();
+        int tamanhoAnterior = atual.tamanho;
+        int tamanho = tamanhoAnterior;
+        int maiorProfessor = atual.maiorProfessor;
+        float[] variacoes = atual.variacoesPeso;
+        boolean foraDeOrdem = false;
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_CARGA)) {
+
+            stmt.setInt(1, tamanho > 0 ? atual.ids[tamanho - 1] : 0);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tamanho == atual.ids.length) {
+                        atual = atual.comCapacidade(tamanho * 2);
+                        variacoes = atual.variacoesPeso;
+                    }
+
+                    int i = tamanho++;
+                    Date data = rs.getDate("data_avaliacao");
+                    float peso = rs.getFloat("peso");
+                    if (rs.wasNull()) {
+                        peso = Float.NaN;
+                    }
+                    float altura = rs.getFloat("altura");
+                    if (rs.wasNull()) {
+                        altura = Float.NaN;
+                    }
+                    int aluno = rs.getInt("fk_aluno");
+                    int professor = rs.getInt("fk_professor");
+
+                    atual.ids[i] = rs.getInt("id_avaliacao");
+                    atual.alunos[i] = aluno;
+                    atual.professores[i] = professor;
+                    atual.dias[i] = data != null ? (int) data.toLocalDate().toEpochDay() : SEM_DATA;
+                    atual.pesos[i] = peso;
+                    atual.alturas[i] = altura;
+                    float imc = Avaliacao.calcularIMC(peso, altura);
+                    atual.imcs[i] = imc;
+                    atual.faixas[i] = imc == imc ? (byte) Avaliacao.faixaIMC(imc) : SEM_IMC;
+                    maiorProfessor = Math.max(maiorProfessor, professor);
+
+                    Integer anterior = ultimaPorAluno.get(aluno);
+                    if (anterior != null && atual.dias[anterior] > atual.dias[i]) {
+                        // Avaliação com data anterior à última do aluno: variações recalculadas no final
+                        foraDeOrdem = true;
+                    } else {
+                        variacoes[i] = anterior != null ? peso - atual.pesos[anterior] : Float.NaN;
+                        ultimaPorAluno.put(aluno, i);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // ultimaPorAluno pode apontar para posições não publicadas: recomeça do zero na próxima análise
+            invalidar();
+            logger.error("Erro ao carregar avaliações em memória", e);
+            throw new RuntimeException("Erro ao carregar avaliações em memória", e);
+        }
+
+        if (foraDeOrdem) {
+            variacoes = recalcularVariacoes(atual, tamanho);
+        }
+
+        if (completa || tamanho != tamanhoAnterior) {
+            atual = atual.com(tamanho, variacoes, maiorProfessor);
+            colunas = atual;
+            logger.debug("Avaliações em memória: {} ({} novas) em {} ms", tamanho, tamanho - tamanhoAnterior,
+                    (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return atual;
+    }
+
+    /**
+     * Recalcula a variação de peso de todas as avaliações ordenando-as por aluno e data,
+     * em um vetor novo para não alterar o que as análises em andamento estão lendo
+     */
+    private float[] recalcularVariacoes(Colunas atual, int tamanho) {
+        Integer[] ordem = new Integer[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, Comparator.<Integer>comparingInt(i -> atual.alunos[i])
+                .thenComparingInt(i -> atual.dias[i])
+                .thenComparingInt(i -> atual.ids[i]));
+
+        float[] variacoes = new float[atual.ids.length];
+        ultimaPorAluno.clear();
+        for (int i : ordem) {
+            Integer anterior = ultimaPorAluno.get(atual.alunos[i]);
+            variacoes[i] = anterior != null ? atual.pesos[i] - atual.pesos[anterior] : Float.NaN;
+            ultimaPorAluno.put(atual.alunos[i], i);
+        }
+        return variacoes;
+    }
+}
@@ -0,0 +1,223 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.RegistroMetricas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mapa de identidade compartilhado pelos DAOs dentro de uma unidade de trabalho.
+ *
+ * Enquanto um escopo estiver aberto na thread atual, cada entidade buscada por ID
+ * é carregada do banco uma única vez e a mesma instância é reaproveitada pelos
+ * demais DAOs (por exemplo, o Plano 3 referenciado por várias mensalidades).
+ * Escopos aninhados reaproveitam o escopo externo; o mapa é descartado quando o
+ * escopo mais externo é fechado.
+ *
+ * Uso:
+ * <pre>
+ * return MapaIdentidade.emEscopo(() -> {
+ *     ...
+ * });
+ * </pre>
+ * Os totais de acertos e falhas aparecem no relatório do RegistroMetricas como
+ * {@code mapa_identidade.*}.
+ */
+public final class MapaIdentidade implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MapaIdentidade.class);
+    private static final ThreadLocal<MapaIdentidade> escopoAtual = new ThreadLocal<>();
+    private static final AtomicLong acertosTotais = new AtomicLong();
+    private static final AtomicLong falhasTotais = new AtomicLong();
+
+    static {
+        RegistroMetricas metricas = RegistroMetricas.getInstance();
+        metricas.registrarMedidor("mapa_identidade.acertos", MapaIdentidade::getAcertosTotais);
+        metricas.registrarMedidor("mapa_identidade.falhas", MapaIdentidade::getFalhasTotais);
+    }
+
+    private final Map<Class<?>, Map<Integer, Object>> entidades = new HashMap<>();
+    private int profundidade;
+    private long acertos;
+    private long falhas;
+
+    private MapaIdentidade() {
+    }
+
+    /**
+     * Abre um escopo na thread atual ou entra no escopo já aberto
+     * @return O mapa do escopo, que deve ser fechado ao final da unidade de trabalho
+     */
+    public static MapaIdentidade abrir() {
+        MapaIdentidade mapa = escopoAtual.get();
+        if (mapa == null) {
+            mapa = new MapaIdentidade();
+            escopoAtual.set(mapa);
+        }
+        mapa.profundidade++;
+        return mapa;
+    }
+
+    /**
+     * Executa a unidade de trabalho com um escopo aberto na thread atual
+     * @param unidade Trabalho a executar, normalmente uma listagem inteira
+     * @return O resultado da unidade de trabalho
+     */
+    static <T> T emEscopo(Supplier<T> unidade) {
+        MapaIdentidade mapa = abrir();
+        try {
+            return unidade.get();
+        } finally {
+            mapa.close();
+        }
+    }
+
+    /**
+     * Versão de {@link #emEscopo(Supplier)} para unidades de trabalho sem resultado
+     * @param unidade Trabalho a executar
+     */
+    static void emEscopo(Runnable unidade) {
+        MapaIdentidade mapa = abrir();
+        try {
+            unidade.run();
+        } finally {
+            mapa.close();
+        }
+    }
+
+    /**
+     * Retorna a entidade do escopo atual ou a carrega com o carregador informado.
+     * Sem escopo aberto, apenas delega ao carregador.
+     * @param tipo Classe da entidade
+     * @param id ID da entidade
+     * @param carregador Função que busca a entidade no banco
+     * @return A entidade ou null se não existir
+     */
+    static <T> T obter(Class<T> tipo, Integer id, Function<Integer, T> carregador) {
+        MapaIdentidade mapa = escopoAtual.get();
+        if (mapa == null || id == null) {
+            return carregador.apply(id);
+        }
+
+        Map<Integer, Object> porId = mapa.entidades.computeIfAbsent(tipo, t -> new HashMap<>());
+        Object existente = porId.get(id);
+        if (existente != null) {
+            mapa.acertos++;
+            acertosTotais.incrementAndGet();
+            return tipo.cast(existente);
+        }
+
+        mapa.falhas++;
+        falhasTotais.incrementAndGet();
+        T entidade = carregador.apply(id);
+        if (entidade != null) {
+            porId.put(id, entidade);
+        }
+        return entidade;
+    }
+
+    /**
+     * Versão em lote de {@link #obter}: retorna as entidades já presentes no escopo atual
+     * e carrega as demais com uma única chamada ao carregador. Sem escopo aberto, apenas
+     * delega ao carregador.
+     * @param tipo Classe da entidade
+     * @param ids IDs das entidades; nulos e repetidos são ignorados
+     * @param carregador Função que busca no banco as entidades dos IDs informados
+     * @return As entidades encontradas, por ID; IDs inexistentes ficam de fora
+     */
+    static <T> Map<Integer, T> obterVarios(Class<T> tipo, Collection<Integer> ids,
+                                           Function<Set<Integer>, Map<Integer, T>> carregador) {
+        Set<Integer> faltantes = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            if (id != null) {
+                faltantes.add(id);
+            }
+        }
+
+        Map<Integer, T> encontradas = new HashMap<>();
+        MapaIdentidade mapa = escopoAtual.get();
+        if (mapa == null) {
+            if (!faltantes.isEmpty()) {
+                encontradas.putAll(carregador.apply(faltantes));
+            }
+            return encontradas;
+        }
+
+        Map<Integer, Object> porId = mapa.entidades.computeIfAbsent(tipo, t -> new HashMap<>());
+        Iterator<Integer> iterador = faltantes.iterator();
+        while (iterador.hasNext()) {
+            Integer id = iterador.next();
+            Object existente = porId.get(id);
+            if (existente != null) {
+                encontradas.put(id, tipo.cast(existente));
+                iterador.remove();
+                mapa.acertos++;
+                acertosTotais.incrementAndGet();
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            mapa.falhas += faltantes.size();
+            falhasTotais.addAndGet(faltantes.size());
+            Map<Integer, T> carregadas = carregador.apply(faltantes);
+            porId.putAll(carregadas);
+            encontradas.putAll(carregadas);
+        }
+        return encontradas;
+    }
+
+    /**
+     * Remove uma entidade do escopo atual, usado após atualizações e exclusões
+     * @param tipo Classe da entidade
+     * @param id ID da entidade
+     */
+    static void remover(Class<?> tipo, Integer id) {
+        MapaIdentidade mapa = escopoAtual.get();
+        if (mapa != null && id != null) {
+            Map<Integer, Object> porId = mapa.entidades.get(tipo);
+            if (porId != null) {
+                porId.remove(id);
+            }
+        }
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * @return Total de buscas atendidas pelo mapa (consultas evitadas) desde o início da aplicação
+     */
+    public static long getAcertosTotais() {
+        return acertosTotais.get();
+    }
+
+    /**
+     * @return Total de buscas que precisaram ir ao banco desde o início da aplicação
+     */
+    public static long getFalhasTotais() {
+        return falhasTotais.get();
+    }
+
+    @Override
+    public void close() {
+        if (--profundidade == 0) {
+            escopoAtual.remove();
+            if (acertos > 0) {
+                logger.debug("Mapa de identidade encerrado: {} acertos, {} falhas", acertos, falhas);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.Mensalidade;
 import com.uerj.gymflow.model.Plano;
@@ -9,26 +10,45 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MensalidadeDAO {
     private static final Logger logger = LoggerFactory.getLogger(MensalidadeDAO.class);
+    private static final String SQL_LISTAGEM = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
+            "status_pagamento, fk_plano, fk_aluno FROM Mensalidade ";
+    static final String SQL_BUSCAR_POR_ALUNO = SQL_LISTAGEM + "WHERE fk_aluno = ?";
+    static final String SQL_BUSCAR_POR_PLANO = SQL_LISTAGEM + "WHERE fk_plano = ?";
+    static final String SQL_BUSCAR_POR_STATUS = SQL_LISTAGEM + "WHERE status_pagamento = ?";
+    static final String SQL_BUSCAR_ATRASADAS = SQL_LISTAGEM + "WHERE data_vencimento < ? AND status_pagamento IS NOT 'Pago'";
+    static final String SQL_BUSCAR_POR_PERIODO_VENCIMENTO = SQL_LISTAGEM + "WHERE data_vencimento BETWEEN ? AND ?";
+    static final String SQL_BUSCAR_POR_PERIODO_PAGAMENTO = SQL_LISTAGEM + "WHERE data_pagamento BETWEEN ? AND ?";
+    // Alunos com plano e sem mensalidade com vencimento no mês; a subconsulta usa o índice por aluno e vencimento
+    static final String SQL_ALUNOS_SEM_MENSALIDADE =
+            "SELECT a.id_aluno, a.data_matricula, a.data_assinatura, a.fk_plano, pl.valor_mensal " +
+            "FROM Aluno a INNER JOIN Plano pl ON a.fk_plano = pl.id_plano " +
+            "WHERE NOT EXISTS (SELECT 1 FROM Mensalidade m " +
+            "WHERE m.fk_aluno = a.id_aluno AND m.data_vencimento BETWEEN ? AND ?)";
+    private static final int TAMANHO_LOTE = 1000;
     private final DatabaseConnection dbConnection;
     private final PlanoDAO planoDAO;
     private final AlunoDAO alunoDAO;
+    private final IndiceInadimplencia indiceInadimplencia;
 
     public MensalidadeDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
         this.planoDAO = new PlanoDAO();
         this.alunoDAO = new AlunoDAO();
+        this.indiceInadimplencia = IndiceInadimplencia.getInstance();
     }
 
     public void inserir(Mensalidade mensalidade) {
         String sql = "INSERT INTO Mensalidade (data_vencimento, data_pagamento, valor_pago, status_pagamento, fk_plano, fk_aluno) " +
                      "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setDate(1, Date.valueOf(mensalidade.getDataVencimento()));
@@ -60,6 +80,7 @@ public class MensalidadeDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         mensalidade.setIdMensalidade(rs.getInt(1));
+                        dbConnection.aposCommit(() -> indiceInadimplencia.registrar(mensalidade));
                         logger.info("Mensalidade inserida com sucesso: ID {}", mensalidade.getIdMensalidade());
                     }
                 }
@@ -70,11 +91,20 @@ public class MensalidadeDAO {
         }
     }
 
-    public void registrarPagamento(Integer idMensalidade, LocalDate dataPagamento, Float valorPago) {
+    /**
+     * Registra o pagamento de uma mensalidade ainda não paga. A condição de status fica no
+     * próprio UPDATE, então dois pagamentos simultâneos da mesma mensalidade não se sobrescrevem:
+     * só o primeiro é gravado
+     * @param idMensalidade ID da mensalidade
+     * @param dataPagamento Data do pagamento
+     * @param valorPago Valor pago
+     * @return true se o pagamento foi gravado, false se a mensalidade não existe ou já estava paga
+     */
+    public boolean registrarPagamento(Integer idMensalidade, LocalDate dataPagamento, Float valorPago) {
         String sql = "UPDATE Mensalidade SET data_pagamento = ?, valor_pago = ?, status_pagamento = ? " +
-                     "WHERE id_mensalidade = ?";
+                     "WHERE id_mensalidade = ? AND status_pagamento IS NOT 'Pago'";
                      
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
              
             stmt.setDate(1, Date.valueOf(dataPagamento));
@@ -85,10 +115,12 @@ public class MensalidadeDAO {
             int linhasAfetadas = stmt.executeUpdate();
             
             if (linhasAfetadas > 0) {
+                dbConnection.aposCommit(() -> indiceInadimplencia.remover(idMensalidade));
                 logger.info("Pagamento registrado com sucesso para mensalidade ID: {}", idMensalidade);
-            } else {
-                logger.warn("Nenhuma mensalidade encontrada para ID: {}", idMensalidade);
+                return true;
             }
+            logger.warn("Nenhuma mensalidade em aberto encontrada para ID: {}", idMensalidade);
+            return false;
         } catch (SQLException e) {
             logger.error("Erro ao registrar pagamento", e);
             throw new RuntimeException("Erro ao registrar pagamento", e);
@@ -100,7 +132,7 @@ public class MensalidadeDAO {
                      "status_pagamento, fk_plano, fk_aluno " +
                      "FROM Mensalidade WHERE id_mensalidade = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -120,22 +152,63 @@ public class MensalidadeDAO {
 
     public List<Mensalidade> listarTodas() {
         List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno FROM Mensalidade";
+        percorrer(mensalidades::add);
+        return mensalidades;
+    }
 
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Lista uma página de mensalidades em ordem de ID, a partir do último ID da página anterior
+     * @param aposId ID do último registro da página anterior, ou null para a primeira página
+     * @param limite Quantidade máxima de registros da página
+     * @return A página, vazia quando não houver mais registros
+     */
+    public List<Mensalidade> listarPagina(Integer aposId, int limite) {
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
+            String sql = SQL_LISTAGEM + "WHERE id_mensalidade > ? ORDER BY id_mensalidade LIMIT ?";
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                stmt.setInt(1, aposId != null ? aposId : 0);
+                stmt.setInt(2, limite);
             
-            while (rs.next()) {
-                mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar página de mensalidades", e);
+                throw new RuntimeException("Erro ao listar página de mensalidades", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar mensalidades", e);
-            throw new RuntimeException("Erro ao listar mensalidades", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
+    }
+
+    /**
+     * Percorre todas as mensalidades em ordem de ID, entregando uma por vez ao consumidor
+     * sem guardar a lista. O mapa de identidade fica aberto durante a leitura, então cada
+     * plano e cada aluno referenciado é buscado uma única vez.
+     * @param consumidor Recebe cada mensalidade
+     */
+    public void percorrer(Consumer<Mensalidade> consumidor) {
+        MapaIdentidade.emEscopo(() -> {
+            String sql = SQL_LISTAGEM + "ORDER BY id_mensalidade";
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+            
+                while (rs.next()) {
+                    consumidor.accept(extrairMensalidadeDoResultSet(rs));
+                }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar mensalidades", e);
+                throw new RuntimeException("Erro ao listar mensalidades", e);
+            }
+        });
     }
 
     public void atualizar(Mensalidade mensalidade) {
@@ -143,7 +216,7 @@ public class MensalidadeDAO {
                      "valor_pago = ?, status_pagamento = ?, fk_plano = ?, fk_aluno = ? " +
                      "WHERE id_mensalidade = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setDate(1, Date.valueOf(mensalidade.getDataVencimento()));
@@ -174,6 +247,7 @@ public class MensalidadeDAO {
             int linhasAfetadas = stmt.executeUpdate();
             
             if (linhasAfetadas > 0) {
+                dbConnection.aposCommit(() -> indiceInadimplencia.registrar(mensalidade));
                 logger.info("Mensalidade atualizada com sucesso: ID {}", mensalidade.getIdMensalidade());
             } else {
                 logger.warn("Nenhuma mensalidade encontrada para atualização com ID {}", mensalidade.getIdMensalidade());
@@ -187,13 +261,14 @@ public class MensalidadeDAO {
     public void excluir(Integer id) {
         String sql = "DELETE FROM Mensalidade WHERE id_mensalidade = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int linhasAfetadas = stmt.executeUpdate();
             
             if (linhasAfetadas > 0) {
+                dbConnection.aposCommit(() -> indiceInadimplencia.remover(id));
                 logger.info("Mensalidade excluída com sucesso: ID {}", id);
             } else {
                 logger.warn("Nenhuma mensalidade encontrada para exclusão com ID {}", id);
@@ -205,150 +280,169 @@ public class MensalidadeDAO {
     }
 
     public List<Mensalidade> buscarPorAluno(Integer idAluno) {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade WHERE fk_aluno = ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_ALUNO)) {
             
-            stmt.setInt(1, idAluno);
+                stmt.setInt(1, idAluno);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades por aluno", e);
+                throw new RuntimeException("Erro ao buscar mensalidades por aluno", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades por aluno", e);
-            throw new RuntimeException("Erro ao buscar mensalidades por aluno", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
     }
 
     public List<Mensalidade> buscarPorPlano(Integer idPlano) {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade WHERE fk_plano = ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_PLANO)) {
             
-            stmt.setInt(1, idPlano);
+                stmt.setInt(1, idPlano);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades por plano", e);
+                throw new RuntimeException("Erro ao buscar mensalidades por plano", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades por plano", e);
-            throw new RuntimeException("Erro ao buscar mensalidades por plano", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
     }
 
     public List<Mensalidade> buscarPorStatus(String status) {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade WHERE status_pagamento = ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_STATUS)) {
             
-            stmt.setString(1, status);
+                stmt.setString(1, status);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades por status", e);
+                throw new RuntimeException("Erro ao buscar mensalidades por status", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades por status", e);
-            throw new RuntimeException("Erro ao buscar mensalidades por status", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
     }
 
     public List<Mensalidade> buscarMensalidadesAtrasadas() {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade " +
-                     "WHERE data_vencimento < ? AND (status_pagamento != 'Pago' OR status_pagamento IS NULL)";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_ATRASADAS)) {
             
-            stmt.setDate(1, Date.valueOf(LocalDate.now()));
+                stmt.setDate(1, Date.valueOf(LocalDate.now()));
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades atrasadas", e);
+                throw new RuntimeException("Erro ao buscar mensalidades atrasadas", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades atrasadas", e);
-            throw new RuntimeException("Erro ao buscar mensalidades atrasadas", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
+    }
+
+    /**
+     * Lista as mensalidades atrasadas a partir do índice em memória, sem consultar o banco
+     * nem montar Aluno e Plano. Para os objetos completos, use {@link #buscarMensalidadesAtrasadas()}.
+     * @param limite Quantidade máxima de mensalidades retornadas
+     * @return Resumo das mensalidades em atraso, da mais antiga para a mais recente, até o limite
+     */
+    public List<IndiceInadimplencia.MensalidadeEmAberto> listarResumoAtrasadas(int limite) {
+        return indiceInadimplencia.listarAtrasadas(LocalDate.now(), limite);
+    }
+
+    /**
+     * Lista as mensalidades atrasadas de um aluno a partir do índice em memória, sem consultar o banco
+     * @param idAluno ID do aluno
+     * @return Resumo das mensalidades em atraso do aluno, vazia se ele estiver em dia
+     */
+    public List<IndiceInadimplencia.MensalidadeEmAberto> listarResumoAtrasadasDoAluno(Integer idAluno) {
+        return indiceInadimplencia.listarAtrasadasDoAluno(idAluno, LocalDate.now());
+    }
+
+    /**
+     * @return Quantidade de mensalidades atrasadas, a partir do índice em memória
+     */
+    public int contarMensalidadesAtrasadas() {
+        return indiceInadimplencia.contarAtrasadas(LocalDate.now());
     }
 
     public List<Mensalidade> buscarPorPeriodoVencimento(LocalDate dataInicio, LocalDate dataFim) {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade WHERE data_vencimento BETWEEN ? AND ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_PERIODO_VENCIMENTO)) {
             
-            stmt.setDate(1, Date.valueOf(dataInicio));
-            stmt.setDate(2, Date.valueOf(dataFim));
+                stmt.setDate(1, Date.valueOf(dataInicio));
+                stmt.setDate(2, Date.valueOf(dataFim));
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades por período de vencimento", e);
+                throw new RuntimeException("Erro ao buscar mensalidades por período de vencimento", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades por período de vencimento", e);
-            throw new RuntimeException("Erro ao buscar mensalidades por período de vencimento", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
     }
 
     public List<Mensalidade> buscarPorPeriodoPagamento(LocalDate dataInicio, LocalDate dataFim) {
-        List<Mensalidade> mensalidades = new ArrayList<>();
-        String sql = "SELECT id_mensalidade, data_vencimento, data_pagamento, valor_pago, " +
-                     "status_pagamento, fk_plano, fk_aluno " +
-                     "FROM Mensalidade WHERE data_pagamento BETWEEN ? AND ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Mensalidade> mensalidades = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_PERIODO_PAGAMENTO)) {
             
-            stmt.setDate(1, Date.valueOf(dataInicio));
-            stmt.setDate(2, Date.valueOf(dataFim));
+                stmt.setDate(1, Date.valueOf(dataInicio));
+                stmt.setDate(2, Date.valueOf(dataFim));
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mensalidades.add(extrairMensalidadeDoResultSet(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar mensalidades por período de pagamento", e);
+                throw new RuntimeException("Erro ao buscar mensalidades por período de pagamento", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar mensalidades por período de pagamento", e);
-            throw new RuntimeException("Erro ao buscar mensalidades por período de pagamento", e);
-        }
         
-        return mensalidades;
+            return mensalidades;
+        });
     }
 
     public void gerarMensalidadesAutomaticas(Integer idAluno, Integer idPlano, int meses) {
@@ -361,34 +455,161 @@ public class MensalidadeDAO {
         }
         
         LocalDate dataInicial = LocalDate.now();
+        List<Mensalidade> mensalidades = new ArrayList<>();
         
-        try (Connection conn = dbConnection.getConnection()) {
+        for (int i = 0; i < meses; i++) {
+            LocalDate dataVencimento = dataInicial.plusMonths(i);
+            
+            Mensalidade mensalidade = new Mensalidade();
+            mensalidade.setDataVencimento(dataVencimento);
+            mensalidade.setValorPago(plano.getValorMensal());
+            mensalidade.setStatusPagamento("Pendente");
+            mensalidade.setIdPlano(idPlano);
+            mensalidade.setIdAluno(idAluno);
+            mensalidades.add(mensalidade);
+        }
+        
+        inserirEmLote(mensalidades);
+        logger.info("Mensalidades automáticas geradas com sucesso para aluno ID {}", idAluno);
+    }
+
+    /**
+     * Insere várias mensalidades em uma única transação, usando uma só conexão e
+     * um único PreparedStatement em lote.
+     * @param mensalidades Mensalidades a inserir; recebem os IDs gerados
+     */
+    public void inserirEmLote(List<Mensalidade> mensalidades) {
+        if (mensalidades.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
-                for (int i = 0; i < meses; i++) {
-                    LocalDate dataVencimento = dataInicial.plusMonths(i);
-                    
-                    Mensalidade mensalidade = new Mensalidade();
-                    mensalidade.setDataVencimento(dataVencimento);
-                    mensalidade.setValorPago(plano.getValorMensal());
-                    mensalidade.setStatusPagamento("Pendente");
-                    mensalidade.setIdPlano(idPlano);
-                    mensalidade.setIdAluno(idAluno);
+                inserirEmLote(conn, mensalidades);
+                conn.commit();
+                dbConnection.aposCommit(() -> indiceInadimplencia.registrarTodas(mensalidades));
+                logger.info("{} mensalidades inseridas em lote", mensalidades.size());
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                logger.error("Erro ao inserir mensalidades em lote", e);
+                throw new RuntimeException("Erro ao inserir mensalidades em lote", e);
+            }
+        } catch (SQLException e) {
+            logger.error("Erro de conexão ao inserir mensalidades em lote", e);
+            throw new RuntimeException("Erro de conexão ao inserir mensalidades em lote", e);
+        }
+    }
+
+    /**
+     * Gera a mensalidade do mês informado para todos os alunos com plano, em uma
+     * única transação. O vencimento cai no dia da assinatura (ou da matrícula) do
+     * aluno, limitado ao último dia do mês. Alunos que já possuem mensalidade com
+     * vencimento no mês são ignorados, então a operação pode ser repetida.
+     * @param competencia Mês de referência das mensalidades
+     * @return Quantidade de mensalidades geradas
+     */
+    public int gerarMensalidadesDoMes(YearMonth competencia) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
+            conn.setAutoCommit(false);
+            
+            try {
+                List<Mensalidade> mensalidades = new ArrayList<>();
+                
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_ALUNOS_SEM_MENSALIDADE)) {
+                    stmt.setDate(1, Date.valueOf(competencia.atDay(1)));
+                    stmt.setDate(2, Date.valueOf(competencia.atEndOfMonth()));
                     
-                    inserir(mensalidade);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Date dataBase = rs.getDate("data_assinatura");
+                            if (dataBase == null) {
+                                dataBase = rs.getDate("data_matricula");
+                            }
+                            int dia = dataBase != null ? dataBase.toLocalDate().getDayOfMonth() : 1;
+                            
+                            Mensalidade mensalidade = new Mensalidade();
+                            mensalidade.setDataVencimento(competencia.atDay(Math.min(dia, competencia.lengthOfMonth())));
+                            mensalidade.setValorPago(rs.getFloat("valor_mensal"));
+                            mensalidade.setStatusPagamento("Pendente");
+                            mensalidade.setIdPlano(rs.getInt("fk_plano"));
+                            mensalidade.setIdAluno(rs.getInt("id_aluno"));
+                            mensalidades.add(mensalidade);
+                        }
+                    }
                 }
                 
+                inserirEmLote(conn, mensalidades);
                 conn.commit();
-                logger.info("Mensalidades automáticas geradas com sucesso para aluno ID {}", idAluno);
-            } catch (SQLException e) {
+                dbConnection.aposCommit(() -> indiceInadimplencia.registrarTodas(mensalidades));
+                logger.info("{} mensalidades geradas para a competência {}", mensalidades.size(), competencia);
+                return mensalidades.size();
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
-                logger.error("Erro ao gerar mensalidades automáticas", e);
-                throw new RuntimeException("Erro ao gerar mensalidades automáticas", e);
+                logger.error("Erro ao gerar mensalidades do mês", e);
+                throw new RuntimeException("Erro ao gerar mensalidades do mês", e);
             }
         } catch (SQLException e) {
-            logger.error("Erro de conexão ao gerar mensalidades automáticas", e);
-            throw new RuntimeException("Erro de conexão ao gerar mensalidades automáticas", e);
+            logger.error("Erro de conexão ao gerar mensalidades do mês", e);
+            throw new RuntimeException("Erro de conexão ao gerar mensalidades do mês", e);
+        }
+    }
+
+    /**
+     * Insere as mensalidades na conexão informada, sem confirmar a transação.
+     * Como o SQLite atribui os rowids em sequência dentro da transação, os IDs
+     * gerados são obtidos a partir de last_insert_rowid() ao final de cada lote.
+     */
+    private void inserirEmLote(Connection conn, List<Mensalidade> mensalidades) throws SQLException {
+        String sql = "INSERT INTO Mensalidade (data_vencimento, data_pagamento, valor_pago, status_pagamento, fk_plano, fk_aluno) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             Statement stmtUltimoId = conn.createStatement()) {
+            
+            int inicioLote = 0;
+            for (int i = 0; i < mensalidades.size(); i++) {
+                Mensalidade mensalidade = mensalidades.get(i);
+                stmt.setDate(1, Date.valueOf(mensalidade.getDataVencimento()));
+                
+                if (mensalidade.getDataPagamento() != null) {
+                    stmt.setDate(2, Date.valueOf(mensalidade.getDataPagamento()));
+                } else {
+                    stmt.setNull(2, Types.DATE);
+                }
+                
+                stmt.setFloat(3, mensalidade.getValorPago());
+                stmt.setString(4, mensalidade.getStatusPagamento());
+                
+                if (mensalidade.getIdPlano() != null) {
+                    stmt.setInt(5, mensalidade.getIdPlano());
+                } else {
+                    stmt.setNull(5, Types.INTEGER);
+                }
+                
+                if (mensalidade.getIdAluno() != null) {
+                    stmt.setInt(6, mensalidade.getIdAluno());
+                } else {
+                    stmt.setNull(6, Types.INTEGER);
+                }
+                
+                stmt.addBatch();
+                
+                if (i - inicioLote + 1 == TAMANHO_LOTE || i == mensalidades.size() - 1) {
+                    stmt.executeBatch();
+                    
+                    try (ResultSet rs = stmtUltimoId.executeQuery("SELECT last_insert_rowid()")) {
+                        if (rs.next()) {
+                            int id = rs.getInt(1) - (i - inicioLote);
+                            for (int j = inicioLote; j <= i; j++) {
+                                mensalidades.get(j).setIdMensalidade(id++);
+                            }
+                        }
+                    }
+                    inicioLote = i + 1;
+                }
+            }
         }
     }
 
@@ -418,9 +639,13 @@ public class MensalidadeDAO {
         Integer idAluno = rs.getInt("fk_aluno");
         if (!rs.wasNull()) {
             mensalidade.setIdAluno(idAluno);
-            Aluno aluno = alunoDAO.buscarPorId(idAluno);
-            if (aluno != null) {
-                mensalidade.setAluno(aluno);
+            if (CarregamentoTardio.isAtivo()) {
+                mensalidade.setReferenciaAluno(CarregamentoTardio.referencia(Aluno.class, idAluno));
+            } else {
+                Aluno aluno = alunoDAO.buscarPorId(idAluno);
+                if (aluno != null) {
+                    mensalidade.setAluno(aluno);
+                }
             }
         }
         
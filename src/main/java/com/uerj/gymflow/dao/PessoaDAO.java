@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Pessoa;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,10 +9,23 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class PessoaDAO {
     private static final Logger logger = LoggerFactory.getLogger(PessoaDAO.class);
+    private static final String SQL_LISTAGEM =
+            "SELECT id_pessoa, nome, data_nascimento, cpf, telefone, email FROM Pessoa ";
+    static final String SQL_BUSCAR_POR_CPF =
+            "SELECT id_pessoa, nome, data_nascimento, cpf, telefone, email " +
+            "FROM Pessoa WHERE cpf = ?";
+    static final String SQL_VERIFICAR_EXISTENTE = "SELECT COUNT(*) FROM Pessoa WHERE cpf = ? OR email = ?";
+    // Colunas de Pessoa com o alias pe, para as consultas de Funcionario e Professor que juntam Pessoa
+    static final String COLUNAS_JUNCAO = "pe.id_pessoa, pe.nome, pe.data_nascimento, pe.cpf, pe.telefone, pe.email";
     private final DatabaseConnection dbConnection;
 
     public PessoaDAO() {
@@ -21,7 +35,7 @@ public class PessoaDAO {
     public void inserir(Pessoa pessoa) {
         String sql = "INSERT INTO Pessoa (nome, data_nascimento, cpf, telefone, email) VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setString(1, pessoa.getNome());
@@ -47,10 +61,14 @@ public class PessoaDAO {
     }
 
     public Pessoa buscarPorId(Integer id) {
+        return MapaIdentidade.obter(Pessoa.class, id, this::carregarPorId);
+    }
+
+    private Pessoa carregarPorId(Integer id) {
         String sql = "SELECT id_pessoa, nome, data_nascimento, cpf, telefone, email " +
                      "FROM Pessoa WHERE id_pessoa = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -68,12 +86,42 @@ public class PessoaDAO {
         return null;
     }
 
-    public Pessoa buscarPorCpf(String cpf) {
-        String sql = "SELECT id_pessoa, nome, data_nascimento, cpf, telefone, email " +
-                     "FROM Pessoa WHERE cpf = ?";
+    /**
+     * Busca várias pessoas com uma consulta por lote de IDs
+     * @param ids IDs das pessoas
+     * @return As pessoas encontradas, por ID
+     */
+    public Map<Integer, Pessoa> buscarPorIds(Collection<Integer> ids) {
+        return MapaIdentidade.obterVarios(Pessoa.class, ids, this::carregarPorIds);
+    }
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private Map<Integer, Pessoa> carregarPorIds(Set<Integer> ids) {
+        Map<Integer, Pessoa> pessoas = new HashMap<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA)) {
+            for (List<Integer> lote : CarregamentoEmLote.dividir(ids)) {
+                String sql = SQL_LISTAGEM + "WHERE " + CarregamentoEmLote.condicaoIn("id_pessoa", lote.size());
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    CarregamentoEmLote.definirIds(stmt, lote);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Pessoa pessoa = extrairPessoaDoResultSet(rs);
+                            pessoas.put(pessoa.getIdPessoa(), pessoa);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao buscar pessoas por IDs", e);
+            throw new RuntimeException("Erro ao buscar pessoas", e);
+        }
+
+        return pessoas;
+    }
+
+    public Pessoa buscarPorCpf(String cpf) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_CPF)) {
             
             stmt.setString(1, cpf);
             
@@ -92,28 +140,67 @@ public class PessoaDAO {
 
     public List<Pessoa> listarTodos() {
         List<Pessoa> pessoas = new ArrayList<>();
-        String sql = "SELECT id_pessoa, nome, data_nascimento, cpf, telefone, email FROM Pessoa";
+        percorrer(pessoas::add);
+        return pessoas;
+    }
+
+    /**
+     * Lista uma página de pessoas em ordem de ID, a partir do último ID da página anterior
+     * @param aposId ID do último registro da página anterior, ou null para a primeira página
+     * @param limite Quantidade máxima de registros da página
+     * @return A página, vazia quando não houver mais registros
+     */
+    public List<Pessoa> listarPagina(Integer aposId, int limite) {
+        List<Pessoa> pessoas = new ArrayList<>();
+        String sql = SQL_LISTAGEM + "WHERE id_pessoa > ? ORDER BY id_pessoa LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, aposId != null ? aposId : 0);
+            stmt.setInt(2, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pessoas.add(extrairPessoaDoResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao listar página de pessoas", e);
+            throw new RuntimeException("Erro ao listar página de pessoas", e);
+        }
+        
+        return pessoas;
+    }
+
+    /**
+     * Percorre todas as pessoas em ordem de ID, entregando uma por vez ao consumidor
+     * à medida que são lidas, sem montar a lista
+     * @param consumidor Recebe cada pessoa
+     */
+    public void percorrer(Consumer<Pessoa> consumidor) {
+        String sql = SQL_LISTAGEM + "ORDER BY id_pessoa";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                pessoas.add(extrairPessoaDoResultSet(rs));
+                consumidor.accept(extrairPessoaDoResultSet(rs));
             }
         } catch (SQLException e) {
             logger.error("Erro ao listar pessoas", e);
             throw new RuntimeException("Erro ao listar pessoas", e);
         }
-        
-        return pessoas;
     }
 
     public void atualizar(Pessoa pessoa) {
+        MapaIdentidade.remover(Pessoa.class, pessoa.getIdPessoa());
+
         String sql = "UPDATE Pessoa SET nome = ?, data_nascimento = ?, cpf = ?, " +
                      "telefone = ?, email = ? WHERE id_pessoa = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, pessoa.getNome());
@@ -124,6 +211,7 @@ public class PessoaDAO {
             stmt.setInt(6, pessoa.getIdPessoa());
             
             int linhasAfetadas = stmt.executeUpdate();
+            CacheAlunos.getInstance().removerPorPessoa(pessoa.getIdPessoa());
             
             if (linhasAfetadas > 0) {
                 logger.info("Pessoa atualizada com sucesso: ID {}", pessoa.getIdPessoa());
@@ -137,13 +225,16 @@ public class PessoaDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Pessoa.class, id);
+
         String sql = "DELETE FROM Pessoa WHERE id_pessoa = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int linhasAfetadas = stmt.executeUpdate();
+            CacheAlunos.getInstance().removerPorPessoa(id);
             
             if (linhasAfetadas > 0) {
                 logger.info("Pessoa excluída com sucesso: ID {}", id);
@@ -157,10 +248,8 @@ public class PessoaDAO {
     }
 
     public boolean verificarPessoaExistente(String cpf, String email) {
-        String sql = "SELECT COUNT(*) FROM Pessoa WHERE cpf = ? OR email = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_VERIFICAR_EXISTENTE)) {
             
             stmt.setString(1, cpf);
             stmt.setString(2, email);
@@ -178,16 +267,24 @@ public class PessoaDAO {
         return false;
     }
 
-    private Pessoa extrairPessoaDoResultSet(ResultSet rs) throws SQLException {
+    Pessoa extrairPessoaDoResultSet(ResultSet rs) throws SQLException {
         Pessoa pessoa = new Pessoa();
-        
+        preencherPessoa(rs, pessoa);
+        return pessoa;
+    }
+
+    /**
+     * Preenche os atributos de Pessoa a partir da linha atual. Compartilhado pelos DAOs das
+     * subclasses, que leem Pessoa na mesma consulta (JOIN) da tabela filha.
+     * @param rs Linha com as colunas id_pessoa, nome, data_nascimento, cpf, telefone e email
+     * @param pessoa Pessoa ou subclasse a preencher
+     */
+    static void preencherPessoa(ResultSet rs, Pessoa pessoa) throws SQLException {
         pessoa.setIdPessoa(rs.getInt("id_pessoa"));
         pessoa.setNome(rs.getString("nome"));
         pessoa.setDataNascimento(rs.getDate("data_nascimento").toLocalDate());
         pessoa.setCpf(rs.getString("cpf"));
         pessoa.setTelefone(rs.getString("telefone"));
         pessoa.setEmail(rs.getString("email"));
-        
-        return pessoa;
     }
 }
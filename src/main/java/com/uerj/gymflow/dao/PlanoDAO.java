@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Plano;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,8 +12,19 @@ import java.util.List;
 
 public class PlanoDAO {
     private static final Logger logger = LoggerFactory.getLogger(PlanoDAO.class);
+    private static final String SQL_LISTAGEM =
+            "SELECT id_plano, nome_plano, descricao, duracao, valor_mensal FROM Plano ";
     private final DatabaseConnection dbConnection;
 
+    /**
+     * Cache do catálogo de planos, compartilhado por todas as instâncias e criado no primeiro uso
+     */
+    private static final class Catalogo {
+        private static final PlanoDAO dao = new PlanoDAO();
+        private static final CacheCatalogo<Plano> cache = new CacheCatalogo<>("plano",
+                dao::carregarTodos, dao::carregarPorId, Plano::getIdPlano, PlanoDAO::copiar);
+    }
+
     public PlanoDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
@@ -20,7 +32,7 @@ public class PlanoDAO {
     public void inserir(Plano plano) {
         String sql = "INSERT INTO Plano (nome_plano, descricao, duracao, valor_mensal) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setString(1, plano.getNomePlano());
@@ -34,6 +46,7 @@ public class PlanoDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         plano.setIdPlano(rs.getInt(1));
+                        Catalogo.cache.invalidar(plano.getIdPlano());
                         logger.info("Plano inserido com sucesso: ID {}", plano.getIdPlano());
                     }
                 }
@@ -45,9 +58,13 @@ public class PlanoDAO {
     }
 
     public Plano buscarPorId(Integer id) {
-        String sql = "SELECT id_plano, nome_plano, descricao, duracao, valor_mensal FROM Plano WHERE id_plano = ?";
+        return MapaIdentidade.obter(Plano.class, id, Catalogo.cache::buscarPorId);
+    }
+
+    private Plano carregarPorId(Integer id) {
+        String sql = SQL_LISTAGEM + "WHERE id_plano = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
@@ -66,10 +83,21 @@ public class PlanoDAO {
     }
 
     public List<Plano> listarTodos() {
+        return Catalogo.cache.listarTodos();
+    }
+
+    /**
+     * @return Estatísticas e controle do cache do catálogo de planos
+     */
+    public static CacheCatalogo<Plano> getCache() {
+        return Catalogo.cache;
+    }
+
+    private List<Plano> carregarTodos() {
         List<Plano> planos = new ArrayList<>();
-        String sql = "SELECT id_plano, nome_plano, descricao, duracao, valor_mensal FROM Plano";
+        String sql = SQL_LISTAGEM + "ORDER BY id_plano";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -85,9 +113,11 @@ public class PlanoDAO {
     }
 
     public void atualizar(Plano plano) {
+        MapaIdentidade.remover(Plano.class, plano.getIdPlano());
+
         String sql = "UPDATE Plano SET nome_plano = ?, descricao = ?, duracao = ?, valor_mensal = ? WHERE id_plano = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, plano.getNomePlano());
@@ -97,6 +127,7 @@ public class PlanoDAO {
             stmt.setInt(5, plano.getIdPlano());
             
             int linhasAfetadas = stmt.executeUpdate();
+            Catalogo.cache.invalidar(plano.getIdPlano());
             
             if (linhasAfetadas > 0) {
                 logger.info("Plano atualizado com sucesso: ID {}", plano.getIdPlano());
@@ -110,13 +141,16 @@ public class PlanoDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Plano.class, id);
+
         String sql = "DELETE FROM Plano WHERE id_plano = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int linhasAfetadas = stmt.executeUpdate();
+            Catalogo.cache.invalidar(id);
             
             if (linhasAfetadas > 0) {
                 logger.info("Plano excluído com sucesso: ID {}", id);
@@ -132,7 +166,7 @@ public class PlanoDAO {
     public boolean verificarNomePlanoExistente(String nomePlano) {
         String sql = "SELECT COUNT(*) FROM Plano WHERE nome_plano = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, nomePlano);
@@ -150,7 +184,7 @@ public class PlanoDAO {
         return false;
     }
 
-    private Plano extrairPlanoDoResultSet(ResultSet rs) throws SQLException {
+    Plano extrairPlanoDoResultSet(ResultSet rs) throws SQLException {
         Plano plano = new Plano();
         
         plano.setIdPlano(rs.getInt("id_plano"));
@@ -161,4 +195,11 @@ public class PlanoDAO {
         
         return plano;
     }
+
+    private static Plano copiar(Plano original) {
+        Plano plano = new Plano(original.getNomePlano(), original.getDescricao(),
+                original.getDuracao(), original.getValorMensal());
+        plano.setIdPlano(original.getIdPlano());
+        return plano;
+    }
 }
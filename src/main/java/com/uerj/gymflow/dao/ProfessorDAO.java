@@ -1,17 +1,29 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
-import com.uerj.gymflow.model.Funcionario;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Professor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class ProfessorDAO {
     private static final Logger logger = LoggerFactory.getLogger(ProfessorDAO.class);
+    // Professor, Funcionario e Pessoa vêm de uma única consulta, em vez de uma por nível da herança
+    private static final String SQL_LISTAGEM =
+            "SELECT p.id_professor, p.especialidade, p.cref, p.fk_funcionario, " + FuncionarioDAO.COLUNAS_JUNCAO + " " +
+            "FROM Professor p " +
+            "INNER JOIN Funcionario f ON f.id_funcionario = p.fk_funcionario " +
+            FuncionarioDAO.JUNCAO_PESSOA;
+    static final String SQL_BUSCAR_POR_CREF = SQL_LISTAGEM + "WHERE p.cref = ?";
     private final DatabaseConnection dbConnection;
     private final FuncionarioDAO funcionarioDAO;
 
@@ -23,7 +35,7 @@ public class ProfessorDAO {
     public void inserir(Professor professor) {
         String sqlProfessor = "INSERT INTO Professor (especialidade, cref, fk_funcionario) VALUES (?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -48,7 +60,7 @@ public class ProfessorDAO {
                 
                 conn.commit();
                 logger.info("Professor inserido com sucesso: ID {}", professor.getIdProfessor());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao inserir professor", e);
                 throw new RuntimeException("Erro ao inserir professor", e);
@@ -60,24 +72,20 @@ public class ProfessorDAO {
     }
 
     public Professor buscarPorId(Integer id) {
-        String sql = "SELECT p.id_professor, p.especialidade, p.cref, p.fk_funcionario " +
-                     "FROM Professor p WHERE p.id_professor = ?";
+        return MapaIdentidade.obter(Professor.class, id, this::carregarPorId);
+    }
+
+    private Professor carregarPorId(Integer id) {
+        String sql = SQL_LISTAGEM + "WHERE p.id_professor = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Integer idFuncionario = rs.getInt("fk_funcionario");
-                    
-                    Funcionario funcionario = funcionarioDAO.buscarPorId(idFuncionario);
-                    if (funcionario == null) {
-                        return null;
-                    }
-                    
-                    return criarProfessorDoResultSet(rs, funcionario);
+                    return extrairProfessorDoResultSet(rs);
                 }
             }
         } catch (SQLException e) {
@@ -88,34 +96,101 @@ public class ProfessorDAO {
         return null;
     }
 
+    /**
+     * Busca vários professores com uma consulta por lote de IDs
+     * @param ids IDs dos professores
+     * @return Os professores encontrados, por ID
+     */
+    public Map<Integer, Professor> buscarPorIds(Collection<Integer> ids) {
+        return MapaIdentidade.obterVarios(Professor.class, ids, this::carregarPorIds);
+    }
+
+    private Map<Integer, Professor> carregarPorIds(Set<Integer> ids) {
+        Map<Integer, Professor> professores = new HashMap<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA)) {
+            for (List<Integer> lote : CarregamentoEmLote.dividir(ids)) {
+                String sql = SQL_LISTAGEM + "WHERE " + CarregamentoEmLote.condicaoIn("p.id_professor", lote.size());
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    CarregamentoEmLote.definirIds(stmt, lote);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Professor professor = extrairProfessorDoResultSet(rs);
+                            professores.put(professor.getIdProfessor(), professor);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao buscar professores por IDs", e);
+            throw new RuntimeException("Erro ao buscar professores", e);
+        }
+
+        return professores;
+    }
+
     public List<Professor> listarTodos() {
         List<Professor> professores = new ArrayList<>();
-        String sql = "SELECT p.id_professor, p.especialidade, p.cref, p.fk_funcionario FROM Professor p";
+        percorrer(professores::add);
+        return professores;
+    }
+
+    /**
+     * Lista uma página de professores em ordem de ID, a partir do último ID da página anterior
+     * @param aposId ID do último registro da página anterior, ou null para a primeira página
+     * @param limite Quantidade máxima de registros da página
+     * @return A página, vazia quando não houver mais registros
+     */
+    public List<Professor> listarPagina(Integer aposId, int limite) {
+        List<Professor> professores = new ArrayList<>();
+        String sql = SQL_LISTAGEM + "WHERE p.id_professor > ? ORDER BY p.id_professor LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, aposId != null ? aposId : 0);
+            stmt.setInt(2, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    professores.add(extrairProfessorDoResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao listar página de professores", e);
+            throw new RuntimeException("Erro ao listar página de professores", e);
+        }
+        
+        return professores;
+    }
+
+    /**
+     * Percorre todos os professores em ordem de ID, com os dados de funcionário e pessoa
+     * vindos da mesma consulta, entregando um por vez ao consumidor sem guardar a lista
+     * @param consumidor Recebe cada professor
+     */
+    public void percorrer(Consumer<Professor> consumidor) {
+        String sql = SQL_LISTAGEM + "ORDER BY p.id_professor";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Integer idFuncionario = rs.getInt("fk_funcionario");
-                Funcionario funcionario = funcionarioDAO.buscarPorId(idFuncionario);
-                
-                if (funcionario != null) {
-                    professores.add(criarProfessorDoResultSet(rs, funcionario));
-                }
+                consumidor.accept(extrairProfessorDoResultSet(rs));
             }
         } catch (SQLException e) {
             logger.error("Erro ao listar professores", e);
             throw new RuntimeException("Erro ao listar professores", e);
         }
-        
-        return professores;
     }
 
     public void atualizar(Professor professor) {
+        MapaIdentidade.remover(Professor.class, professor.getIdProfessor());
+
         String sqlProfessor = "UPDATE Professor SET especialidade = ?, cref = ? WHERE id_professor = ?";
 
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -130,7 +205,7 @@ public class ProfessorDAO {
                 
                 conn.commit();
                 logger.info("Professor atualizado com sucesso: ID {}", professor.getIdProfessor());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao atualizar professor", e);
                 throw new RuntimeException("Erro ao atualizar professor", e);
@@ -142,6 +217,8 @@ public class ProfessorDAO {
     }
 
     public void excluir(Integer id) {
+        MapaIdentidade.remover(Professor.class, id);
+
         Professor professor = buscarPorId(id);
         if (professor == null) {
             logger.warn("Nenhum professor encontrado para exclusão com ID {}", id);
@@ -150,7 +227,7 @@ public class ProfessorDAO {
 
         String sql = "DELETE FROM Professor WHERE id_professor = ?";
         
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -167,7 +244,7 @@ public class ProfessorDAO {
                 
                 conn.commit();
                 logger.info("Professor excluído com sucesso: ID {}", id);
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao excluir professor", e);
                 throw new RuntimeException("Erro ao excluir professor", e);
@@ -179,22 +256,14 @@ public class ProfessorDAO {
     }
 
     public Professor buscarPorCref(String cref) {
-        String sql = "SELECT p.id_professor, p.especialidade, p.cref, p.fk_funcionario " +
-                     "FROM Professor p WHERE p.cref = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_CREF)) {
             
             stmt.setString(1, cref);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Integer idFuncionario = rs.getInt("fk_funcionario");
-                    Funcionario funcionario = funcionarioDAO.buscarPorId(idFuncionario);
-                    
-                    if (funcionario != null) {
-                        return criarProfessorDoResultSet(rs, funcionario);
-                    }
+                    return extrairProfessorDoResultSet(rs);
                 }
             }
         } catch (SQLException e) {
@@ -205,20 +274,12 @@ public class ProfessorDAO {
         return null;
     }
 
-    private Professor criarProfessorDoResultSet(ResultSet rs, Funcionario funcionario) throws SQLException {
+    /**
+     * Monta o professor da linha atual de uma consulta com Professor, Funcionario e Pessoa
+     */
+    private Professor extrairProfessorDoResultSet(ResultSet rs) throws SQLException {
         Professor professor = new Professor();
-        
-        professor.setIdPessoa(funcionario.getIdPessoa());
-        professor.setNome(funcionario.getNome());
-        professor.setDataNascimento(funcionario.getDataNascimento());
-        professor.setCpf(funcionario.getCpf());
-        professor.setTelefone(funcionario.getTelefone());
-        professor.setEmail(funcionario.getEmail());
-        
-        professor.setIdFuncionario(funcionario.getIdFuncionario());
-        professor.setCargo(funcionario.getCargo());
-        professor.setDataAdmissao(funcionario.getDataAdmissao());
-        professor.setSalario(funcionario.getSalario());
+        FuncionarioDAO.preencherFuncionario(rs, professor);
         
         professor.setIdProfessor(rs.getInt("id_professor"));
         professor.setEspecialidade(rs.getString("especialidade"));
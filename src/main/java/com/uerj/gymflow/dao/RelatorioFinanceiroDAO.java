@@ -0,0 +1,389 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.Migracoes;
+import com.uerj.gymflow.database.TipoConexao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatórios financeiros agregados no próprio SQLite.
+ *
+ * Cada relatório é uma única consulta com GROUP BY (ou agregação condicional) sobre a tabela
+ * Mensalidade, que devolve uma linha pequena por grupo, sem montar Mensalidade, Aluno ou Plano.
+ * Os filtros por período usam os índices de data de pagamento e de vencimento.
+ *
+ * As datas são gravadas pelo driver em milissegundos desde 1970-01-01, à meia-noite do fuso
+ * da aplicação; o mês de cada data é obtido com strftime no fuso local, o mesmo de Date.valueOf.
+ * Uma mensalidade está em aberto enquanto o status não for 'Pago', como no IndiceInadimplencia.
+ *
+ * Os relatórios por mês e por ano leem a tabela Resumo_mensalidade, com uma linha por mês, plano
+ * e status, mantida pelos gatilhos da migração 3 na mesma transação de cada escrita em
+ * Mensalidade. Se o resumo divergir (por exemplo, após uma alteração com os gatilhos removidos),
+ * {@link #reconstruirResumo()} o recalcula a partir das mensalidades.
+ */
+public class RelatorioFinanceiroDAO {
+    private static final Logger logger = LoggerFactory.getLogger(RelatorioFinanceiroDAO.class);
+    private static final double MILISSEGUNDOS_POR_DIA = 86_400_000.0;
+    static final String SQL_RECEITA_POR_PLANO_E_MES =
+            "SELECT strftime('%Y-%m', m.data_pagamento / 1000, 'unixepoch', 'localtime') AS mes, " +
+            "       COALESCE(m.fk_plano, 0) AS id_plano, p.nome_plano, " +
+            "       COUNT(*) AS pagamentos, TOTAL(m.valor_pago) AS total " +
+            "FROM Mensalidade m LEFT JOIN Plano p ON p.id_plano = m.fk_plano " +
+            "WHERE m.data_pagamento BETWEEN ? AND ? " +
+            "GROUP BY mes, m.fk_plano " +
+            "ORDER BY mes, id_plano";
+    // As datas são meias-noites locais; ROUND absorve a hora de diferença nas mudanças de horário de verão
+    static final String SQL_INDICADORES_INADIMPLENCIA =
+            "SELECT COUNT(*) AS vencidas, " +
+            "       TOTAL(status_pagamento IS NOT 'Pago') AS em_atraso, " +
+            "       TOTAL(CASE WHEN status_pagamento IS NOT 'Pago' THEN valor_pago END) AS valor_em_atraso, " +
+            "       AVG(CASE WHEN status_pagamento = 'Pago' AND data_pagamento IS NOT NULL " +
+            "                THEN MAX(0, ROUND((data_pagamento - data_vencimento) / ?)) END) AS atraso_pagas, " +
+            "       AVG(CASE WHEN status_pagamento IS NOT 'Pago' " +
+            "                THEN ROUND((? - data_vencimento) / ?) END) AS atraso_em_aberto " +
+            "FROM Mensalidade " +
+            "WHERE data_vencimento BETWEEN ? AND ? AND data_vencimento < ?";
+    static final String SQL_PREVISAO_RECEBIVEIS =
+            "SELECT strftime('%Y-%m', data_vencimento / 1000, 'unixepoch', 'localtime') AS mes, " +
+            "       COUNT(*) AS mensalidades, TOTAL(valor_pago) AS valor " +
+            "FROM Mensalidade " +
+            "WHERE data_vencimento BETWEEN ? AND ? AND status_pagamento IS NOT 'Pago' " +
+            "GROUP BY mes " +
+            "ORDER BY mes";
+    static final String SQL_RESUMO_MENSAL =
+            "SELECT mes, fk_plano, status_pagamento, quantidade, valor " +
+            "FROM Resumo_mensalidade WHERE mes BETWEEN ? AND ? " +
+            "ORDER BY mes, fk_plano, status_pagamento";
+    static final String SQL_RECEITA_MENSAL_RESUMO =
+            "SELECT r.mes, r.fk_plano, p.nome_plano, r.quantidade, r.valor " +
+            "FROM Resumo_mensalidade r LEFT JOIN Plano p ON p.id_plano = r.fk_plano " +
+            "WHERE r.mes BETWEEN ? AND ? AND r.status_pagamento = 'Pago' " +
+            "ORDER BY r.mes, r.fk_plano";
+    static final String SQL_RESUMO_ANUAL =
+            "SELECT CAST(substr(mes, 1, 4) AS INTEGER) AS ano, " +
+            "       TOTAL(CASE WHEN status_pagamento = 'Pago' THEN quantidade END) AS pagas, " +
+            "       TOTAL(CASE WHEN status_pagamento = 'Pago' THEN valor END) AS recebido, " +
+            "       TOTAL(CASE WHEN status_pagamento <> 'Pago' THEN quantidade END) AS em_aberto, " +
+            "       TOTAL(CASE WHEN status_pagamento <> 'Pago' THEN valor END) AS valor_em_aberto " +
+            "FROM Resumo_mensalidade WHERE mes BETWEEN ? AND ? " +
+            "GROUP BY ano ORDER BY ano";
+
+    /**
+     * Receita recebida de um plano em um mês
+     * @param idPlano ID do plano, ou 0 para mensalidades sem plano
+     * @param nomePlano Nome do plano, ou null se não houver
+     * @param mes Mês do pagamento
+     * @param pagamentos Quantidade de mensalidades pagas
+     * @param total Soma dos valores pagos
+     */
+    public record ReceitaPlanoMes(int idPlano, String nomePlano, YearMonth mes, int pagamentos, double total) {
+    }
+
+    /**
+     * Indicadores de inadimplência das mensalidades vencidas em um período
+     * @param vencidas Mensalidades com vencimento no período e anterior à data de referência
+     * @param emAtraso Dessas, as que continuam em aberto
+     * @param valorEmAtraso Soma dos valores das mensalidades em atraso
+     * @param diasAtrasoMedioPagas Média de dias entre vencimento e pagamento das pagas (0 se pagas em dia)
+     * @param diasAtrasoMedioEmAberto Média de dias desde o vencimento das que continuam em aberto
+     */
+    public record IndicadoresInadimplencia(int vencidas, int emAtraso, double valorEmAtraso,
+                                           double diasAtrasoMedioPagas, double diasAtrasoMedioEmAberto) {
+
+        /**
+         * @return Fração das mensalidades vencidas que continuam em aberto, entre 0 e 1
+         */
+        public double taxaInadimplencia() {
+            return vencidas == 0 ? 0 : (double) emAtraso / vencidas;
+        }
+    }
+
+    /**
+     * Valor a receber das mensalidades em aberto que vencem em um mês
+     * @param mes Mês do vencimento
+     * @param mensalidades Quantidade de mensalidades em aberto
+     * @param valor Soma dos valores
+     */
+    public record RecebivelMes(YearMonth mes, int mensalidades, double valor) {
+    }
+
+    /**
+     * Linha do resumo mensal
+     * @param mes Mês do pagamento, para as pagas, ou do vencimento, para as demais
+     * @param idPlano ID do plano, ou 0 para mensalidades sem plano
+     * @param status Status de pagamento, ou vazio se não informado
+     * @param quantidade Quantidade de mensalidades
+     * @param valor Soma dos valores
+     */
+    public record ResumoMes(YearMonth mes, int idPlano, String status, int quantidade, double valor) {
+    }
+
+    /**
+     * Totais de um ano a partir do resumo mensal
+     * @param ano Ano
+     * @param pagas Mensalidades pagas no ano
+     * @param recebido Soma dos valores pagos no ano
+     * @param emAberto Mensalidades com vencimento no ano ainda não pagas
+     * @param valorEmAberto Soma dos valores não pagos
+     */
+    public record ResumoAno(int ano, int pagas, double recebido, int emAberto, double valorEmAberto) {
+    }
+
+    private final DatabaseConnection dbConnection;
+
+    public RelatorioFinanceiroDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Soma a receita por plano e por mês de pagamento. Só as mensalidades pagas têm data de
+     * pagamento, então a consulta percorre apenas o índice parcial das pagas no período.
+     * @param dataInicio Primeiro dia de pagamento considerado
+     * @param dataFim Último dia de pagamento considerado
+     * @return Uma linha por plano e mês, em ordem de mês e de plano
+     */
+    public List<ReceitaPlanoMes> receitaPorPlanoEMes(LocalDate dataInicio, LocalDate dataFim) {
+        List<ReceitaPlanoMes> linhas = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_RECEITA_POR_PLANO_E_MES)) {
+
+            stmt.setDate(1, Date.valueOf(dataInicio));
+            stmt.setDate(2, Date.valueOf(dataFim));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new ReceitaPlanoMes(
+                            rs.getInt("id_plano"),
+                            rs.getString("nome_plano"),
+                            YearMonth.parse(rs.getString("mes")),
+                            rs.getInt("pagamentos"),
+                            rs.getDouble("total")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular receita por plano e mês", e);
+            throw new RuntimeException("Erro ao calcular receita por plano e mês", e);
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Calcula os indicadores de inadimplência das mensalidades com vencimento no período
+     * e anterior à data de referência
+     * @param dataInicio Primeiro dia de vencimento considerado
+     * @param dataFim Último dia de vencimento considerado
+     * @param hoje Data de referência: só contam as mensalidades vencidas antes dela
+     * @return Os indicadores do período
+     */
+    public IndicadoresInadimplencia indicadoresInadimplencia(LocalDate dataInicio, LocalDate dataFim, LocalDate hoje) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_INDICADORES_INADIMPLENCIA)) {
+
+            Date referencia = Date.valueOf(hoje);
+            stmt.setDouble(1, MILISSEGUNDOS_POR_DIA);
+            stmt.setDate(2, referencia);
+            stmt.setDouble(3, MILISSEGUNDOS_POR_DIA);
+            stmt.setDate(4, Date.valueOf(dataInicio));
+            stmt.setDate(5, Date.valueOf(dataFim));
+            stmt.setDate(6, referencia);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new IndicadoresInadimplencia(
+                        rs.getInt("vencidas"),
+                        rs.getInt("em_atraso"),
+                        rs.getDouble("valor_em_atraso"),
+                        rs.getDouble("atraso_pagas"),
+                        rs.getDouble("atraso_em_aberto"));
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular indicadores de inadimplência", e);
+            throw new RuntimeException("Erro ao calcular indicadores de inadimplência", e);
+        }
+    }
+
+    /**
+     * Soma, por mês de vencimento, o valor das mensalidades em aberto que ainda vão vencer
+     * @param hoje Data de referência: só contam os vencimentos a partir dela
+     * @param dataFim Último dia de vencimento considerado
+     * @return Uma linha por mês, em ordem de mês
+     */
+    public List<RecebivelMes> previsaoRecebiveis(LocalDate hoje, LocalDate dataFim) {
+        List<RecebivelMes> linhas = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_PREVISAO_RECEBIVEIS)) {
+
+            stmt.setDate(1, Date.valueOf(hoje));
+            stmt.setDate(2, Date.valueOf(dataFim));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new RecebivelMes(
+                            YearMonth.parse(rs.getString("mes")),
+                            rs.getInt("mensalidades"),
+                            rs.getDouble("valor")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular previsão de recebíveis", e);
+            throw new RuntimeException("Erro ao calcular previsão de recebíveis", e);
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Lista o resumo mensal no intervalo de meses informado
+     * @param inicio Primeiro mês
+     * @param fim Último mês
+     * @return Uma linha por mês, plano e status, em ordem de mês, plano e status
+     */
+    public List<ResumoMes> resumoMensal(YearMonth inicio, YearMonth fim) {
+        List<ResumoMes> linhas = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_RESUMO_MENSAL)) {
+
+            stmt.setString(1, inicio.toString());
+            stmt.setString(2, fim.toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new ResumoMes(
+                            YearMonth.parse(rs.getString("mes")),
+                            rs.getInt("fk_plano"),
+                            rs.getString("status_pagamento"),
+                            rs.getInt("quantidade"),
+                            rs.getDouble("valor")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao listar resumo mensal", e);
+            throw new RuntimeException("Erro ao listar resumo mensal", e);
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Soma a receita por plano e por mês de pagamento a partir do resumo mensal, sem ler as
+     * mensalidades. Para um período em dias, use {@link #receitaPorPlanoEMes(LocalDate, LocalDate)}.
+     * @param inicio Primeiro mês
+     * @param fim Último mês
+     * @return Uma linha por plano e mês, em ordem de mês e de plano
+     */
+    public List<ReceitaPlanoMes> receitaPorPlanoEMes(YearMonth inicio, YearMonth fim) {
+        List<ReceitaPlanoMes> linhas = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_RECEITA_MENSAL_RESUMO)) {
+
+            stmt.setString(1, inicio.toString());
+            stmt.setString(2, fim.toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new ReceitaPlanoMes(
+                            rs.getInt("fk_plano"),
+                            rs.getString("nome_plano"),
+                            YearMonth.parse(rs.getString("mes")),
+                            rs.getInt("quantidade"),
+                            rs.getDouble("valor")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular receita mensal pelo resumo", e);
+            throw new RuntimeException("Erro ao calcular receita mensal pelo resumo", e);
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Soma o resumo mensal por ano
+     * @param anoInicio Primeiro ano
+     * @param anoFim Último ano
+     * @return Uma linha por ano com movimento, em ordem de ano
+     */
+    public List<ResumoAno> resumoAnual(int anoInicio, int anoFim) {
+        List<ResumoAno> linhas = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement(SQL_RESUMO_ANUAL)) {
+
+            stmt.setString(1, YearMonth.of(anoInicio, 1).toString());
+            stmt.setString(2, YearMonth.of(anoFim, 12).toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new ResumoAno(
+                            rs.getInt("ano"),
+                            rs.getInt("pagas"),
+                            rs.getDouble("recebido"),
+                            rs.getInt("em_aberto"),
+                            rs.getDouble("valor_em_aberto")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro ao calcular resumo anual", e);
+            throw new RuntimeException("Erro ao calcular resumo anual", e);
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Recalcula todo o resumo mensal a partir das mensalidades, em uma única transação
+     * @return Quantidade de linhas do resumo
+     */
+    public int reconstruirResumo() {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM Resumo_mensalidade");
+                int linhas = stmt.executeUpdate(Migracoes.SQL_CARREGAR_RESUMO);
+                conn.commit();
+                logger.info("Resumo mensal das mensalidades reconstruído: {} linhas", linhas);
+                return linhas;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                logger.error("Erro ao reconstruir resumo mensal", e);
+                throw new RuntimeException("Erro ao reconstruir resumo mensal", e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Erro de conexão ao reconstruir resumo mensal", e);
+            throw new RuntimeException("Erro de conexão ao reconstruir resumo mensal", e);
+        }
+    }
+
+    /**
+     * Reconstrói o resumo mensal no banco configurado (gymflow.db.url)
+     */
+    public static void main(String[] args) {
+        try {
+            int linhas = new RelatorioFinanceiroDAO().reconstruirResumo();
+            System.out.println("Resumo mensal reconstruído: " + linhas + " linhas");
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao reconstruir o resumo: " + e.getMessage());
+        } finally {
+            DatabaseConnection.getInstance().closeDataSource();
+        }
+    }
+}
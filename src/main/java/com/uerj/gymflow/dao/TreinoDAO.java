@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Exercicio;
 import com.uerj.gymflow.model.Professor;
 import com.uerj.gymflow.model.Treino;
@@ -11,9 +12,21 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class TreinoDAO {
     private static final Logger logger = LoggerFactory.getLogger(TreinoDAO.class);
+    private static final String SQL_LISTAGEM =
+            "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor FROM Treino ";
+    static final String SQL_BUSCAR_POR_PROFESSOR =
+            "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor " +
+            "FROM Treino WHERE fk_professor = ?";
+    static final String SQL_BUSCAR_POR_ALUNO =
+            "SELECT t.id_treino, t.nome_treino, t.data_criacao, t.observacoes, t.fk_professor " +
+            "FROM Treino t " +
+            "JOIN Aluno_treino at ON t.id_treino = at.id_treino " +
+            "WHERE at.id_aluno = ?";
     private final DatabaseConnection dbConnection;
     private final ProfessorDAO professorDAO;
     private final ExercicioDAO exercicioDAO;
@@ -27,7 +40,7 @@ public class TreinoDAO {
     public void inserir(Treino treino) {
         String sql = "INSERT INTO Treino (nome_treino, data_criacao, observacoes, fk_professor) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setString(1, treino.getNomeTreino());
@@ -64,7 +77,7 @@ public class TreinoDAO {
     public void associarExercicios(Treino treino) {
         String sql = "INSERT INTO Treino_exercicio (id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             conn.setAutoCommit(false);
@@ -86,7 +99,7 @@ public class TreinoDAO {
                 stmt.executeBatch();
                 conn.commit();
                 logger.info("Exercícios associados ao treino ID {} com sucesso", treino.getIdTreino());
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao associar exercícios ao treino", e);
                 throw new RuntimeException("Erro ao associar exercícios ao treino", e);
@@ -102,7 +115,7 @@ public class TreinoDAO {
     public void associarExercicio(TreinoExercicio treinoExercicio) {
         String sql = "INSERT INTO Treino_exercicio (id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, treinoExercicio.getIdTreino());
@@ -150,7 +163,7 @@ public class TreinoDAO {
     private Integer buscarProximaOrdemExercicio(Integer idTreino) {
         String sql = "SELECT MAX(ordem) FROM Treino_exercicio WHERE id_treino = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -173,7 +186,7 @@ public class TreinoDAO {
         String sql = "UPDATE Treino_exercicio SET repeticoes = ?, series = ?, carga = ?, ordem = ?, observacoes = ? " +
                      "WHERE id_treino = ? AND id_exercicio = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             if (treinoExercicio.getRepeticoes() != null) {
@@ -220,7 +233,7 @@ public class TreinoDAO {
     public void removerExercicio(Integer idTreino, Integer idExercicio) {
         String sql = "DELETE FROM Treino_exercicio WHERE id_treino = ? AND id_exercicio = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -246,7 +259,7 @@ public class TreinoDAO {
         String sqlSelect = "SELECT id_exercicio, ordem FROM Treino_exercicio WHERE id_treino = ? ORDER BY ordem";
         String sqlUpdate = "UPDATE Treino_exercicio SET ordem = ? WHERE id_treino = ? AND id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmtSelect = conn.prepareStatement(sqlSelect);
              PreparedStatement stmtUpdate = conn.prepareStatement(sqlUpdate)) {
             
@@ -277,7 +290,7 @@ public class TreinoDAO {
                 stmtUpdate.executeBatch();
                 conn.commit();
                 logger.info("Exercícios do treino ID {} reordenados com sucesso", idTreino);
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao reordenar exercícios do treino", e);
                 throw new RuntimeException("Erro ao reordenar exercícios do treino", e);
@@ -291,22 +304,23 @@ public class TreinoDAO {
     }
 
     public Treino buscarPorId(Integer id) {
+        return MapaIdentidade.obter(Treino.class, id, this::carregarPorId);
+    }
+
+    private Treino carregarPorId(Integer id) {
         String sql = "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor " +
                      "FROM Treino WHERE id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        Treino treino = null;
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Treino treino = extrairTreinoDoResultSet(rs);
-                    
-                    // Carregar os exercícios do treino
-                    treino.setExercicios(exercicioDAO.buscarPorTreino(treino.getIdTreino()));
-                    
-                    return treino;
+                    treino = extrairTreinoDoResultSet(rs);
                 }
             }
         } catch (SQLException e) {
@@ -314,26 +328,26 @@ public class TreinoDAO {
             throw new RuntimeException("Erro ao buscar treino", e);
         }
         
-        return null;
+        if (treino != null) {
+            carregarAssociacoes(List.of(treino));
+        }
+        return treino;
     }
 
     public Treino buscarPorNome(String nome) {
         String sql = "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor " +
                      "FROM Treino WHERE nome_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        Treino treino = null;
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, nome);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Treino treino = extrairTreinoDoResultSet(rs);
-                    
-                    // Carregar os exercícios do treino
-                    treino.setExercicios(exercicioDAO.buscarPorTreino(treino.getIdTreino()));
-                    
-                    return treino;
+                    treino = extrairTreinoDoResultSet(rs);
                 }
             }
         } catch (SQLException e) {
@@ -341,58 +355,111 @@ public class TreinoDAO {
             throw new RuntimeException("Erro ao buscar treino por nome", e);
         }
         
-        return null;
+        if (treino != null) {
+            carregarAssociacoes(List.of(treino));
+        }
+        return treino;
     }
 
     public List<Treino> listarTodos() {
         List<Treino> treinos = new ArrayList<>();
-        String sql = "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor FROM Treino";
+        percorrer(treinos::add);
+        return treinos;
+    }
 
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Lista uma página de treinos em ordem de ID, a partir do último ID da página anterior
+     * @param aposId ID do último registro da página anterior, ou null para a primeira página
+     * @param limite Quantidade máxima de registros da página
+     * @return A página, vazia quando não houver mais registros
+     */
+    public List<Treino> listarPagina(Integer aposId, int limite) {
+        return MapaIdentidade.emEscopo(() -> {
+            List<Treino> treinos = new ArrayList<>();
+            String sql = SQL_LISTAGEM + "WHERE id_treino > ? ORDER BY id_treino LIMIT ?";
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                stmt.setInt(1, aposId != null ? aposId : 0);
+                stmt.setInt(2, limite);
             
-            while (rs.next()) {
-                Treino treino = extrairTreinoDoResultSet(rs);
-                treinos.add(treino);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        treinos.add(extrairTreinoDoResultSet(rs));
+                    }
+                }
+                carregarAssociacoes(treinos);
+            } catch (SQLException e) {
+                logger.error("Erro ao listar página de treinos", e);
+                throw new RuntimeException("Erro ao listar página de treinos", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar treinos", e);
-            throw new RuntimeException("Erro ao listar treinos", e);
-        }
         
-        return treinos;
+            return treinos;
+        });
+    }
+
+    /**
+     * Percorre todos os treinos em ordem de ID, entregando um por vez ao consumidor
+     * sem manter a lista inteira em memória. Os treinos são lidos em blocos, e professor
+     * e exercícios de cada bloco são carregados em lote antes da entrega.
+     * @param consumidor Recebe cada treino
+     */
+    public void percorrer(Consumer<Treino> consumidor) {
+        MapaIdentidade.emEscopo(() -> {
+            String sql = SQL_LISTAGEM + "ORDER BY id_treino";
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+            
+                List<Treino> bloco = new ArrayList<>(CarregamentoEmLote.TAMANHO_LOTE);
+                while (rs.next()) {
+                    bloco.add(extrairTreinoDoResultSet(rs));
+                    if (bloco.size() == CarregamentoEmLote.TAMANHO_LOTE) {
+                        entregarBloco(bloco, consumidor);
+                    }
+                }
+                entregarBloco(bloco, consumidor);
+            } catch (SQLException e) {
+                logger.error("Erro ao listar treinos", e);
+                throw new RuntimeException("Erro ao listar treinos", e);
+            }
+        });
     }
 
     public List<Treino> buscarPorProfessor(Integer idProfessor) {
-        List<Treino> treinos = new ArrayList<>();
-        String sql = "SELECT id_treino, nome_treino, data_criacao, observacoes, fk_professor " +
-                     "FROM Treino WHERE fk_professor = ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Treino> treinos = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_PROFESSOR)) {
             
-            stmt.setInt(1, idProfessor);
+                stmt.setInt(1, idProfessor);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Treino treino = extrairTreinoDoResultSet(rs);
-                    treinos.add(treino);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Treino treino = extrairTreinoDoResultSet(rs);
+                        treinos.add(treino);
+                    }
                 }
+                carregarAssociacoes(treinos);
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar treinos por professor", e);
+                throw new RuntimeException("Erro ao buscar treinos por professor", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar treinos por professor", e);
-            throw new RuntimeException("Erro ao buscar treinos por professor", e);
-        }
         
-        return treinos;
+            return treinos;
+        });
     }
 
     public void atualizar(Treino treino) {
+        MapaIdentidade.remover(Treino.class, treino.getIdTreino());
+
         String sql = "UPDATE Treino SET nome_treino = ?, data_criacao = ?, observacoes = ?, fk_professor = ? " +
                      "WHERE id_treino = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, treino.getNomeTreino());
@@ -421,7 +488,9 @@ public class TreinoDAO {
     }
 
     public void excluir(Integer id) {
-        try (Connection conn = dbConnection.getConnection()) {
+        MapaIdentidade.remover(Treino.class, id);
+
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -453,7 +522,7 @@ public class TreinoDAO {
                 }
                 
                 conn.commit();
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao excluir treino", e);
                 throw new RuntimeException("Erro ao excluir treino", e);
@@ -475,7 +544,7 @@ public class TreinoDAO {
                      "WHERE te.id_treino = ? " +
                      "ORDER BY te.ordem";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -514,29 +583,28 @@ public class TreinoDAO {
     }
 
     public List<Treino> buscarPorAluno(Integer idAluno) {
-        List<Treino> treinos = new ArrayList<>();
-        String sql = "SELECT t.id_treino, t.nome_treino, t.data_criacao, t.observacoes, t.fk_professor " +
-                     "FROM Treino t " +
-                     "JOIN Aluno_treino at ON t.id_treino = at.id_treino " +
-                     "WHERE at.id_aluno = ?";
+        return MapaIdentidade.emEscopo(() -> {
+            List<Treino> treinos = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_ALUNO)) {
             
-            stmt.setInt(1, idAluno);
+                stmt.setInt(1, idAluno);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Treino treino = extrairTreinoDoResultSet(rs);
-                    treinos.add(treino);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Treino treino = extrairTreinoDoResultSet(rs);
+                        treinos.add(treino);
+                    }
                 }
+                carregarAssociacoes(treinos);
+            } catch (SQLException e) {
+                logger.error("Erro ao buscar treinos por aluno", e);
+                throw new RuntimeException("Erro ao buscar treinos por aluno", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao buscar treinos por aluno", e);
-            throw new RuntimeException("Erro ao buscar treinos por aluno", e);
-        }
         
-        return treinos;
+            return treinos;
+        });
     }
 
     public TreinoExercicio buscarDetalheExercicio(Integer idTreino, Integer idExercicio) {
@@ -546,7 +614,7 @@ public class TreinoDAO {
                      "JOIN Exercicio e ON te.id_exercicio = e.id_exercicio " +
                      "WHERE te.id_treino = ? AND te.id_exercicio = ?";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -601,12 +669,41 @@ public class TreinoDAO {
         Integer idProfessor = rs.getInt("fk_professor");
         if (!rs.wasNull()) {
             treino.setIdProfessor(idProfessor);
-            Professor professor = professorDAO.buscarPorId(idProfessor);
-            if (professor != null) {
-                treino.setProfessor(professor);
-            }
         }
         
         return treino;
     }
+
+    private void entregarBloco(List<Treino> bloco, Consumer<Treino> consumidor) {
+        carregarAssociacoes(bloco);
+        bloco.forEach(consumidor);
+        bloco.clear();
+    }
+
+    /**
+     * Preenche professor e exercícios dos treinos com uma consulta em lote por associação
+     * (professores, funcionários, pessoas e exercícios), em vez de consultas por treino
+     */
+    private void carregarAssociacoes(List<Treino> treinos) {
+        if (treinos.isEmpty()) {
+            return;
+        }
+
+        List<Integer> idsTreino = new ArrayList<>(treinos.size());
+        List<Integer> idsProfessor = new ArrayList<>(treinos.size());
+        for (Treino treino : treinos) {
+            idsTreino.add(treino.getIdTreino());
+            idsProfessor.add(treino.getIdProfessor());
+        }
+
+        Map<Integer, Professor> professores = professorDAO.buscarPorIds(idsProfessor);
+        Map<Integer, List<Exercicio>> exercicios = exercicioDAO.buscarPorTreinos(idsTreino);
+
+        for (Treino treino : treinos) {
+            if (treino.getIdProfessor() != null) {
+                treino.setProfessor(professores.get(treino.getIdProfessor()));
+            }
+            treino.setExercicios(exercicios.getOrDefault(treino.getIdTreino(), new ArrayList<>()));
+        }
+    }
 }
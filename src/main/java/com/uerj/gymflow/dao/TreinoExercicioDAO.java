@@ -1,6 +1,7 @@
 package com.uerj.gymflow.dao;
 
 import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
 import com.uerj.gymflow.model.Exercicio;
 import com.uerj.gymflow.model.TreinoExercicio;
 import org.slf4j.Logger;
@@ -12,6 +13,9 @@ import java.util.List;
 
 public class TreinoExercicioDAO {
     private static final Logger logger = LoggerFactory.getLogger(TreinoExercicioDAO.class);
+    static final String SQL_LISTAR_POR_EXERCICIO =
+            "SELECT id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes " +
+            "FROM Treino_exercicio WHERE id_exercicio = ? ORDER BY id_treino, ordem";
     private final DatabaseConnection dbConnection;
     private final ExercicioDAO exercicioDAO;
 
@@ -24,7 +28,7 @@ public class TreinoExercicioDAO {
         String sql = "INSERT INTO Treino_exercicio (id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, treinoExercicio.getIdTreino());
@@ -72,7 +76,7 @@ public class TreinoExercicioDAO {
     private Integer buscarProximaOrdem(Integer idTreino) {
         String sql = "SELECT MAX(ordem) FROM Treino_exercicio WHERE id_treino = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -95,7 +99,7 @@ public class TreinoExercicioDAO {
         String sql = "SELECT id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes " +
                      "FROM Treino_exercicio WHERE id_treino = ? AND id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -123,72 +127,74 @@ public class TreinoExercicioDAO {
     }
 
     public List<TreinoExercicio> listarPorTreino(Integer idTreino) {
-        List<TreinoExercicio> relacoes = new ArrayList<>();
-        String sql = "SELECT id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes " +
-                     "FROM Treino_exercicio WHERE id_treino = ? ORDER BY ordem";
+        return MapaIdentidade.emEscopo(() -> {
+            List<TreinoExercicio> relacoes = new ArrayList<>();
+            String sql = "SELECT id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes " +
+                         "FROM Treino_exercicio WHERE id_treino = ? ORDER BY ordem";
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, idTreino);
+                stmt.setInt(1, idTreino);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    TreinoExercicio treinoExercicio = extrairTreinoExercicioDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        TreinoExercicio treinoExercicio = extrairTreinoExercicioDoResultSet(rs);
                     
-                    // Carregar o objeto Exercicio
-                    Exercicio exercicio = exercicioDAO.buscarPorId(treinoExercicio.getIdExercicio());
-                    if (exercicio != null) {
-                        treinoExercicio.setExercicio(exercicio);
-                    }
+                        // Carregar o objeto Exercicio
+                        Exercicio exercicio = exercicioDAO.buscarPorId(treinoExercicio.getIdExercicio());
+                        if (exercicio != null) {
+                            treinoExercicio.setExercicio(exercicio);
+                        }
                     
-                    relacoes.add(treinoExercicio);
+                        relacoes.add(treinoExercicio);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar relações treino-exercício por treino", e);
+                throw new RuntimeException("Erro ao listar relações treino-exercício por treino", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar relações treino-exercício por treino", e);
-            throw new RuntimeException("Erro ao listar relações treino-exercício por treino", e);
-        }
         
-        return relacoes;
+            return relacoes;
+        });
     }
 
     public List<TreinoExercicio> listarPorExercicio(Integer idExercicio) {
-        List<TreinoExercicio> relacoes = new ArrayList<>();
-        String sql = "SELECT id_treino, id_exercicio, repeticoes, series, carga, ordem, observacoes " +
-                     "FROM Treino_exercicio WHERE id_exercicio = ? ORDER BY id_treino, ordem";
-        
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return MapaIdentidade.emEscopo(() -> {
+            List<TreinoExercicio> relacoes = new ArrayList<>();
+
+            try (Connection conn = dbConnection.getConnection(TipoConexao.LEITURA);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_LISTAR_POR_EXERCICIO)) {
             
-            stmt.setInt(1, idExercicio);
+                stmt.setInt(1, idExercicio);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    TreinoExercicio treinoExercicio = extrairTreinoExercicioDoResultSet(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        TreinoExercicio treinoExercicio = extrairTreinoExercicioDoResultSet(rs);
                     
-                    // Carregar o objeto Exercicio
-                    Exercicio exercicio = exercicioDAO.buscarPorId(idExercicio);
-                    if (exercicio != null) {
-                        treinoExercicio.setExercicio(exercicio);
-                    }
+                        // Carregar o objeto Exercicio
+                        Exercicio exercicio = exercicioDAO.buscarPorId(idExercicio);
+                        if (exercicio != null) {
+                            treinoExercicio.setExercicio(exercicio);
+                        }
                     
-                    relacoes.add(treinoExercicio);
+                        relacoes.add(treinoExercicio);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Erro ao listar relações treino-exercício por exercício", e);
+                throw new RuntimeException("Erro ao listar relações treino-exercício por exercício", e);
             }
-        } catch (SQLException e) {
-            logger.error("Erro ao listar relações treino-exercício por exercício", e);
-            throw new RuntimeException("Erro ao listar relações treino-exercício por exercício", e);
-        }
         
-        return relacoes;
+            return relacoes;
+        });
     }
 
     public void atualizar(TreinoExercicio treinoExercicio) {
         String sql = "UPDATE Treino_exercicio SET repeticoes = ?, series = ?, carga = ?, ordem = ?, observacoes = ? " +
                      "WHERE id_treino = ? AND id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             if (treinoExercicio.getRepeticoes() != null) {
@@ -235,7 +241,7 @@ public class TreinoExercicioDAO {
     public void excluir(Integer idTreino, Integer idExercicio) {
         String sql = "DELETE FROM Treino_exercicio WHERE id_treino = ? AND id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idTreino);
@@ -261,7 +267,7 @@ public class TreinoExercicioDAO {
         String sqlSelect = "SELECT id_exercicio, ordem FROM Treino_exercicio WHERE id_treino = ? ORDER BY ordem";
         String sqlUpdate = "UPDATE Treino_exercicio SET ordem = ? WHERE id_treino = ? AND id_exercicio = ?";
         
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA);
              PreparedStatement stmtSelect = conn.prepareStatement(sqlSelect);
              PreparedStatement stmtUpdate = conn.prepareStatement(sqlUpdate)) {
             
@@ -292,7 +298,7 @@ public class TreinoExercicioDAO {
                 stmtUpdate.executeBatch();
                 conn.commit();
                 logger.info("Exercícios do treino ID {} reordenados com sucesso", idTreino);
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao reordenar exercícios do treino", e);
                 throw new RuntimeException("Erro ao reordenar exercícios do treino", e);
@@ -306,7 +312,7 @@ public class TreinoExercicioDAO {
     }
 
     public void alterarOrdem(Integer idTreino, Integer idExercicio, Integer novaOrdem) {
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getConnection(TipoConexao.ESCRITA)) {
             conn.setAutoCommit(false);
             
             try {
@@ -357,7 +363,7 @@ public class TreinoExercicioDAO {
                 
                 conn.commit();
                 logger.info("Ordem do exercício alterada com sucesso");
-            } catch (SQLException e) {
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
                 logger.error("Erro ao alterar ordem do exercício", e);
                 throw new RuntimeException("Erro ao alterar ordem do exercício", e);
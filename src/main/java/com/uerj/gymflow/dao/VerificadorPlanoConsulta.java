@@ -0,0 +1,103 @@
+package com.uerj.gymflow.dao;
+
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.TipoConexao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Verifica com EXPLAIN QUERY PLAN que as consultas filtradas dos DAOs usam índice.
+ *
+ * Cada consulta verificada é a própria constante SQL usada pelo método do DAO, então
+ * uma alteração no WHERE já é verificada sem cópias a manter. As listagens completas
+ * (listarTodos) leem a tabela inteira de propósito e não entram aqui; as poucas varreduras
+ * intencionais dentro de uma consulta verificada ficam em VARREDURAS_ESPERADAS. Execute esta
+ * classe contra um banco criado pelo DatabaseCreator.
+ */
+public class VerificadorPlanoConsulta {
+    private static final Logger logger = LoggerFactory.getLogger(VerificadorPlanoConsulta.class);
+
+    // SEARCH é uma busca pelo índice; SCAN percorre a tabela (ou um índice) inteira
+    private static final Pattern VARREDURA_COMPLETA = Pattern.compile("^SCAN .*");
+    // Varreduras intencionais: a geração do mês percorre todos os alunos, e só a subconsulta precisa de índice
+    private static final Map<String, String> VARREDURAS_ESPERADAS = Map.of(
+            "MensalidadeDAO.gerarMensalidadesDoMes", "SCAN a");
+
+    private static final Map<String, String> CONSULTAS = new LinkedHashMap<>();
+
+    static {
+        CONSULTAS.put("AcompanhamentoProgresso.processar", AcompanhamentoProgresso.SQL_HISTORICO);
+        CONSULTAS.put("AlunoDAO.buscarPorCpf", AlunoDAO.SQL_BUSCAR_POR_CPF);
+        CONSULTAS.put("AlunoTreinoDAO.listarTreinosDoAluno", AlunoTreinoDAO.SQL_TREINOS_DO_ALUNO);
+        CONSULTAS.put("AlunoTreinoDAO.listarAlunosDoTreino", AlunoTreinoDAO.SQL_ALUNOS_DO_TREINO);
+        CONSULTAS.put("AvaliacaoDAO.listarPorAluno", AvaliacaoDAO.SQL_LISTAR_POR_ALUNO);
+        CONSULTAS.put("ExercicioDAO.buscarPorTreino", ExercicioDAO.SQL_BUSCAR_POR_TREINO);
+        CONSULTAS.put("MensalidadeDAO.buscarPorAluno", MensalidadeDAO.SQL_BUSCAR_POR_ALUNO);
+        CONSULTAS.put("MensalidadeDAO.buscarPorPlano", MensalidadeDAO.SQL_BUSCAR_POR_PLANO);
+        CONSULTAS.put("MensalidadeDAO.buscarPorStatus", MensalidadeDAO.SQL_BUSCAR_POR_STATUS);
+        CONSULTAS.put("MensalidadeDAO.buscarMensalidadesAtrasadas", MensalidadeDAO.SQL_BUSCAR_ATRASADAS);
+        CONSULTAS.put("MensalidadeDAO.buscarPorPeriodoVencimento", MensalidadeDAO.SQL_BUSCAR_POR_PERIODO_VENCIMENTO);
+        CONSULTAS.put("MensalidadeDAO.buscarPorPeriodoPagamento", MensalidadeDAO.SQL_BUSCAR_POR_PERIODO_PAGAMENTO);
+        CONSULTAS.put("MensalidadeDAO.gerarMensalidadesDoMes", MensalidadeDAO.SQL_ALUNOS_SEM_MENSALIDADE);
+        CONSULTAS.put("PessoaDAO.buscarPorCpf", PessoaDAO.SQL_BUSCAR_POR_CPF);
+        CONSULTAS.put("PessoaDAO.verificarPessoaExistente", PessoaDAO.SQL_VERIFICAR_EXISTENTE);
+        CONSULTAS.put("ProfessorDAO.buscarPorCref", ProfessorDAO.SQL_BUSCAR_POR_CREF);
+        CONSULTAS.put("RelatorioFinanceiroDAO.receitaPorPlanoEMes", RelatorioFinanceiroDAO.SQL_RECEITA_POR_PLANO_E_MES);
+        CONSULTAS.put("RelatorioFinanceiroDAO.indicadoresInadimplencia", RelatorioFinanceiroDAO.SQL_INDICADORES_INADIMPLENCIA);
+        CONSULTAS.put("RelatorioFinanceiroDAO.previsaoRecebiveis", RelatorioFinanceiroDAO.SQL_PREVISAO_RECEBIVEIS);
+        CONSULTAS.put("RelatorioFinanceiroDAO.resumoMensal", RelatorioFinanceiroDAO.SQL_RESUMO_MENSAL);
+        CONSULTAS.put("RelatorioFinanceiroDAO.receitaPorPlanoEMes (resumo)", RelatorioFinanceiroDAO.SQL_RECEITA_MENSAL_RESUMO);
+        CONSULTAS.put("RelatorioFinanceiroDAO.resumoAnual", RelatorioFinanceiroDAO.SQL_RESUMO_ANUAL);
+        CONSULTAS.put("TreinoDAO.buscarPorProfessor", TreinoDAO.SQL_BUSCAR_POR_PROFESSOR);
+        CONSULTAS.put("TreinoDAO.buscarPorAluno", TreinoDAO.SQL_BUSCAR_POR_ALUNO);
+        CONSULTAS.put("TreinoExercicioDAO.listarPorExercicio", TreinoExercicioDAO.SQL_LISTAR_POR_EXERCICIO);
+    }
+
+    public static void main(String[] args) {
+        verificar();
+    }
+
+    public static void verificar() {
+        List<String> semIndice = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection(TipoConexao.LEITURA)) {
+            logger.info("Verificando planos de consulta...");
+
+            for (Map.Entry<String, String> consulta : CONSULTAS.entrySet()) {
+                try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + consulta.getValue());
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    logger.info("{}:", consulta.getKey());
+                    while (rs.next()) {
+                        String detalhe = rs.getString("detail");
+                        logger.info("- {}", detalhe);
+                        if (VARREDURA_COMPLETA.matcher(detalhe).matches()
+                                && !detalhe.equals(VARREDURAS_ESPERADAS.get(consulta.getKey()))) {
+                            semIndice.add(consulta.getKey() + " (" + detalhe + ")");
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erro durante verificação dos planos de consulta", e);
+            throw new RuntimeException("Falha na verificação dos planos de consulta", e);
+        }
+
+        if (!semIndice.isEmpty()) {
+            semIndice.forEach(consulta -> logger.error("Consulta sem índice: {}", consulta));
+            throw new RuntimeException(semIndice.size() + " consulta(s) lendo a tabela inteira");
+        }
+
+        logger.info("Todas as {} consultas usam índice", CONSULTAS.size());
+    }
+}
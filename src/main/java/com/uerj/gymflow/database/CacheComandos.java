@@ -0,0 +1,231 @@
+package com.uerj.gymflow.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reaproveitamento de PreparedStatement por conexão física do pool.
+ *
+ * O sqlite-jdbc não tem cache de comandos próprio, então cada prepareStatement compila o SQL
+ * de novo. Cada conexão física passa a guardar os comandos já preparados, pelo texto SQL
+ * (e pela opção de chaves geradas): prepareStatement empresta o comando guardado, e close()
+ * o devolve ao cache, com os parâmetros limpos, em vez de fechá-lo. Os DAOs continuam com
+ * o try-with-resources de sempre.
+ *
+ * Os comandos são preparados direto na conexão física, que o Hikari reaproveita entre os
+ * empréstimos do pool. Uma conexão é usada por uma thread de cada vez; se o mesmo SQL for
+ * pedido de novo enquanto o comando guardado está emprestado (escritas aninhadas na conexão
+ * de escrita), é preparado um comando avulso, fechado normalmente. Cada conexão guarda até
+ * {@code gymflow.db.comandos.cache} comandos (padrão 64; 0 desliga), descartando o usado há
+ * mais tempo. Quando o pool fecha a conexão física, o driver fecha os comandos junto.
+ */
+final class CacheComandos {
+    private static final Logger logger = LoggerFactory.getLogger(CacheComandos.class);
+    static final String PROPRIEDADE_TAMANHO = "gymflow.db.comandos.cache";
+    private static final int CAPACIDADE = Math.max(0, Integer.getInteger(PROPRIEDADE_TAMANHO, 64));
+    // Por identidade da conexão física; as conexões já fechadas pelo pool são removidas
+    // quando uma nova aparece, o que acontece justamente ao substituir as antigas
+    private static final Map<Connection, CacheComandos> porConexao = new IdentityHashMap<>();
+    private static final LongAdder reutilizados = new LongAdder();
+    private static final LongAdder preparados = new LongAdder();
+
+    /**
+     * Comando guardado e se ele está emprestado no momento
+     */
+    private static final class Entrada {
+        private final PreparedStatement comando;
+        private boolean emprestado;
+        private boolean descartado;
+
+        private Entrada(PreparedStatement comando) {
+            this.comando = comando;
+        }
+    }
+
+    private final Connection fisica;
+    private final LinkedHashMap<String, Entrada> comandos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntigo) {
+            if (size() > CAPACIDADE) {
+                descartar(maisAntigo.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private CacheComandos(Connection fisica) {
+        this.fisica = fisica;
+    }
+
+    static boolean isAtivo() {
+        return CAPACIDADE > 0;
+    }
+
+    /**
+     * Envolve uma conexão obtida do pool para que seus PreparedStatement sejam reaproveitados
+     * @param conexao Conexão do pool
+     * @return A conexão envolvida, ou a própria conexão se o cache estiver desligado
+     */
+    static Connection envolver(Connection conexao) throws SQLException {
+        if (!isAtivo()) {
+            return conexao;
+        }
+
+        Connection fisica = conexao.unwrap(Connection.class);
+        CacheComandos cache = daConexao(fisica);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") && args.length <= 2
+                            && (args.length == 1 || args[1] instanceof Integer)) {
+                        int chavesGeradas = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return cache.emprestar((Connection) proxy, (String) args[0], chavesGeradas);
+                    }
+                    return invocar(conexao, method, args);
+                });
+    }
+
+    private static CacheComandos daConexao(Connection fisica) {
+        synchronized (porConexao) {
+            CacheComandos cache = porConexao.get(fisica);
+            if (cache == null) {
+                porConexao.keySet().removeIf(CacheComandos::isFechada);
+                cache = new CacheComandos(fisica);
+                porConexao.put(fisica, cache);
+            }
+            return cache;
+        }
+    }
+
+    private static boolean isFechada(Connection conexao) {
+        try {
+            return conexao.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return Quantidade de prepareStatement atendidos por um comando já preparado
+     */
+    static long getReutilizados() {
+        return reutilizados.sum();
+    }
+
+    /**
+     * @return Quantidade de comandos efetivamente preparados no driver
+     */
+    static long getPreparados() {
+        return preparados.sum();
+    }
+
+    private synchronized PreparedStatement emprestar(Connection logica, String sql, int chavesGeradas)
+            throws SQLException {
+        String chave = chavesGeradas == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entrada entrada = comandos.get(chave);
+        if (entrada != null && entrada.emprestado) {
+            // Já emprestado a uma chamada aninhada na mesma conexão: comando avulso, fechado ao final
+            preparados.increment();
+            return fisica.prepareStatement(sql, chavesGeradas);
+        }
+
+        if (entrada != null && !entrada.comando.isClosed()) {
+            reutilizados.increment();
+        } else {
+            preparados.increment();
+            entrada = new Entrada(fisica.prepareStatement(sql, chavesGeradas));
+            comandos.put(chave, entrada);
+        }
+
+        entrada.emprestado = true;
+        return envolverComando(logica, entrada);
+    }
+
+    private synchronized void devolver(Entrada entrada) throws SQLException {
+        entrada.emprestado = false;
+        if (entrada.descartado) {
+            entrada.comando.close();
+            return;
+        }
+
+        try {
+            entrada.comando.clearParameters();
+            entrada.comando.clearBatch();
+        } catch (SQLException e) {
+            // Comando em estado inválido: sai do cache e é fechado
+            logger.debug("Comando descartado do cache ao ser devolvido", e);
+            comandos.values().remove(entrada);
+            entrada.comando.close();
+        }
+    }
+
+    private void descartar(Entrada entrada) {
+        entrada.descartado = true;
+        if (!entrada.emprestado) {
+            try {
+                entrada.comando.close();
+            } catch (SQLException e) {
+                logger.debug("Erro ao fechar comando descartado do cache", e);
+            }
+        }
+    }
+
+    /**
+     * Envolve o comando emprestado: close() o devolve ao cache e getConnection() retorna a
+     * conexão do pool, não a física. Depois de devolvido, o envoltório se comporta como fechado.
+     */
+    private PreparedStatement envolverComando(Connection logica, Entrada entrada) {
+        InvocationHandler manipulador = new InvocationHandler() {
+            private boolean fechado;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!fechado) {
+                            fechado = true;
+                            devolver(entrada);
+                        }
+                        return null;
+                    case "isClosed":
+                        return fechado || entrada.comando.isClosed();
+                    case "getConnection":
+                        return logica;
+                    default:
+                        if (fechado) {
+                            throw new SQLException("Comando já fechado");
+                        }
+                        return invocar(entrada.comando, method, args);
+                }
+            }
+        };
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                manipulador);
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.uerj.gymflow.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Envoltórios de Connection, Statement e ResultSet que alimentam o {@link RegistroMetricas}
+ * e o {@link LogConsultasLentas}.
+ *
+ * A conexão registra, ao ser fechada, o tempo em que ficou aberta e as linhas lidas ou
+ * alteradas, atribuídos ao método que a obteve. Cada comando mede o tempo gasto no
+ * banco: a execução e, para consultas, as chamadas a next() até o ResultSet ser fechado.
+ * Só é usado com as métricas ou o log de consultas lentas ativos; o custo do proxy fica
+ * restrito a esses casos, e os parâmetros dos comandos só são guardados para o log.
+ */
+final class ConexaoInstrumentada implements InvocationHandler {
+    private final Connection conexao;
+    private final String origem;
+    private final RegistroMetricas metricas;
+    private final LogConsultasLentas consultasLentas;
+    private final long inicio = System.nanoTime();
+    private long linhas;
+    private boolean fechada;
+
+    private ConexaoInstrumentada(Connection conexao, String origem, RegistroMetricas metricas,
+                                 LogConsultasLentas consultasLentas) {
+        this.conexao = conexao;
+        this.origem = origem;
+        this.metricas = metricas;
+        this.consultasLentas = consultasLentas;
+    }
+
+    /**
+     * Envolve uma conexão para medir os comandos do método que a obteve
+     * @param conexao Conexão obtida do pool
+     * @param origem Método que pediu a conexão, no formato Classe.metodo
+     * @param metricas Registro que recebe as métricas, ou null se a coleta estiver desligada
+     * @param consultasLentas Log de consultas lentas, ou null se estiver desligado
+     * @return A conexão instrumentada
+     */
+    static Connection envolver(Connection conexao, String origem, RegistroMetricas metricas,
+                               LogConsultasLentas consultasLentas) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexaoInstrumentada(conexao, origem, metricas, consultasLentas));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String nome = method.getName();
+
+        if (nome.equals("close") && method.getParameterCount() == 0) {
+            if (!fechada) {
+                fechada = true;
+                if (metricas != null) {
+                    metricas.registrarMetodo(origem, System.nanoTime() - inicio, linhas);
+                }
+            }
+            return invocar(conexao, method, args);
+        }
+
+        Object resultado = invocar(conexao, method, args);
+        if (resultado instanceof PreparedStatement comando && nome.equals("prepareStatement")) {
+            return envolverComando(comando, PreparedStatement.class, (String) args[0]);
+        }
+        if (resultado instanceof Statement comando && nome.equals("createStatement")) {
+            return envolverComando(comando, Statement.class, null);
+        }
+        return resultado;
+    }
+
+    private Object envolverComando(Statement comando, Class<? extends Statement> tipo, String sql) {
+        return Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{tipo},
+                new ComandoInstrumentado(comando, sql));
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Mede as execuções de um Statement ou PreparedStatement. Uma consulta fica pendente
+     * enquanto o ResultSet é percorrido e é registrada ao fechar o ResultSet, ao executar
+     * outro comando ou ao fechar o Statement.
+     */
+    private final class ComandoInstrumentado implements InvocationHandler {
+        private final Statement comando;
+        private final String sqlPreparado;
+        // Parâmetros atuais do PreparedStatement, guardados apenas para o log de consultas lentas
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+        private String sqlPendente;
+        private long nanosPendentes;
+        private long linhasPendentes;
+
+        ComandoInstrumentado(Statement comando, String sqlPreparado) {
+            this.comando = comando;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            if (!nome.startsWith("execute") && !nome.equals("getResultSet") && !nome.equals("close")) {
+                if (consultasLentas != null) {
+                    guardarParametro(nome, args);
+                }
+                return invocar(comando, method, args);
+            }
+
+            if (nome.equals("close")) {
+                registrarPendente();
+                return invocar(comando, method, args);
+            }
+            if (nome.equals("getResultSet")) {
+                Object resultado = invocar(comando, method, args);
+                return resultado instanceof ResultSet rs && sqlPendente != null ? envolverResultado(rs) : resultado;
+            }
+
+            registrarPendente();
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+            long inicioExecucao = System.nanoTime();
+            Object resultado = invocar(comando, method, args);
+            long nanos = System.nanoTime() - inicioExecucao;
+
+            if (resultado instanceof ResultSet rs) {
+                iniciarPendente(sql, nanos);
+                return envolverResultado(rs);
+            }
+            if (nome.equals("execute") && Boolean.TRUE.equals(resultado)) {
+                // O ResultSet é obtido depois, por getResultSet
+                iniciarPendente(sql, nanos);
+                return resultado;
+            }
+            registrar(sql, nanos, contarLinhasAlteradas(resultado));
+            return resultado;
+        }
+
+        private void guardarParametro(String nome, Object[] args) {
+            if (nome.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer posicao) {
+                parametros.put(posicao, nome.equals("setNull") ? null : args[1]);
+            }
+        }
+
+        private long contarLinhasAlteradas(Object resultado) throws Exception {
+            if (resultado instanceof Number quantidade) {
+                return Math.max(0, quantidade.longValue());
+            }
+            if (resultado instanceof int[] quantidades) {
+                long total = 0;
+                for (int quantidade : quantidades) {
+                    total += Math.max(0, quantidade);
+                }
+                return total;
+            }
+            if (resultado instanceof long[] quantidades) {
+                long total = 0;
+                for (long quantidade : quantidades) {
+                    total += Math.max(0, quantidade);
+                }
+                return total;
+            }
+            if (Boolean.FALSE.equals(resultado)) {
+                return Math.max(0, comando.getUpdateCount());
+            }
+            return 0;
+        }
+
+        private Object envolverResultado(ResultSet rs) {
+            return Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        String nome = method.getName();
+                        if (nome.equals("next")) {
+                            long inicioLeitura = System.nanoTime();
+                            Object resultado = invocar(rs, method, args);
+                            nanosPendentes += System.nanoTime() - inicioLeitura;
+                            if (Boolean.TRUE.equals(resultado)) {
+                                linhasPendentes++;
+                            }
+                            return resultado;
+                        }
+                        if (nome.equals("close")) {
+                            registrarPendente();
+                        }
+                        return invocar(rs, method, args);
+                    });
+        }
+
+        private void iniciarPendente(String sql, long nanos) {
+            sqlPendente = sql;
+            nanosPendentes = nanos;
+            linhasPendentes = 0;
+        }
+
+        private void registrarPendente() {
+            if (sqlPendente != null) {
+                registrar(sqlPendente, nanosPendentes, linhasPendentes);
+                sqlPendente = null;
+            }
+        }
+
+        private void registrar(String sql, long nanos, long quantidadeLinhas) {
+            linhas += quantidadeLinhas;
+            // Lotes de um Statement simples (addBatch(sql)) não têm um único texto de comando
+            if (metricas != null) {
+                metricas.registrarComando(sql != null ? sql : "(lote de comandos)", nanos, quantidadeLinhas);
+            }
+            if (consultasLentas != null && sql != null && consultasLentas.isLenta(nanos)) {
+                consultasLentas.registrar(conexao, origem, sql, parametros, nanos, quantidadeLinhas);
+            }
+        }
+    }
+}
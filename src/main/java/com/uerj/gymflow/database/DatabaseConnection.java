@@ -5,40 +5,141 @@ import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Gerencia os pools de conexão com o SQLite.
+ *
+ * O SQLite aceita apenas um escritor por vez, então as conexões são separadas em
+ * um pool somente leitura para consultas e uma única conexão de escrita. As
+ * escritas aguardam em uma fila justa (FIFO) pela conexão de escrita; com o
+ * modo WAL, as leituras continuam sendo atendidas enquanto uma escrita ocorre.
+ *
+ * A conexão de escrita é reentrante na mesma thread: um DAO que já está
+ * escrevendo (por exemplo, AlunoDAO.inserir) e chama outro DAO que também
+ * escreve (PessoaDAO.inserir) recebe a mesma conexão, dentro da mesma transação.
+ * Só o uso mais externo confirma ou desfaz a transação; o commit e o rollback de um
+ * uso aninhado valem apenas para um SAVEPOINT. O que depende da gravação confirmada
+ * (caches e índices em memória) é agendado com {@link #aposCommit(Runnable)}.
+ *
+ * As conexões entregues reaproveitam os PreparedStatement já preparados na mesma
+ * conexão física (ver {@link CacheComandos}).
+ */
 public class DatabaseConnection {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConnection.class);
-    private static final String DB_URL = "jdbc:sqlite:gymflow.db";
-    private static HikariDataSource dataSource;
+    private static final String PROPRIEDADE_URL = "gymflow.db.url";
+    private static final String URL_PADRAO = "jdbc:sqlite:gymflow.db";
+    private static final int TAMANHO_POOL_LEITURA = 10;
+    private static final long TEMPO_MAXIMO_FILA_ESCRITA = 30000; // 30 segundos
+    private static HikariDataSource leituraDataSource;
+    private static HikariDataSource escritaDataSource;
     private static DatabaseConnection instance;
 
+    private final RegistroMetricas metricas = RegistroMetricas.getInstance();
+    private final LogConsultasLentas consultasLentas = LogConsultasLentas.getInstance();
+    private final Semaphore filaEscrita = new Semaphore(1, true);
+    private final ThreadLocal<Connection> escritaDaThread = new ThreadLocal<>();
+    private final ThreadLocal<TransacaoEscrita> transacaoDaThread = new ThreadLocal<>();
+
     private DatabaseConnection() {
         initializeDataSource();
     }
 
     private void initializeDataSource() {
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(DB_URL);
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(5);
-        config.setIdleTimeout(300000); // 5 minutos
-        config.setMaxLifetime(600000); // 10 minutos
-        config.setConnectionTimeout(30000); // 30 segundos
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // Pragmas do SQLite aplicados pelo driver a cada conexão criada pelos pools
+        PerfilSQLite perfil = PerfilSQLite.selecionado();
+        Properties pragmas = perfil.comoPropriedades();
+
+        // O pool de escrita é criado primeiro para que o arquivo do banco exista
+        // e já esteja em modo WAL quando as conexões somente leitura forem abertas
+        HikariConfig configEscrita = criarConfig("GymFlow-escrita", pragmas);
+        configEscrita.setMaximumPoolSize(1);
+        configEscrita.setMinimumIdle(1);
+        configEscrita.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        configEscrita.setConnectionInitSql(perfil.comandoInicialEscrita());
+
+        HikariConfig configLeitura = criarConfig("GymFlow-leitura", pragmas);
+        configLeitura.setMaximumPoolSize(TAMANHO_POOL_LEITURA);
+        configLeitura.setMinimumIdle(5);
+        configLeitura.setIdleTimeout(300000); // 5 minutos
+        configLeitura.setReadOnly(true);
+        configLeitura.addDataSourceProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
 
         try {
-            dataSource = new HikariDataSource(config);
-            logger.info("Pool de conexões inicializado com sucesso");
+            escritaDataSource = new HikariDataSource(configEscrita);
+            migrarEsquema();
+            leituraDataSource = new HikariDataSource(configLeitura);
+            registrarMedidores();
+            logger.info("Pools de conexões inicializados com sucesso (perfil SQLite {}: {}, {})",
+                    perfil, pragmas, configEscrita.getConnectionInitSql());
         } catch (Exception e) {
             logger.error("Erro ao inicializar pool de conexões", e);
+            closeDataSource();
             throw new RuntimeException("Não foi possível inicializar o pool de conexões", e);
         }
     }
 
+    /**
+     * Aplica as migrações pendentes na conexão de escrita, antes de abrir o pool de leitura
+     */
+    private void migrarEsquema() throws SQLException {
+        try (Connection conn = escritaDataSource.getConnection()) {
+            new GerenciadorMigracoes().migrar(conn);
+        }
+    }
+
+    private void registrarMedidores() {
+        registrarMedidoresPool("leitura", leituraDataSource);
+        registrarMedidoresPool("escrita", escritaDataSource);
+        metricas.registrarMedidor("escrita.fila", this::getEscritasEmEspera);
+        metricas.registrarMedidor("comandos.preparados", CacheComandos::getPreparados);
+        metricas.registrarMedidor("comandos.reutilizados", CacheComandos::getReutilizados);
+    }
+
+    private void registrarMedidoresPool(String nome, HikariDataSource dataSource) {
+        metricas.registrarMedidor("pool." + nome + ".ativas",
+                () -> dataSource.getHikariPoolMXBean().getActiveConnections());
+        metricas.registrarMedidor("pool." + nome + ".ociosas",
+                () -> dataSource.getHikariPoolMXBean().getIdleConnections());
+        metricas.registrarMedidor("pool." + nome + ".total",
+                () -> dataSource.getHikariPoolMXBean().getTotalConnections());
+        metricas.registrarMedidor("pool." + nome + ".aguardando",
+                () -> dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+    }
+
+    private HikariConfig criarConfig(String nomePool, Properties pragmas) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nomePool);
+        config.setJdbcUrl(getUrl());
+        config.setMaxLifetime(600000); // 10 minutos
+        config.setConnectionTimeout(30000); // 30 segundos
+
+        for (String nome : pragmas.stringPropertyNames()) {
+            config.addDataSourceProperty(nome, pragmas.getProperty(nome));
+        }
+
+        return config;
+    }
+
+    /**
+     * URL JDBC do banco. Por padrão, o arquivo gymflow.db no diretório atual; pode ser
+     * trocada pela propriedade de sistema {@code gymflow.db.url}, por exemplo para
+     * apontar benchmarks para um banco populado separado.
+     * @return A URL JDBC
+     */
+    public static String getUrl() {
+        return System.getProperty(PROPRIEDADE_URL, URL_PADRAO);
+    }
+
     public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
             instance = new DatabaseConnection();
@@ -46,10 +147,39 @@ public class DatabaseConnection {
         return instance;
     }
 
+    /**
+     * Obtém uma conexão de escrita. Mantido por compatibilidade; prefira
+     * {@link #getConnection(TipoConexao)} declarando o tipo de acesso.
+     */
     public Connection getConnection() {
+        return getConnection(TipoConexao.ESCRITA);
+    }
+
+    /**
+     * Obtém uma conexão do tipo solicitado
+     * @param tipo LEITURA para consultas, ESCRITA para inserções, atualizações e exclusões
+     * @return A conexão, que deve ser fechada pelo chamador
+     */
+    public Connection getConnection(TipoConexao tipo) {
+        boolean medir = metricas.isAtivo();
+        boolean registrarLentas = consultasLentas.isAtivo();
+        if (!medir && !registrarLentas) {
+            return tipo == TipoConexao.ESCRITA ? obterConexaoEscrita() : obterConexaoLeitura();
+        }
+
+        long inicio = System.nanoTime();
+        Connection connection = tipo == TipoConexao.ESCRITA ? obterConexaoEscrita() : obterConexaoLeitura();
+        if (medir) {
+            metricas.registrarEsperaConexao(tipo, System.nanoTime() - inicio);
+        }
+        return ConexaoInstrumentada.envolver(connection, RegistroMetricas.origemDaChamada(),
+                medir ? metricas : null, registrarLentas ? consultasLentas : null);
+    }
+
+    private Connection obterConexaoLeitura() {
         try {
-            Connection connection = dataSource.getConnection();
-            logger.debug("Conexão obtida do pool");
+            Connection connection = CacheComandos.envolver(leituraDataSource.getConnection());
+            logger.debug("Conexão de leitura obtida do pool");
             return connection;
         } catch (SQLException e) {
             logger.error("Erro ao obter conexão do pool", e);
@@ -57,10 +187,280 @@ public class DatabaseConnection {
         }
     }
 
+    private Connection obterConexaoEscrita() {
+        Connection atual = escritaDaThread.get();
+        if (atual != null) {
+            // Escrita aninhada na mesma thread: reaproveita a conexão sem fechá-la no final
+            return envolverConexaoEscrita(atual, false);
+        }
+
+        try {
+            if (!filaEscrita.tryAcquire(TEMPO_MAXIMO_FILA_ESCRITA, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Tempo esgotado aguardando a conexão de escrita");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando a conexão de escrita", e);
+        }
+
+        try {
+            Connection connection = CacheComandos.envolver(escritaDataSource.getConnection());
+            escritaDaThread.set(connection);
+            transacaoDaThread.set(new TransacaoEscrita());
+            logger.debug("Conexão de escrita obtida do pool");
+            return envolverConexaoEscrita(connection, true);
+        } catch (SQLException e) {
+            filaEscrita.release();
+            logger.error("Erro ao obter conexão de escrita do pool", e);
+            throw new RuntimeException("Erro ao obter conexão com o banco de dados", e);
+        }
+    }
+
+    /**
+     * Envolve a conexão de escrita para liberar a fila quando o dono a fechar. Uma transação
+     * deixada aberta é desfeita no close. Para usos aninhados, o close não devolve a conexão,
+     * que fica a cargo do uso mais externo, e o controle de transação passa pela
+     * {@link TransacaoAninhada}.
+     */
+    private Connection envolverConexaoEscrita(Connection connection, boolean dono) {
+        TransacaoEscrita transacao = transacaoDaThread.get();
+        TransacaoAninhada aninhada = dono ? null : new TransacaoAninhada(connection, transacao);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (aninhada != null) {
+                            aninhada.abandonar();
+                        } else if (escritaDaThread.get() == connection) {
+                            escritaDaThread.remove();
+                            transacaoDaThread.remove();
+                            try {
+                                desfazerTransacaoAberta(connection);
+                                connection.close();
+                            } finally {
+                                filaEscrita.release();
+                            }
+                        }
+                        return null;
+                    }
+
+                    if (aninhada != null && aninhada.tratar(method.getName(), args)) {
+                        return null;
+                    }
+
+                    Object resultado;
+                    try {
+                        resultado = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    transacao.acompanhar(method.getName(), args);
+                    return resultado;
+                });
+    }
+
+    /**
+     * Executa a ação depois que a transação de escrita desta thread for confirmada. Dentro de
+     * um uso aninhado, o commit do DAO só libera um SAVEPOINT, então a ação espera o commit do
+     * uso mais externo e é descartada se a transação (ou o SAVEPOINT) for desfeita. Sem
+     * transação aberta na thread, a ação é executada na hora.
+     * @param acao Ação a executar, como atualizar um índice em memória
+     */
+    public void aposCommit(Runnable acao) {
+        TransacaoEscrita transacao = transacaoDaThread.get();
+        if (transacao != null && transacao.aberta) {
+            transacao.pendentes.add(acao);
+        } else {
+            acao.run();
+        }
+    }
+
+    /**
+     * Desfaz a transação que o dono deixou aberta ao fechar a conexão. Os comandos do
+     * CacheComandos são preparados na conexão física, então o Hikari não sabe que houve
+     * escrita e, ao restaurar o autocommit na devolução, o driver confirmaria o que ficou
+     * pendente. Fechar sem commit tem que desfazer, como na conexão do pool.
+     */
+    private static void desfazerTransacaoAberta(Connection connection) throws SQLException {
+        if (!connection.isClosed() && !connection.getAutoCommit()) {
+            logger.warn("Conexão de escrita fechada com transação aberta; desfazendo");
+            try {
+                connection.rollback();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Estado da transação na conexão física de escrita enquanto uma thread a detém, com as
+     * ações que aguardam o commit
+     */
+    private static final class TransacaoEscrita {
+        private final List<Runnable> pendentes = new ArrayList<>();
+        private boolean aberta;
+
+        /**
+         * Acompanha os comandos de transação que chegaram à conexão física
+         */
+        private void acompanhar(String metodo, Object[] args) {
+            switch (metodo) {
+                case "setAutoCommit":
+                    if (!(Boolean) args[0]) {
+                        aberta = true;
+                    } else if (aberta) {
+                        // Voltar ao autocommit confirma a transação em andamento
+                        confirmar();
+                    }
+                    break;
+                case "commit":
+                    confirmar();
+                    break;
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        desfazer(0);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void confirmar() {
+            aberta = false;
+            List<Runnable> acoes = new ArrayList<>(pendentes);
+            pendentes.clear();
+            for (Runnable acao : acoes) {
+                try {
+                    acao.run();
+                } catch (RuntimeException e) {
+                    logger.error("Erro ao executar ação agendada para depois do commit", e);
+                }
+            }
+        }
+
+        /**
+         * Descarta as ações agendadas a partir da posição informada
+         */
+        private void desfazer(int desde) {
+            if (desde == 0) {
+                aberta = false;
+            }
+            if (desde < pendentes.size()) {
+                pendentes.subList(desde, pendentes.size()).clear();
+            }
+        }
+    }
+
+    /**
+     * Controle de transação de um uso aninhado da conexão de escrita.
+     *
+     * Se o uso externo já abriu uma transação, o aninhado não pode encerrá-la: o
+     * setAutoCommit(false) dele cria um SAVEPOINT, o commit o libera e o rollback desfaz só
+     * o trabalho feito desde o SAVEPOINT. Quem confirma ou desfaz tudo é o uso mais externo.
+     * Se a conexão estava em autocommit, o aninhado é quem abre a transação e seus comandos
+     * seguem direto para a conexão.
+     */
+    private static final class TransacaoAninhada {
+        private final Connection connection;
+        private final TransacaoEscrita transacao;
+        private boolean abriuTransacao;
+        private Savepoint pontoSalvamento;
+        // Ações agendadas antes do SAVEPOINT; as posteriores caem junto com ele
+        private int pendentesNoPonto;
+
+        private TransacaoAninhada(Connection connection, TransacaoEscrita transacao) {
+            this.connection = connection;
+            this.transacao = transacao;
+        }
+
+        /**
+         * @return true se o método foi tratado aqui e não deve chegar à conexão
+         */
+        private boolean tratar(String metodo, Object[] args) throws SQLException {
+            switch (metodo) {
+                case "setAutoCommit": {
+                    boolean autoCommit = (Boolean) args[0];
+                    if (abriuTransacao) {
+                        abriuTransacao = !autoCommit;
+                        return false;
+                    }
+                    if (!autoCommit && connection.getAutoCommit()) {
+                        abriuTransacao = true;
+                        return false;
+                    }
+                    if (!autoCommit && pontoSalvamento == null) {
+                        pontoSalvamento = connection.setSavepoint();
+                        pendentesNoPonto = transacao.pendentes.size();
+                    } else if (autoCommit) {
+                        liberarPontoSalvamento();
+                    }
+                    return true;
+                }
+                case "commit":
+                    if (abriuTransacao) {
+                        return false;
+                    }
+                    liberarPontoSalvamento();
+                    return true;
+                case "rollback":
+                    if (abriuTransacao || (args != null && args.length > 0)) {
+                        return false;
+                    }
+                    desfazerAtePonto();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Fechamento do uso aninhado sem commit: desfaz o que ele deixou pendente, seja o
+         * trabalho desde o SAVEPOINT, seja a transação que ele mesmo abriu
+         */
+        private void abandonar() throws SQLException {
+            if (abriuTransacao) {
+                abriuTransacao = false;
+                desfazerTransacaoAberta(connection);
+                transacao.desfazer(0);
+            } else if (pontoSalvamento != null) {
+                logger.warn("Uso aninhado da conexão de escrita fechado sem commit; desfazendo até o SAVEPOINT");
+                desfazerAtePonto();
+            }
+        }
+
+        private void desfazerAtePonto() throws SQLException {
+            if (pontoSalvamento != null) {
+                connection.rollback(pontoSalvamento);
+                transacao.desfazer(pendentesNoPonto);
+                liberarPontoSalvamento();
+            }
+        }
+
+        private void liberarPontoSalvamento() throws SQLException {
+            if (pontoSalvamento != null) {
+                Savepoint ponto = pontoSalvamento;
+                pontoSalvamento = null;
+                connection.releaseSavepoint(ponto);
+            }
+        }
+    }
+
+    /**
+     * @return Quantidade de threads aguardando na fila pela conexão de escrita
+     */
+    public int getEscritasEmEspera() {
+        return filaEscrita.getQueueLength();
+    }
+
     public void closeDataSource() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
-            logger.info("Pool de conexões fechado");
+        if (leituraDataSource != null && !leituraDataSource.isClosed()) {
+            leituraDataSource.close();
+        }
+        if (escritaDataSource != null && !escritaDataSource.isClosed()) {
+            escritaDataSource.close();
+            logger.info("Pools de conexões fechados");
         }
     }
-}
\ No newline at end of file
+}
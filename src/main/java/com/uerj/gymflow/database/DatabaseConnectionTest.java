@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -11,12 +12,15 @@ import java.sql.Statement;
 public class DatabaseConnectionTest {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConnectionTest.class);
 
+    private static final String CPF_ABANDONO = "teste-abandono";
+
     public static void main(String[] args) {
         testConnection();
+        testTransacaoAbandonada();
     }
 
     public static void testConnection() {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection(TipoConexao.LEITURA);
              Statement stmt = conn.createStatement()) {
 
             logger.info("Testando conexão com o banco de dados...");
@@ -26,6 +30,16 @@ public class DatabaseConnectionTest {
             logger.info("Driver: {}", conn.getMetaData().getDriverName());
             logger.info("URL: {}", conn.getMetaData().getURL());
 
+            // Exibe os pragmas aplicados pelo perfil SQLite
+            logger.info("Pragmas da conexão:");
+            for (String pragma : new String[]{"journal_mode", "synchronous", "mmap_size", "cache_size", "temp_store", "busy_timeout"}) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    if (rs.next()) {
+                        logger.info("- {} = {}", pragma, rs.getString(1));
+                    }
+                }
+            }
+
             // Lista todas as tabelas
             try (ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table'")) {
                 logger.info("Tabelas encontradas:");
@@ -41,4 +55,70 @@ public class DatabaseConnectionTest {
             throw new RuntimeException("Falha no teste de conexão", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fecha a conexão de escrita com uma transação aberta, sem commit nem rollback, e confere
+     * que a inclusão foi desfeita. Repete com um uso aninhado dentro de uma transação externa
+     * confirmada: só o trabalho do aninhado abandonado deve sumir.
+     */
+    public static void testTransacaoAbandonada() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        logger.info("Testando fechamento da conexão de escrita com transação aberta...");
+
+        try {
+            try (Connection conn = db.getConnection(TipoConexao.ESCRITA)) {
+                conn.setAutoCommit(false);
+                inserirPessoaDeTeste(conn, "abandonada");
+            }
+            verificarPessoasDeTeste(db, 0);
+
+            try (Connection externa = db.getConnection(TipoConexao.ESCRITA)) {
+                externa.setAutoCommit(false);
+                inserirPessoaDeTeste(externa, "externa");
+                try (Connection aninhada = db.getConnection(TipoConexao.ESCRITA)) {
+                    aninhada.setAutoCommit(false);
+                    inserirPessoaDeTeste(aninhada, "aninhada");
+                }
+                externa.commit();
+                externa.setAutoCommit(true);
+            }
+            verificarPessoasDeTeste(db, 1);
+
+            logger.info("Transações abandonadas foram desfeitas corretamente");
+        } catch (SQLException e) {
+            logger.error("Erro durante teste de transação abandonada", e);
+            throw new RuntimeException("Falha no teste de transação abandonada", e);
+        } finally {
+            try (Connection conn = db.getConnection(TipoConexao.ESCRITA);
+                 PreparedStatement stmt = conn.prepareStatement("DELETE FROM Pessoa WHERE cpf = ?")) {
+                stmt.setString(1, CPF_ABANDONO);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                logger.error("Erro ao remover pessoas do teste de transação abandonada", e);
+            }
+        }
+    }
+
+    private static void inserirPessoaDeTeste(Connection conn, String nome) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Pessoa (nome, cpf, email) VALUES (?, ?, ?)")) {
+            stmt.setString(1, nome);
+            stmt.setString(2, CPF_ABANDONO);
+            stmt.setString(3, nome + "@teste");
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void verificarPessoasDeTeste(DatabaseConnection db, int esperadas) throws SQLException {
+        try (Connection conn = db.getConnection(TipoConexao.LEITURA);
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM Pessoa WHERE cpf = ?")) {
+            stmt.setString(1, CPF_ABANDONO);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                int encontradas = rs.getInt(1);
+                if (encontradas != esperadas) {
+                    throw new IllegalStateException("Esperadas " + esperadas + " pessoa(s) de teste, encontradas " + encontradas);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package com.uerj.gymflow.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Gera dados sintéticos para testes de carga e benchmarks.
+ *
+ * Preenche todas as tabelas do esquema a partir de uma semente: a mesma semente e a
+ * mesma escala produzem sempre o mesmo conjunto de dados, com exceção das datas, que
+ * são relativas ao dia da geração. Na escala 1 são 50 mil pessoas (40 mil alunos e
+ * 10 mil funcionários, 500 deles professores), 2 mil treinos, cerca de 500 mil
+ * mensalidades e 200 mil avaliações.
+ *
+ * As distribuições imitam uma rede de academias: planos mensais são os mais vendidos,
+ * as matrículas se concentram nos últimos meses, a maior parte dos alunos paga em dia
+ * e uma minoria acumula mensalidades em aberto. As linhas são gravadas com INSERT de
+ * várias linhas por comando, em uma transação por tabela.
+ *
+ * O banco deve estar vazio. Se a aplicação já estiver em execução na mesma JVM, chame
+ * IndiceInadimplencia.invalidar() após a geração.
+ */
+public class GeradorDados {
+    private static final Logger logger = LoggerFactory.getLogger(GeradorDados.class);
+
+    public static final long SEMENTE_PADRAO = 20240601L;
+
+    private static final int ALUNOS_POR_ESCALA = 40_000;
+    private static final int FUNCIONARIOS_POR_ESCALA = 10_000;
+    private static final int PROFESSORES_POR_ESCALA = 500;
+    private static final int TREINOS_POR_ESCALA = 2_000;
+    private static final int MESES_DE_HISTORICO = 36;
+    // Limita os parâmetros por comando bem abaixo do máximo do SQLite (32766)
+    private static final int LINHAS_POR_COMANDO = 500;
+
+    private static final String[] NOMES = {
+            "Ana", "Bruno", "Camila", "Daniel", "Eduarda", "Felipe", "Gabriela", "Gustavo", "Helena", "Igor",
+            "Juliana", "Lucas", "Mariana", "Mateus", "Natália", "Pedro", "Rafaela", "Rodrigo", "Sofia", "Thiago",
+            "Beatriz", "Carlos", "Fernanda", "João", "Larissa", "Marcos", "Patrícia", "Ricardo", "Vanessa", "Vinícius"
+    };
+    private static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa"
+    };
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.com", "outlook.com", "yahoo.com.br", "uol.com.br"};
+
+    // Nome, duração em meses, valor mensal e peso na escolha do plano
+    private static final Object[][] PLANOS = {
+            {"Mensal", 1, 129.90f, 40},
+            {"Trimestral", 3, 114.90f, 20},
+            {"Semestral", 6, 99.90f, 15},
+            {"Anual", 12, 89.90f, 15},
+            {"Estudante", 1, 79.90f, 7},
+            {"Família", 12, 219.90f, 3}
+    };
+
+    private static final String[][] EXERCICIOS = {
+            {"Supino reto", "Peito"}, {"Supino inclinado", "Peito"}, {"Crucifixo", "Peito"}, {"Crossover", "Peito"},
+            {"Puxada frontal", "Costas"}, {"Remada curvada", "Costas"}, {"Remada baixa", "Costas"}, {"Barra fixa", "Costas"},
+            {"Agachamento livre", "Pernas"}, {"Leg press", "Pernas"}, {"Cadeira extensora", "Pernas"},
+            {"Mesa flexora", "Pernas"}, {"Stiff", "Pernas"}, {"Panturrilha em pé", "Pernas"},
+            {"Desenvolvimento", "Ombros"}, {"Elevação lateral", "Ombros"}, {"Elevação frontal", "Ombros"},
+            {"Rosca direta", "Bíceps"}, {"Rosca martelo", "Bíceps"}, {"Tríceps pulley", "Tríceps"},
+            {"Tríceps testa", "Tríceps"}, {"Abdominal supra", "Abdômen"}, {"Prancha", "Abdômen"}, {"Elevação de pernas", "Abdômen"}
+    };
+    private static final String[] VARIACOES = {"", " com halteres", " na máquina", " unilateral"};
+
+    private static final String[] ESPECIALIDADES = {
+            "Musculação", "Funcional", "Pilates", "Crossfit", "Spinning", "Natação", "Yoga"
+    };
+    // Cargo, salário base e peso na escolha do cargo dos funcionários que não são professores
+    private static final Object[][] CARGOS = {
+            {"Recepcionista", 1800f, 50},
+            {"Auxiliar de limpeza", 1500f, 30},
+            {"Gerente", 5500f, 8},
+            {"Nutricionista", 4200f, 7},
+            {"Fisioterapeuta", 4800f, 5}
+    };
+
+    private final long semente;
+    private final int alunos;
+    private final int funcionarios;
+    private final int professores;
+    private final int treinos;
+
+    /**
+     * @param semente Semente do gerador de números aleatórios
+     * @param escala Multiplicador da quantidade de registros (1 = 40 mil alunos)
+     */
+    public GeradorDados(long semente, double escala) {
+        if (escala <= 0) {
+            throw new IllegalArgumentException("A escala deve ser positiva: " + escala);
+        }
+        this.semente = semente;
+        this.alunos = Math.max(1, (int) (ALUNOS_POR_ESCALA * escala));
+        this.professores = Math.max(1, (int) (PROFESSORES_POR_ESCALA * escala));
+        this.funcionarios = Math.max(professores, (int) (FUNCIONARIOS_POR_ESCALA * escala));
+        this.treinos = Math.max(1, (int) (TREINOS_POR_ESCALA * escala));
+    }
+
+    public int getAlunos() {
+        return alunos;
+    }
+
+    public int getProfessores() {
+        return professores;
+    }
+
+    public int getTreinos() {
+        return treinos;
+    }
+
+    /**
+     * Retorna o CPF gerado para uma pessoa. Os alunos são as primeiras pessoas, então
+     * cpf(0) a cpf(getAlunos() - 1) são CPFs de alunos.
+     * @param indice Índice da pessoa, a partir de 0
+     * @return CPF válido com 11 dígitos, sem pontuação
+     */
+    public static String cpf(int indice) {
+        String base = String.format("%09d", 100_000_000 + indice);
+        int primeiro = digitoVerificador(base, 10);
+        int segundo = digitoVerificador(base + primeiro, 11);
+        return base + primeiro + segundo;
+    }
+
+    private static int digitoVerificador(String digitos, int pesoInicial) {
+        int soma = 0;
+        for (int i = 0; i < digitos.length(); i++) {
+            soma += (digitos.charAt(i) - '0') * (pesoInicial - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    /**
+     * Preenche o banco, que deve estar com o esquema criado e sem dados
+     * @param conn Conexão de escrita
+     * @return Quantidade de linhas inseridas por tabela, na ordem de inserção
+     * @throws SQLException Se ocorrer um erro ou se o banco já tiver dados
+     */
+    public Map<String, Integer> gerar(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM Pessoa) + (SELECT COUNT(*) FROM Plano)")) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                throw new SQLException("O banco já possui dados; a geração exige um banco vazio");
+            }
+        }
+
+        Random random = new Random(semente);
+        LocalDate hoje = LocalDate.now();
+        Map<String, Integer> linhas = new LinkedHashMap<>();
+        long inicio = System.nanoTime();
+
+        // Índices secundários são removidos durante a carga e recriados no final:
+        // construir cada índice de uma vez é bem mais rápido que mantê-lo linha a linha
+        List<String> indices = removerIndices(conn);
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            linhas.put("Plano", gerarPlanos(conn));
+            conn.commit();
+            linhas.put("Pessoa", gerarPessoas(conn, random, hoje));
+            conn.commit();
+            int[] planoDoAluno = new int[alunos];
+            LocalDate[] matriculas = new LocalDate[alunos];
+            linhas.put("Aluno", gerarAlunos(conn, random, hoje, planoDoAluno, matriculas));
+            conn.commit();
+            int[] totais = gerarFuncionarios(conn, random, hoje);
+            linhas.put("Funcionario", totais[0]);
+            linhas.put("Professor", totais[1]);
+            conn.commit();
+            linhas.put("Exercicio", gerarExercicios(conn));
+            conn.commit();
+            totais = gerarTreinos(conn, random, hoje);
+            linhas.put("Treino", totais[0]);
+            linhas.put("Treino_exercicio", totais[1]);
+            conn.commit();
+            linhas.put("Aluno_treino", gerarAlunosTreinos(conn, random, hoje, matriculas));
+            conn.commit();
+            linhas.put("Mensalidade", gerarMensalidades(conn, random, hoje, planoDoAluno, matriculas));
+            conn.commit();
+            linhas.put("Avaliacao", gerarAvaliacoes(conn, random, hoje, matriculas));
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            logger.error("Erro ao gerar dados sintéticos", e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            recriarIndices(conn, indices);
+        }
+
+        logger.info("Dados sintéticos gerados em {} ms: {}", (System.nanoTime() - inicio) / 1_000_000, linhas);
+        return linhas;
+    }
+
+    private List<String> removerIndices(Connection conn) throws SQLException {
+        List<String> nomes = new ArrayList<>();
+        List<String> indices = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL")) {
+                while (rs.next()) {
+                    nomes.add(rs.getString("name"));
+                    indices.add(rs.getString("sql"));
+                }
+            }
+            for (String nome : nomes) {
+                stmt.execute("DROP INDEX " + nome);
+            }
+        }
+        return indices;
+    }
+
+    private void recriarIndices(Connection conn, List<String> indices) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : indices) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private int gerarPlanos(Connection conn) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Plano",
+                "id_plano", "nome_plano", "descricao", "duracao", "valor_mensal")) {
+            for (int i = 0; i < PLANOS.length; i++) {
+                Object[] plano = PLANOS[i];
+                lote.adicionar(i + 1, plano[0], "Plano " + plano[0], plano[1], plano[2]);
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private int gerarPessoas(Connection conn, Random random, LocalDate hoje) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Pessoa",
+                "id_pessoa", "nome", "data_nascimento", "cpf", "telefone", "email")) {
+            for (int i = 0; i < alunos + funcionarios; i++) {
+                String nome = escolher(random, NOMES);
+                String sobrenome = escolher(random, SOBRENOMES);
+                // Idade entre 16 e 70 anos, concentrada entre 25 e 40
+                int idade = 16 + (int) ((random.nextInt(55) + random.nextInt(55)) / 2.0);
+                lote.adicionar(
+                        i + 1,
+                        nome + " " + sobrenome,
+                        hoje.minusYears(idade).minusDays(random.nextInt(365)),
+                        cpf(i),
+                        String.format("2%d9%08d", 1 + random.nextInt(9), random.nextInt(100_000_000)),
+                        normalizar(nome) + "." + normalizar(sobrenome) + (i + 1) + "@" + escolher(random, DOMINIOS));
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private int gerarAlunos(Connection conn, Random random, LocalDate hoje,
+                            int[] planoDoAluno, LocalDate[] matriculas) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Aluno",
+                "id_aluno", "data_matricula", "data_assinatura", "fk_pessoa", "fk_plano")) {
+            for (int i = 0; i < alunos; i++) {
+                // Mais matrículas recentes: o menor de dois sorteios favorece poucos dias atrás
+                int diasAtras = Math.min(random.nextInt(MESES_DE_HISTORICO * 30), random.nextInt(MESES_DE_HISTORICO * 30));
+                matriculas[i] = hoje.minusDays(diasAtras);
+                planoDoAluno[i] = 1 + escolherPorPeso(random, PLANOS, 3);
+                lote.adicionar(i + 1, matriculas[i], matriculas[i], i + 1, planoDoAluno[i]);
+            }
+            return lote.finalizar();
+        }
+    }
+
+    /**
+     * @return Quantidade de funcionários e de professores inseridos
+     */
+    private int[] gerarFuncionarios(Connection conn, Random random, LocalDate hoje) throws SQLException {
+        try (InsercaoEmLote loteFuncionario = new InsercaoEmLote(conn, "Funcionario",
+                "id_funcionario", "cargo", "data_admissao", "salario", "fk_pessoa");
+             InsercaoEmLote loteProfessor = new InsercaoEmLote(conn, "Professor",
+                "id_professor", "especialidade", "cref", "fk_funcionario")) {
+            for (int i = 0; i < funcionarios; i++) {
+                LocalDate admissao = hoje.minusDays(random.nextInt(10 * 365));
+                float ajuste = 0.9f + random.nextInt(40) / 100f;
+                if (i < professores) {
+                    loteFuncionario.adicionar(i + 1, "Professor", admissao, 3200f * ajuste, alunos + i + 1);
+                    loteProfessor.adicionar(i + 1, escolher(random, ESPECIALIDADES),
+                            String.format("%06d-G/RJ", 100_000 + i), i + 1);
+                } else {
+                    Object[] cargo = CARGOS[escolherPorPeso(random, CARGOS, 2)];
+                    loteFuncionario.adicionar(i + 1, cargo[0], admissao, (Float) cargo[1] * ajuste, alunos + i + 1);
+                }
+            }
+            return new int[]{loteFuncionario.finalizar(), loteProfessor.finalizar()};
+        }
+    }
+
+    private int gerarExercicios(Connection conn) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Exercicio",
+                "id_exercicio", "nome_exercicio", "descricao", "grupo_muscular")) {
+            int id = 1;
+            for (String variacao : VARIACOES) {
+                for (String[] exercicio : EXERCICIOS) {
+                    String nome = exercicio[0] + variacao;
+                    lote.adicionar(id++, nome, "Exercício de " + exercicio[1].toLowerCase(), exercicio[1]);
+                }
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private int totalExercicios() {
+        return EXERCICIOS.length * VARIACOES.length;
+    }
+
+    /**
+     * @return Quantidade de treinos e de exercícios associados inseridos
+     */
+    private int[] gerarTreinos(Connection conn, Random random, LocalDate hoje) throws SQLException {
+        try (InsercaoEmLote loteTreino = new InsercaoEmLote(conn, "Treino",
+                "id_treino", "nome_treino", "data_criacao", "observacoes", "fk_professor");
+             InsercaoEmLote loteExercicio = new InsercaoEmLote(conn, "Treino_exercicio",
+                "id_treino", "id_exercicio", "repeticoes", "series", "carga", "ordem", "observacoes")) {
+            String[] divisoes = {"A", "B", "C", "Full body", "Iniciante", "Hipertrofia", "Resistência"};
+            int exercicios = totalExercicios();
+
+            for (int i = 1; i <= treinos; i++) {
+                loteTreino.adicionar(i, "Treino " + escolher(random, divisoes) + " " + i,
+                        hoje.minusDays(random.nextInt(MESES_DE_HISTORICO * 30)), null, 1 + random.nextInt(professores));
+
+                // De 4 a 10 exercícios distintos, a partir de um ponto e passo sorteados
+                int quantidade = 4 + random.nextInt(7);
+                int primeiro = random.nextInt(exercicios);
+                int passo = 1 + random.nextInt(5);
+                for (int ordem = 0; ordem < quantidade; ordem++) {
+                    int idExercicio = 1 + (primeiro + ordem * passo) % exercicios;
+                    loteExercicio.adicionar(i, idExercicio, 8 + 2 * random.nextInt(4), 3 + random.nextInt(2),
+                            (float) (2.5 * (2 + random.nextInt(30))), ordem + 1, null);
+                }
+            }
+            return new int[]{loteTreino.finalizar(), loteExercicio.finalizar()};
+        }
+    }
+
+    private int gerarAlunosTreinos(Connection conn, Random random, LocalDate hoje,
+                                   LocalDate[] matriculas) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Aluno_treino",
+                "id_aluno", "id_treino", "data_inicio", "data_fim", "observacoes")) {
+            for (int i = 0; i < alunos; i++) {
+                // Um treino atual e, para quem está há mais tempo, até dois anteriores já encerrados
+                long dias = Math.max(1, matriculas[i].until(hoje, ChronoUnit.DAYS));
+                int quantidade = Math.min(1 + (int) (dias / 180), 1 + random.nextInt(3));
+                int primeiro = random.nextInt(treinos);
+                LocalDate inicio = matriculas[i];
+                for (int j = 0; j < quantidade; j++) {
+                    boolean atual = j == quantidade - 1;
+                    LocalDate fim = atual ? null : inicio.plusDays(dias / quantidade);
+                    lote.adicionar(i + 1, 1 + (primeiro + j * 7) % treinos, inicio, fim, null);
+                    if (fim != null) {
+                        inicio = fim.plusDays(1);
+                    }
+                }
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private int gerarMensalidades(Connection conn, Random random, LocalDate hoje,
+                                  int[] planoDoAluno, LocalDate[] matriculas) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Mensalidade",
+                "data_vencimento", "data_pagamento", "valor_pago", "status_pagamento", "fk_plano", "fk_aluno")) {
+            for (int i = 0; i < alunos; i++) {
+                // Perfil de pagamento: 80% pontuais, 15% costumam atrasar, 5% inadimplentes
+                int perfil = random.nextInt(100);
+                int chancePagamento = perfil < 80 ? 99 : perfil < 95 ? 90 : 45;
+                int atrasoMaximo = perfil < 80 ? 5 : 30;
+                float valor = (Float) PLANOS[planoDoAluno[i] - 1][2];
+
+                // Uma mensalidade por mês desde a matrícula, vencendo no dia da matrícula
+                for (LocalDate vencimento = matriculas[i]; !vencimento.isAfter(hoje.plusDays(30));
+                     vencimento = vencimento.plusMonths(1)) {
+                    LocalDate pagamento = null;
+                    if (random.nextInt(100) < chancePagamento) {
+                        LocalDate data = vencimento.minusDays(3).plusDays(random.nextInt(atrasoMaximo + 4));
+                        if (!data.isAfter(hoje)) {
+                            pagamento = data;
+                        }
+                    }
+                    lote.adicionar(vencimento, pagamento, valor, pagamento != null ? "Pago" : "Pendente",
+                            planoDoAluno[i], i + 1);
+                }
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private int gerarAvaliacoes(Connection conn, Random random, LocalDate hoje,
+                                LocalDate[] matriculas) throws SQLException {
+        try (InsercaoEmLote lote = new InsercaoEmLote(conn, "Avaliacao",
+                "data_avaliacao", "peso", "altura", "percentual_gordura", "observacoes", "fk_professor", "fk_aluno")) {
+            for (int i = 0; i < alunos; i++) {
+                float altura = (150 + random.nextInt(30) + random.nextInt(20)) / 100f;
+                float imc = 19 + random.nextInt(10) + random.nextInt(6);
+                float peso = imc * altura * altura;
+                float gordura = 12 + random.nextInt(15) + random.nextInt(10);
+                int professor = 1 + random.nextInt(professores);
+
+                // Avaliação na matrícula e a cada dois meses, com 15% de faltas; o aluno evolui aos poucos
+                for (LocalDate data = matriculas[i]; !data.isAfter(hoje); data = data.plusMonths(2)) {
+                    if (data.isAfter(matriculas[i]) && random.nextInt(100) < 15) {
+                        continue;
+                    }
+                    lote.adicionar(data, Math.round(peso * 10) / 10f, altura, Math.round(gordura * 10) / 10f,
+                            null, professor, i + 1);
+                    peso += (random.nextInt(21) - 12) / 10f;
+                    gordura = Math.max(6, gordura + (random.nextInt(11) - 7) / 10f);
+                }
+            }
+            return lote.finalizar();
+        }
+    }
+
+    private static String escolher(Random random, String[] opcoes) {
+        return opcoes[random.nextInt(opcoes.length)];
+    }
+
+    private static int escolherPorPeso(Random random, Object[][] opcoes, int colunaPeso) {
+        int total = 0;
+        for (Object[] opcao : opcoes) {
+            total += (Integer) opcao[colunaPeso];
+        }
+        int sorteio = random.nextInt(total);
+        for (int i = 0; i < opcoes.length; i++) {
+            sorteio -= (Integer) opcoes[i][colunaPeso];
+            if (sorteio < 0) {
+                return i;
+            }
+        }
+        return opcoes.length - 1;
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("[^a-z]", "");
+    }
+
+    /**
+     * Acumula linhas e as grava com INSERT de várias linhas, reaproveitando o mesmo
+     * comando preparado enquanto o lote estiver cheio
+     */
+    private static final class InsercaoEmLote implements AutoCloseable {
+        private final Connection conn;
+        private final String prefixo;
+        private final String linha;
+        private final int colunas;
+        private final List<Object> valores = new ArrayList<>();
+        private PreparedStatement loteCheio;
+        private int total;
+
+        InsercaoEmLote(Connection conn, String tabela, String... colunas) {
+            this.conn = conn;
+            this.colunas = colunas.length;
+            this.prefixo = "INSERT INTO " + tabela + " (" + String.join(", ", colunas) + ") VALUES ";
+            this.linha = "(" + "?, ".repeat(colunas.length - 1) + "?)";
+        }
+
+        void adicionar(Object... linhaValores) throws SQLException {
+            if (linhaValores.length != colunas) {
+                throw new IllegalArgumentException("Esperados " + colunas + " valores, recebidos " + linhaValores.length);
+            }
+            for (Object valor : linhaValores) {
+                valores.add(valor);
+            }
+            if (valores.size() == colunas * LINHAS_POR_COMANDO) {
+                if (loteCheio == null) {
+                    loteCheio = conn.prepareStatement(comando(LINHAS_POR_COMANDO));
+                }
+                executar(loteCheio);
+            }
+        }
+
+        /**
+         * Grava as linhas restantes
+         * @return Total de linhas inseridas
+         */
+        int finalizar() throws SQLException {
+            if (!valores.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(comando(valores.size() / colunas))) {
+                    executar(stmt);
+                }
+            }
+            return total;
+        }
+
+        private String comando(int linhas) {
+            StringBuilder sql = new StringBuilder(prefixo);
+            for (int i = 0; i < linhas; i++) {
+                sql.append(i == 0 ? "" : ", ").append(linha);
+            }
+            return sql.toString();
+        }
+
+        private void executar(PreparedStatement stmt) throws SQLException {
+            for (int i = 0; i < valores.size(); i++) {
+                Object valor = valores.get(i);
+                if (valor instanceof LocalDate data) {
+                    stmt.setDate(i + 1, Date.valueOf(data));
+                } else {
+                    stmt.setObject(i + 1, valor);
+                }
+            }
+            total += stmt.executeUpdate();
+            valores.clear();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (loteCheio != null) {
+                loteCheio.close();
+            }
+        }
+    }
+
+    /**
+     * Gera dados no banco configurado (gymflow.db.url, por padrão gymflow.db).
+     * Argumentos opcionais: escala (padrão 1) e semente.
+     */
+    public static void main(String[] args) {
+        double escala = args.length > 0 ? Double.parseDouble(args[0]) : 1;
+        long semente = args.length > 1 ? Long.parseLong(args[1]) : SEMENTE_PADRAO;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection(TipoConexao.ESCRITA)) {
+            Map<String, Integer> linhas = new GeradorDados(semente, escala).gerar(conn);
+            System.out.println("Dados gerados (escala " + escala + ", semente " + semente + "):");
+            linhas.forEach((tabela, quantidade) -> System.out.println("  " + tabela + ": " + quantidade));
+        } catch (SQLException e) {
+            System.err.println("Erro ao gerar os dados: " + e.getMessage());
+        } finally {
+            DatabaseConnection.getInstance().closeDataSource();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.uerj.gymflow.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplica as migrações pendentes do esquema.
+ *
+ * A versão do esquema fica registrada no próprio banco, na tabela Versao_esquema
+ * (uma linha por migração aplicada). Cada migração roda em sua própria transação
+ * junto com o seu registro: se falhar, o banco permanece na versão anterior.
+ */
+public class GerenciadorMigracoes {
+    private static final Logger logger = LoggerFactory.getLogger(GerenciadorMigracoes.class);
+    private static final String SUFIXO_RECONSTRUCAO = "_reconstrucao";
+
+    private final List<Migracao> migracoes;
+
+    public GerenciadorMigracoes() {
+        this(Migracoes.todas());
+    }
+
+    public GerenciadorMigracoes(List<Migracao> migracoes) {
+        for (int i = 1; i < migracoes.size(); i++) {
+            if (migracoes.get(i).getVersao() <= migracoes.get(i - 1).getVersao()) {
+                throw new IllegalArgumentException("Migrações fora de ordem: " + migracoes.get(i));
+            }
+        }
+        this.migracoes = List.copyOf(migracoes);
+    }
+
+    /**
+     * @return A versão mais recente conhecida pela aplicação
+     */
+    public int getVersaoMaisRecente() {
+        return migracoes.isEmpty() ? 0 : migracoes.get(migracoes.size() - 1).getVersao();
+    }
+
+    /**
+     * Retorna a versão do esquema registrada no banco
+     * @param conn Conexão com o banco
+     * @return A versão atual, ou 0 se nenhuma migração foi aplicada
+     * @throws SQLException Se ocorrer um erro ao consultar o banco
+     */
+    public int getVersaoAtual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'Versao_esquema'")) {
+                if (!rs.next() || rs.getInt(1) == 0) {
+                    return 0;
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(versao), 0) FROM Versao_esquema")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Aplica, em ordem, as migrações com versão maior que a registrada no banco
+     * @param conn Conexão de escrita
+     * @return Quantidade de migrações aplicadas
+     * @throws SQLException Se uma migração falhar; as anteriores permanecem aplicadas
+     */
+    public int migrar(Connection conn) throws SQLException {
+        criarTabelaVersao(conn);
+
+        int versaoAtual = getVersaoAtual(conn);
+        if (versaoAtual > getVersaoMaisRecente()) {
+            throw new SQLException("O banco está na versão " + versaoAtual +
+                    ", mais nova que a versão suportada pela aplicação (" + getVersaoMaisRecente() + ")");
+        }
+
+        int aplicadas = 0;
+        for (Migracao migracao : migracoes) {
+            if (migracao.getVersao() > versaoAtual) {
+                aplicarMigracao(conn, migracao);
+                aplicadas++;
+            }
+        }
+
+        if (aplicadas > 0) {
+            logger.info("Esquema migrado da versão {} para a versão {}", versaoAtual, getVersaoMaisRecente());
+        } else {
+            logger.debug("Esquema já está na versão {}", versaoAtual);
+        }
+        return aplicadas;
+    }
+
+    private void criarTabelaVersao(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS Versao_esquema (" +
+                    "    versao INTEGER PRIMARY KEY," +
+                    "    descricao VARCHAR," +
+                    "    aplicada_em VARCHAR," +
+                    "    duracao_ms INTEGER" +
+                    ")");
+        }
+    }
+
+    private void aplicarMigracao(Connection conn, Migracao migracao) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try {
+            migracao.aplicar(conn);
+
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO Versao_esquema (versao, descricao, aplicada_em, duracao_ms) VALUES (?, ?, ?, ?)")) {
+                stmt.setInt(1, migracao.getVersao());
+                stmt.setString(2, migracao.getDescricao());
+                stmt.setString(3, LocalDateTime.now().toString());
+                stmt.setLong(4, duracaoMs);
+                stmt.executeUpdate();
+            }
+
+            conn.commit();
+            logger.info("Migração {} aplicada: {} ({} ms)", migracao.getVersao(), migracao.getDescricao(), duracaoMs);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            logger.error("Erro ao aplicar migração {}: {}", migracao.getVersao(), migracao.getDescricao(), e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Reconstrói uma tabela com uma nova definição, preservando os dados, os índices
+     * e os gatilhos. Serve para mudanças que o ALTER TABLE do SQLite não suporta
+     * (tipos de coluna, restrições, ordem das colunas).
+     *
+     * Deve ser chamado dentro de uma migração: a cópia acontece na transação da
+     * migração, e com o modo WAL as leituras continuam vendo a tabela antiga até o commit.
+     *
+     * @param conn Conexão da migração
+     * @param tabela Nome da tabela
+     * @param definicao Definição das colunas e restrições, o conteúdo entre parênteses do CREATE TABLE
+     * @param colunas Colunas copiadas da tabela antiga, separadas por vírgula
+     * @throws SQLException Se ocorrer um erro ou se a nova tabela violar alguma chave estrangeira
+     */
+    public static void reconstruirTabela(Connection conn, String tabela, String definicao, String colunas)
+            throws SQLException {
+        String tabelaNova = tabela + SUFIXO_RECONSTRUCAO;
+
+        try (Statement stmt = conn.createStatement()) {
+            // Índices e gatilhos são removidos junto com a tabela antiga e recriados no final
+            List<String> objetosDependentes = new ArrayList<>();
+            try (PreparedStatement consulta = conn.prepareStatement(
+                    "SELECT sql FROM sqlite_master WHERE tbl_name = ? AND type IN ('index', 'trigger') " +
+                    "AND sql IS NOT NULL")) {
+                consulta.setString(1, tabela);
+                try (ResultSet rs = consulta.executeQuery()) {
+                    while (rs.next()) {
+                        objetosDependentes.add(rs.getString("sql"));
+                    }
+                }
+            }
+
+            stmt.execute("CREATE TABLE " + tabelaNova + " (" + definicao + ")");
+            int linhas = stmt.executeUpdate("INSERT INTO " + tabelaNova + " (" + colunas + ") " +
+                    "SELECT " + colunas + " FROM " + tabela);
+            stmt.execute("DROP TABLE " + tabela);
+            stmt.execute("ALTER TABLE " + tabelaNova + " RENAME TO " + tabela);
+
+            for (String sql : objetosDependentes) {
+                stmt.execute(sql);
+            }
+
+            try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check(" + tabela + ")")) {
+                if (rs.next()) {
+                    throw new SQLException("A tabela " + tabela + " reconstruída viola a chave estrangeira para " +
+                            rs.getString("parent") + " (rowid " + rs.getLong("rowid") + ")");
+                }
+            }
+
+            logger.info("Tabela {} reconstruída com {} linhas", tabela, linhas);
+        }
+    }
+}
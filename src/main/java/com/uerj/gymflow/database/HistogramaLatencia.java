@@ -0,0 +1,110 @@
+package com.uerj.gymflow.database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em microssegundos, seguro para uso concorrente e sem locks.
+ *
+ * Os valores caem em faixas exponenciais com 8 subdivisões por potência de 2, então
+ * os percentis têm erro relativo de no máximo 12,5%, com memória fixa (cerca de
+ * 2,5 KB) independente da quantidade de amostras.
+ */
+public final class HistogramaLatencia {
+    private static final int SUBFAIXAS_BITS = 3;
+    private static final int SUBFAIXAS = 1 << SUBFAIXAS_BITS;
+    // Cobre até 2^40 µs (cerca de 12 dias); valores maiores vão para a última faixa
+    private static final int FAIXAS = (40 - SUBFAIXAS_BITS + 1) * SUBFAIXAS + SUBFAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder somaMicros = new LongAdder();
+    private final LongAccumulator maximoMicros = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra uma amostra
+     * @param nanos Duração em nanossegundos
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        contagens.incrementAndGet(faixa(micros));
+        total.increment();
+        somaMicros.add(micros);
+        maximoMicros.accumulate(micros);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return Média em milissegundos, ou 0 se não houver amostras
+     */
+    public double getMediaMs() {
+        long quantidade = total.sum();
+        return quantidade == 0 ? 0 : somaMicros.sum() / 1_000.0 / quantidade;
+    }
+
+    public double getMaximoMs() {
+        return maximoMicros.get() / 1_000.0;
+    }
+
+    /**
+     * Retorna o percentil aproximado, pelo limite superior da faixa que o contém
+     * @param percentil Valor entre 0 e 100, por exemplo 99 para o p99
+     * @return A latência em milissegundos, ou 0 se não houver amostras
+     */
+    public double getPercentilMs(double percentil) {
+        long quantidade = 0;
+        long[] copia = new long[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            quantidade += copia[i];
+        }
+        if (quantidade == 0) {
+            return 0;
+        }
+
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100.0 * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= posicao) {
+                return Math.min(limiteSuperior(i), maximoMicros.get()) / 1_000.0;
+            }
+        }
+        return getMaximoMs();
+    }
+
+    public void limpar() {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+        total.reset();
+        somaMicros.reset();
+        maximoMicros.reset();
+    }
+
+    private static int faixa(long micros) {
+        if (micros < SUBFAIXAS * 2) {
+            return (int) micros;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(micros);
+        int mantissa = (int) (micros >>> (expoente - SUBFAIXAS_BITS));
+        return Math.min(FAIXAS - 1, (expoente - SUBFAIXAS_BITS) * SUBFAIXAS + mantissa);
+    }
+
+    private static long limiteInferior(int faixa) {
+        if (faixa < SUBFAIXAS * 2) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS + SUBFAIXAS_BITS - 1;
+        long mantissa = faixa % SUBFAIXAS + SUBFAIXAS;
+        return mantissa << (expoente - SUBFAIXAS_BITS);
+    }
+
+    private static long limiteSuperior(int faixa) {
+        return faixa == FAIXAS - 1 ? Long.MAX_VALUE : limiteInferior(faixa + 1) - 1;
+    }
+}
@@ -0,0 +1,189 @@
+package com.uerj.gymflow.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Log de consultas lentas.
+ *
+ * Quando um comando executado por uma conexão do {@link DatabaseConnection} passa do
+ * limite configurado, grava em arquivo o SQL, os parâmetros, a duração, as linhas, o
+ * método DAO de origem e o plano do SQLite (EXPLAIN QUERY PLAN, obtido na mesma conexão
+ * com os mesmos parâmetros). O arquivo é rotacionado ao atingir o tamanho máximo,
+ * mantendo as cópias consultas-lentas.log.1 a .N.
+ *
+ * Configuração por propriedades de sistema:
+ * {@code gymflow.db.lentas.limite} - limite em milissegundos; sem ele o log fica desligado
+ * {@code gymflow.db.lentas.arquivo} - caminho do arquivo, padrão logs/consultas-lentas.log
+ * {@code gymflow.db.lentas.tamanho} - tamanho máximo do arquivo em bytes, padrão 5 MB
+ * {@code gymflow.db.lentas.copias} - quantidade de arquivos rotacionados mantidos, padrão 5
+ */
+public final class LogConsultasLentas {
+    private static final Logger logger = LoggerFactory.getLogger(LogConsultasLentas.class);
+    private static final String PREFIXO_PROPRIEDADE = "gymflow.db.lentas.";
+    private static final int TAMANHO_MAXIMO_PARAMETRO = 200;
+    private static final LogConsultasLentas instance = new LogConsultasLentas();
+
+    private final Path arquivo;
+    private final long tamanhoMaximo;
+    private final int copias;
+    private volatile long limiteNanos;
+
+    private LogConsultasLentas() {
+        this.arquivo = Path.of(System.getProperty(PREFIXO_PROPRIEDADE + "arquivo", "logs/consultas-lentas.log"));
+        this.tamanhoMaximo = Long.getLong(PREFIXO_PROPRIEDADE + "tamanho", 5L * 1024 * 1024);
+        this.copias = Integer.getInteger(PREFIXO_PROPRIEDADE + "copias", 5);
+        setLimiteMs(Long.getLong(PREFIXO_PROPRIEDADE + "limite", 0L));
+    }
+
+    public static LogConsultasLentas getInstance() {
+        return instance;
+    }
+
+    public boolean isAtivo() {
+        return limiteNanos > 0;
+    }
+
+    /**
+     * @return O limite em milissegundos, ou 0 se o log estiver desligado
+     */
+    public long getLimiteMs() {
+        return limiteNanos / 1_000_000;
+    }
+
+    /**
+     * Define o limite a partir do qual um comando é registrado. Vale para as conexões
+     * obtidas a partir de agora.
+     * @param limiteMs Limite em milissegundos; 0 ou negativo desliga o log
+     */
+    public void setLimiteMs(long limiteMs) {
+        this.limiteNanos = Math.max(0, limiteMs) * 1_000_000;
+        if (limiteMs > 0) {
+            logger.info("Log de consultas lentas ativo: limite de {} ms em {}", limiteMs, arquivo.toAbsolutePath());
+        }
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    boolean isLenta(long nanos) {
+        long limite = limiteNanos;
+        return limite > 0 && nanos >= limite;
+    }
+
+    /**
+     * Registra um comando lento. Falhas ao obter o plano ou gravar o arquivo são
+     * apenas logadas, sem afetar o comando.
+     * @param conexao Conexão original, sem envoltório, usada para o EXPLAIN QUERY PLAN
+     * @param origem Método que obteve a conexão
+     * @param sql Comando executado
+     * @param parametros Parâmetros por posição, ou vazio para Statement simples
+     * @param nanos Duração em nanossegundos
+     * @param linhas Linhas lidas ou alteradas
+     */
+    void registrar(Connection conexao, String origem, String sql, Map<Integer, Object> parametros,
+                   long nanos, long linhas) {
+        double duracaoMs = nanos / 1_000_000.0;
+        logger.warn("Consulta lenta ({} ms) em {}", String.format("%.1f", duracaoMs), origem);
+
+        StringBuilder entrada = new StringBuilder();
+        entrada.append("=== ").append(LocalDateTime.now())
+                .append(String.format(" | %.1f ms | %d linhas | ", duracaoMs, linhas))
+                .append(origem).append(" | ").append(Thread.currentThread().getName()).append('\n');
+        entrada.append("SQL: ").append(sql.replaceAll("\\s+", " ").trim()).append('\n');
+        if (!parametros.isEmpty()) {
+            entrada.append("Parâmetros: ").append(formatarParametros(parametros)).append('\n');
+        }
+        entrada.append("Plano:\n").append(obterPlano(conexao, sql, parametros)).append('\n');
+
+        gravar(entrada.toString());
+    }
+
+    private String obterPlano(Connection conexao, String sql, Map<Integer, Object> parametros) {
+        StringBuilder plano = new StringBuilder();
+        try (PreparedStatement stmt = conexao.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (Map.Entry<Integer, Object> parametro : parametros.entrySet()) {
+                stmt.setObject(parametro.getKey(), parametro.getValue());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plano.append("  ").append(rs.getString("detail")).append('\n');
+                }
+            }
+        } catch (SQLException e) {
+            plano.append("  indisponível: ").append(e.getMessage()).append('\n');
+        }
+        return plano.toString();
+    }
+
+    private static String formatarParametros(Map<Integer, Object> parametros) {
+        StringBuilder texto = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parametro : parametros.entrySet()) {
+            if (texto.length() > 1) {
+                texto.append(", ");
+            }
+            String valor = String.valueOf(parametro.getValue());
+            if (valor.length() > TAMANHO_MAXIMO_PARAMETRO) {
+                valor = valor.substring(0, TAMANHO_MAXIMO_PARAMETRO) + "...";
+            }
+            texto.append(parametro.getKey()).append('=').append(valor);
+        }
+        return texto.append(']').toString();
+    }
+
+    private synchronized void gravar(String entrada) {
+        byte[] bytes = entrada.getBytes(StandardCharsets.UTF_8);
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            if (Files.exists(arquivo) && Files.size(arquivo) + bytes.length > tamanhoMaximo) {
+                rotacionar();
+            }
+            try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entrada);
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao gravar o log de consultas lentas em {}", arquivo, e);
+        }
+    }
+
+    /**
+     * Desloca as cópias (arquivo.1 para arquivo.2, e assim por diante), descartando a
+     * mais antiga, e move o arquivo atual para arquivo.1
+     */
+    private void rotacionar() throws IOException {
+        if (copias <= 0) {
+            Files.delete(arquivo);
+            return;
+        }
+        Files.deleteIfExists(copia(copias));
+        for (int i = copias - 1; i >= 1; i--) {
+            if (Files.exists(copia(i))) {
+                Files.move(copia(i), copia(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(arquivo, copia(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path copia(int numero) {
+        return arquivo.resolveSibling(arquivo.getFileName() + "." + numero);
+    }
+}
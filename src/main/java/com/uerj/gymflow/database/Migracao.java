@@ -0,0 +1,70 @@
+package com.uerj.gymflow.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Uma alteração versionada do esquema do banco, aplicada uma única vez pelo
+ * {@link GerenciadorMigracoes} dentro de uma transação.
+ */
+public final class Migracao {
+
+    /**
+     * Corpo de uma migração, executado na conexão de escrita com a transação já aberta
+     */
+    @FunctionalInterface
+    public interface Passo {
+        void aplicar(Connection conn) throws SQLException;
+    }
+
+    private final int versao;
+    private final String descricao;
+    private final Passo passo;
+
+    public Migracao(int versao, String descricao, Passo passo) {
+        if (versao <= 0) {
+            throw new IllegalArgumentException("A versão da migração deve ser positiva: " + versao);
+        }
+        this.versao = versao;
+        this.descricao = descricao;
+        this.passo = passo;
+    }
+
+    /**
+     * Cria uma migração formada apenas por comandos SQL executados em sequência
+     * @param versao Versão do esquema após a migração
+     * @param descricao Descrição registrada em Versao_esquema
+     * @param comandos Comandos SQL
+     * @return A migração
+     */
+    public static Migracao comandos(int versao, String descricao, String... comandos) {
+        return new Migracao(versao, descricao, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : comandos) {
+                    stmt.execute(sql);
+                }
+            }
+        });
+    }
+
+    void aplicar(Connection conn) throws SQLException {
+        passo.aplicar(conn);
+    }
+
+    public int getVersao() {
+        return versao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    @Override
+    public String toString() {
+        return "Migracao{" +
+                "versao=" + versao +
+                ", descricao='" + descricao + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,238 @@
+package com.uerj.gymflow.database;
+
+import java.util.List;
+
+/**
+ * Histórico de migrações do esquema, em ordem de versão.
+ *
+ * Migrações já publicadas não devem ser alteradas: bancos existentes já as
+ * registraram em Versao_esquema. Para mudar o esquema, acrescente uma nova
+ * migração ao final da lista com a próxima versão.
+ */
+public final class Migracoes {
+    /**
+     * Recalcula Resumo_mensalidade a partir das mensalidades, agrupando como os gatilhos da
+     * migração 3. Usado na carga inicial da migração e por RelatorioFinanceiroDAO.reconstruirResumo.
+     */
+    public static final String SQL_CARREGAR_RESUMO =
+            "INSERT INTO Resumo_mensalidade (mes, fk_plano, status_pagamento, quantidade, valor) " +
+            "SELECT " + mesDoResumo("") + " AS mes, " +
+            "       IFNULL(fk_plano, 0), IFNULL(status_pagamento, ''), COUNT(*), TOTAL(valor_pago) " +
+            "FROM Mensalidade GROUP BY 1, 2, 3";
+
+    private Migracoes() {
+    }
+
+    public static List<Migracao> todas() {
+        return List.of(
+                esquemaInicial(),
+                indicesSecundarios(),
+                resumoMensalidades()
+        );
+    }
+
+    /**
+     * Tabelas originais do DatabaseCreator. Usa IF NOT EXISTS para que bancos criados
+     * antes das migrações sejam apenas registrados na versão 1.
+     */
+    private static Migracao esquemaInicial() {
+        return Migracao.comandos(1, "Esquema inicial",
+                "CREATE TABLE IF NOT EXISTS Aluno (" +
+                        "    id_aluno INTEGER PRIMARY KEY," +
+                        "    data_matricula DATE," +
+                        "    data_assinatura DATE," +
+                        "    fk_pessoa INTEGER," +
+                        "    fk_plano INTEGER," +
+                        "    FOREIGN KEY (fk_pessoa) REFERENCES Pessoa(id_pessoa) ON DELETE CASCADE," +
+                        "    FOREIGN KEY (fk_plano) REFERENCES Plano(id_plano)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Funcionario (" +
+                        "    id_funcionario INTEGER PRIMARY KEY," +
+                        "    cargo VARCHAR," +
+                        "    data_admissao DATE," +
+                        "    salario FLOAT," +
+                        "    fk_pessoa INTEGER," +
+                        "    FOREIGN KEY (fk_pessoa) REFERENCES Pessoa(id_pessoa) ON DELETE CASCADE" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Pessoa (" +
+                        "    id_pessoa INTEGER PRIMARY KEY," +
+                        "    nome VARCHAR," +
+                        "    data_nascimento DATE," +
+                        "    cpf VARCHAR," +
+                        "    telefone VARCHAR," +
+                        "    email VARCHAR," +
+                        "    UNIQUE (cpf, email)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Plano (" +
+                        "    id_plano INTEGER PRIMARY KEY," +
+                        "    nome_plano VARCHAR UNIQUE," +
+                        "    descricao VARCHAR," +
+                        "    duracao INTEGER," +
+                        "    valor_mensal FLOAT" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Exercicio (" +
+                        "    id_exercicio INTEGER PRIMARY KEY," +
+                        "    nome_exercicio VARCHAR UNIQUE," +
+                        "    descricao VARCHAR," +
+                        "    grupo_muscular VARCHAR" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Avaliacao (" +
+                        "    id_avaliacao INTEGER PRIMARY KEY," +
+                        "    data_avaliacao DATE," +
+                        "    peso FLOAT," +
+                        "    altura FLOAT," +
+                        "    percentual_gordura FLOAT," +
+                        "    observacoes VARCHAR," +
+                        "    fk_professor INTEGER," +
+                        "    fk_aluno INTEGER," +
+                        "    FOREIGN KEY (fk_professor) REFERENCES Professor(id_professor)," +
+                        "    FOREIGN KEY (fk_aluno) REFERENCES Aluno(id_aluno)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Mensalidade (" +
+                        "    id_mensalidade INTEGER PRIMARY KEY," +
+                        "    data_vencimento DATE," +
+                        "    data_pagamento DATE," +
+                        "    valor_pago FLOAT," +
+                        "    status_pagamento VARCHAR," +
+                        "    fk_plano INTEGER," +
+                        "    fk_aluno INTEGER," +
+                        "    FOREIGN KEY (fk_plano) REFERENCES Plano(id_plano)," +
+                        "    FOREIGN KEY (fk_aluno) REFERENCES Aluno(id_aluno)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Professor (" +
+                        "    id_professor INTEGER PRIMARY KEY," +
+                        "    especialidade VARCHAR," +
+                        "    cref VARCHAR," +
+                        "    fk_funcionario INTEGER," +
+                        "    FOREIGN KEY (fk_funcionario) REFERENCES Funcionario(id_funcionario)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Treino (" +
+                        "    id_treino INTEGER PRIMARY KEY," +
+                        "    nome_treino VARCHAR UNIQUE," +
+                        "    data_criacao DATE," +
+                        "    observacoes VARCHAR," +
+                        "    fk_professor INTEGER," +
+                        "    FOREIGN KEY (fk_professor) REFERENCES Professor(id_professor)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Treino_exercicio (" +
+                        "    id_treino INTEGER," +
+                        "    id_exercicio INTEGER," +
+                        "    repeticoes INTEGER," +
+                        "    series INTEGER," +
+                        "    carga FLOAT," +
+                        "    ordem INTEGER," +
+                        "    observacoes VARCHAR," +
+                        "    PRIMARY KEY (id_treino, id_exercicio)," +
+                        "    FOREIGN KEY (id_treino) REFERENCES Treino(id_treino)," +
+                        "    FOREIGN KEY (id_exercicio) REFERENCES Exercicio(id_exercicio)" +
+                        ")",
+
+                "CREATE TABLE IF NOT EXISTS Aluno_treino (" +
+                        "    id_aluno INTEGER," +
+                        "    id_treino INTEGER," +
+                        "    data_inicio DATE," +
+                        "    data_fim DATE," +
+                        "    observacoes VARCHAR," +
+                        "    PRIMARY KEY (id_aluno, id_treino)," +
+                        "    FOREIGN KEY (id_aluno) REFERENCES Aluno(id_aluno)," +
+                        "    FOREIGN KEY (id_treino) REFERENCES Treino(id_treino)" +
+                        ")"
+        );
+    }
+
+    /**
+     * Índices das chaves estrangeiras e dos filtros usados pelos DAOs, incluindo
+     * índices parciais para mensalidades em aberto e pagas
+     */
+    private static Migracao indicesSecundarios() {
+        return Migracao.comandos(2, "Índices secundários",
+                // Mensalidades por aluno (buscarPorAluno) e verificação de mensalidade já gerada no mês
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_aluno_vencimento ON Mensalidade (fk_aluno, data_vencimento)",
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_plano ON Mensalidade (fk_plano)",
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_status_vencimento ON Mensalidade (status_pagamento, data_vencimento)",
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_vencimento ON Mensalidade (data_vencimento)",
+                // Parciais: só as mensalidades pagas têm data de pagamento, e só as em aberto podem estar atrasadas
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_pagamento ON Mensalidade (data_pagamento) " +
+                        "WHERE data_pagamento IS NOT NULL",
+                "CREATE INDEX IF NOT EXISTS idx_mensalidade_em_aberto ON Mensalidade (data_vencimento) " +
+                        "WHERE status_pagamento IS NOT 'Pago'",
+
+                "CREATE INDEX IF NOT EXISTS idx_avaliacao_aluno_data ON Avaliacao (fk_aluno, data_avaliacao)",
+                "CREATE INDEX IF NOT EXISTS idx_aluno_pessoa ON Aluno (fk_pessoa)",
+                "CREATE INDEX IF NOT EXISTS idx_aluno_plano ON Aluno (fk_plano)",
+                // Pessoa.cpf já é coberto pelo índice de UNIQUE (cpf, email); o e-mail sozinho não
+                "CREATE INDEX IF NOT EXISTS idx_pessoa_email ON Pessoa (email)",
+                "CREATE INDEX IF NOT EXISTS idx_funcionario_pessoa ON Funcionario (fk_pessoa)",
+                "CREATE INDEX IF NOT EXISTS idx_professor_funcionario ON Professor (fk_funcionario)",
+                "CREATE INDEX IF NOT EXISTS idx_professor_cref ON Professor (cref)",
+                "CREATE INDEX IF NOT EXISTS idx_treino_professor ON Treino (fk_professor)",
+                "CREATE INDEX IF NOT EXISTS idx_aluno_treino_treino ON Aluno_treino (id_treino, data_inicio)",
+                "CREATE INDEX IF NOT EXISTS idx_treino_exercicio_exercicio ON Treino_exercicio (id_exercicio)"
+        );
+    }
+
+    /**
+     * Resumo das mensalidades por mês, plano e status, mantido por gatilhos na mesma transação
+     * de cada escrita em Mensalidade. O mês é o do pagamento para as pagas e o do vencimento para
+     * as demais; plano e status ausentes ficam como 0 e ''. As datas são milissegundos desde
+     * 1970-01-01 à meia-noite local, como gravadas pelo driver.
+     */
+    private static Migracao resumoMensalidades() {
+        String mesNovo = mesDoResumo("NEW.");
+        String mesAntigo = mesDoResumo("OLD.");
+        String somarNovo =
+                "    INSERT INTO Resumo_mensalidade (mes, fk_plano, status_pagamento, quantidade, valor) " +
+                "    VALUES (" + mesNovo + ", IFNULL(NEW.fk_plano, 0), IFNULL(NEW.status_pagamento, ''), 1, " +
+                "            IFNULL(NEW.valor_pago, 0)) " +
+                "    ON CONFLICT (mes, fk_plano, status_pagamento) DO UPDATE SET " +
+                "        quantidade = quantidade + 1, valor = valor + excluded.valor;";
+        String subtrairAntigo =
+                "    UPDATE Resumo_mensalidade SET quantidade = quantidade - 1, valor = valor - IFNULL(OLD.valor_pago, 0) " +
+                "    WHERE mes = " + mesAntigo + " AND fk_plano = IFNULL(OLD.fk_plano, 0) " +
+                "      AND status_pagamento = IFNULL(OLD.status_pagamento, '');" +
+                "    DELETE FROM Resumo_mensalidade " +
+                "    WHERE mes = " + mesAntigo + " AND fk_plano = IFNULL(OLD.fk_plano, 0) " +
+                "      AND status_pagamento = IFNULL(OLD.status_pagamento, '') AND quantidade <= 0;";
+
+        return Migracao.comandos(3, "Resumo mensal das mensalidades",
+                "CREATE TABLE IF NOT EXISTS Resumo_mensalidade (" +
+                        "    mes TEXT NOT NULL," +
+                        "    fk_plano INTEGER NOT NULL," +
+                        "    status_pagamento TEXT NOT NULL," +
+                        "    quantidade INTEGER NOT NULL," +
+                        "    valor REAL NOT NULL," +
+                        "    PRIMARY KEY (mes, fk_plano, status_pagamento)" +
+                        ") WITHOUT ROWID",
+
+                "CREATE TRIGGER IF NOT EXISTS trg_mensalidade_resumo_inclusao AFTER INSERT ON Mensalidade " +
+                        "BEGIN " + somarNovo + " END",
+                "CREATE TRIGGER IF NOT EXISTS trg_mensalidade_resumo_exclusao AFTER DELETE ON Mensalidade " +
+                        "BEGIN " + subtrairAntigo + " END",
+                "CREATE TRIGGER IF NOT EXISTS trg_mensalidade_resumo_alteracao " +
+                        "AFTER UPDATE OF data_vencimento, data_pagamento, valor_pago, status_pagamento, fk_plano " +
+                        "ON Mensalidade BEGIN " + subtrairAntigo + somarNovo + " END",
+
+                // Carga inicial a partir das mensalidades já existentes
+                SQL_CARREGAR_RESUMO
+        );
+    }
+
+    /**
+     * Mês em que uma mensalidade entra no resumo: o do pagamento para as pagas e o do
+     * vencimento para as demais, ou '' se a data não existir
+     * @param linha Prefixo das colunas: vazio na consulta sobre a tabela, NEW. ou OLD. nos gatilhos
+     */
+    private static String mesDoResumo(String linha) {
+        return "IFNULL(strftime('%Y-%m', IFNULL(CASE WHEN " + linha + "status_pagamento = 'Pago' " +
+                "THEN " + linha + "data_pagamento END, " + linha + "data_vencimento) / 1000, 'unixepoch', 'localtime'), '')";
+    }
+}
@@ -0,0 +1,143 @@
+package com.uerj.gymflow.database;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Perfis de ajuste do SQLite aplicados a todas as conexões do pool.
+ *
+ * O perfil é escolhido fora do código pela propriedade de sistema
+ * {@code gymflow.db.perfil} ou pela variável de ambiente {@code GYMFLOW_DB_PERFIL}
+ * (valores: padrao, leitura, escrita). Cada pragma também pode ser sobrescrito
+ * individualmente, por exemplo {@code -Dgymflow.db.synchronous=FULL}.
+ *
+ * Todos os perfis usam WAL com synchronous NORMAL (leitores não bloqueiam o escritor e
+ * o commit não espera o fsync, que fica para o checkpoint) e tabelas temporárias em
+ * memória. O que muda entre eles:
+ * <ul>
+ *   <li>cache_size e mmap_size: páginas mantidas por conexão. O mmap só atende leituras;
+ *   as escritas passam pelo cache de páginas e pelo WAL.</li>
+ *   <li>busy_timeout: quanto uma conexão espera pelo lock de escrita antes de falhar.</li>
+ *   <li>wal_autocheckpoint: páginas acumuladas no WAL até o checkpoint automático, que roda
+ *   no commit do escritor. Não é aceito como propriedade pelo driver, então é aplicado pelo
+ *   comando inicial das conexões de escrita ({@link #comandoInicialEscrita()}).</li>
+ *   <li>journal_size_limit: tamanho em bytes a que o arquivo WAL é truncado após um
+ *   checkpoint, para não ficar no tamanho de pico depois de uma carga grande.</li>
+ * </ul>
+ */
+public enum PerfilSQLite {
+    /**
+     * Equilíbrio entre leitura e escrita, usado quando nenhum perfil é informado: 16 MB de cache
+     * e 128 MB de mmap por conexão, 5 s de espera pelo lock, checkpoint a cada 1000 páginas
+     * (o padrão do SQLite, cerca de 4 MB de WAL) e WAL truncado a 64 MB.
+     */
+    PADRAO("WAL", "NORMAL", 134217728L, -16000, "MEMORY", 5000, 1000, 67108864L),
+
+    /**
+     * Consultas e listagens pesadas: 64 MB de cache e 256 MB de mmap, para que as tabelas e os
+     * índices mais usados fiquem em memória. As escritas são raras, então o WAL segue o padrão.
+     */
+    LEITURA("WAL", "NORMAL", 268435456L, -65536, "MEMORY", 5000, 1000, 67108864L),
+
+    /**
+     * Cargas e rotinas de faturamento. O mmap fica como no padrão, porque só serve às leituras
+     * da manutenção dos índices; o cache de 32 MB guarda as páginas de índice tocadas pelos
+     * INSERTs em lote. O checkpoint a cada 10000 páginas (cerca de 40 MB de WAL) interrompe
+     * menos as transações longas, e o WAL é truncado a 128 MB depois dele. A espera de 15 s
+     * pelo lock cobre uma transação de carga em andamento em outro processo.
+     */
+    ESCRITA("WAL", "NORMAL", 134217728L, -32000, "MEMORY", 15000, 10000, 134217728L);
+
+    static final String PROPRIEDADE_PERFIL = "gymflow.db.perfil";
+    static final String VARIAVEL_PERFIL = "GYMFLOW_DB_PERFIL";
+    private static final String PREFIXO_PRAGMA = "gymflow.db.";
+    private static final String PRAGMA_WAL_AUTOCHECKPOINT = "wal_autocheckpoint";
+    private static final String[] PRAGMAS = {
+            "journal_mode", "synchronous", "mmap_size", "cache_size", "temp_store", "busy_timeout",
+            "journal_size_limit"
+    };
+
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final String tempStore;
+    private final int busyTimeout;
+    private final int walAutocheckpoint;
+    private final long journalSizeLimit;
+
+    PerfilSQLite(String journalMode, String synchronous, long mmapSize, int cacheSize,
+                 String tempStore, int busyTimeout, int walAutocheckpoint, long journalSizeLimit) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeout = busyTimeout;
+        this.walAutocheckpoint = walAutocheckpoint;
+        this.journalSizeLimit = journalSizeLimit;
+    }
+
+    /**
+     * Retorna o perfil configurado externamente ou PADRAO se nenhum for informado
+     * @return O perfil selecionado
+     */
+    public static PerfilSQLite selecionado() {
+        String nome = System.getProperty(PROPRIEDADE_PERFIL, System.getenv(VARIAVEL_PERFIL));
+        if (nome == null || nome.isBlank()) {
+            return PADRAO;
+        }
+
+        try {
+            return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Perfil SQLite desconhecido: " + nome +
+                    " (use padrao, leitura ou escrita)", e);
+        }
+    }
+
+    /**
+     * Monta as propriedades de conexão do driver sqlite-jdbc, que aplica cada
+     * pragma ao abrir a conexão. Sobrescritas por propriedade de sistema têm
+     * prioridade sobre os valores do perfil.
+     * @return Propriedades a serem repassadas ao driver
+     */
+    public Properties comoPropriedades() {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("journal_mode", journalMode);
+        propriedades.setProperty("synchronous", synchronous);
+        propriedades.setProperty("mmap_size", String.valueOf(mmapSize));
+        propriedades.setProperty("cache_size", String.valueOf(cacheSize));
+        propriedades.setProperty("temp_store", tempStore);
+        propriedades.setProperty("busy_timeout", String.valueOf(busyTimeout));
+        propriedades.setProperty("journal_size_limit", String.valueOf(journalSizeLimit));
+
+        for (String pragma : PRAGMAS) {
+            String valor = System.getProperty(PREFIXO_PRAGMA + pragma);
+            if (valor != null && !valor.isBlank()) {
+                propriedades.setProperty(pragma, valor.trim());
+            }
+        }
+
+        return propriedades;
+    }
+
+    /**
+     * Comando executado pelo pool ao abrir cada conexão de escrita, com os pragmas que o
+     * driver não aceita como propriedade. Também pode ser sobrescrito por propriedade de
+     * sistema, como {@code -Dgymflow.db.wal_autocheckpoint=2000}.
+     * @return O comando PRAGMA a executar
+     */
+    public String comandoInicialEscrita() {
+        int paginas = walAutocheckpoint;
+        String valor = System.getProperty(PREFIXO_PRAGMA + PRAGMA_WAL_AUTOCHECKPOINT);
+        if (valor != null && !valor.isBlank()) {
+            try {
+                paginas = Integer.parseInt(valor.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + PRAGMA_WAL_AUTOCHECKPOINT + ": " + valor, e);
+            }
+        }
+        return "PRAGMA " + PRAGMA_WAL_AUTOCHECKPOINT + " = " + paginas;
+    }
+}
@@ -0,0 +1,234 @@
+package com.uerj.gymflow.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro em memória das métricas de acesso ao banco.
+ *
+ * Com a coleta ativa, cada conexão entregue pelo {@link DatabaseConnection} é envolvida
+ * por {@link ConexaoInstrumentada}, que registra:
+ * - por método DAO: chamadas, linhas lidas ou alteradas e o tempo entre obter e fechar a conexão;
+ * - por comando SQL: execuções, linhas e o tempo gasto no banco (execução e leitura do resultado);
+ * - a espera para obter uma conexão de leitura ou de escrita.
+ * Os medidores dos pools (conexões ativas, ociosas, threads aguardando) são lidos na hora do relatório.
+ *
+ * A coleta é ligada pela propriedade {@code gymflow.metricas=true} ou em tempo de execução
+ * pelo menu principal. Desligada, as conexões são entregues sem nenhum envoltório.
+ */
+public final class RegistroMetricas {
+    private static final Logger logger = LoggerFactory.getLogger(RegistroMetricas.class);
+    static final String PROPRIEDADE_ATIVO = "gymflow.metricas";
+    private static final RegistroMetricas instance = new RegistroMetricas();
+    private static final int MAXIMO_COMANDOS_RELATORIO = 20;
+    private static final int TAMANHO_MAXIMO_SQL_RELATORIO = 90;
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+
+    /**
+     * Contadores e histograma de latência de um método DAO, comando SQL ou tipo de conexão
+     */
+    public static final class Metrica {
+        private final LongAdder chamadas = new LongAdder();
+        private final LongAdder linhas = new LongAdder();
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+
+        void registrar(long nanos, long quantidadeLinhas) {
+            chamadas.increment();
+            linhas.add(quantidadeLinhas);
+            latencia.registrar(nanos);
+        }
+
+        public long getChamadas() {
+            return chamadas.sum();
+        }
+
+        public long getLinhas() {
+            return linhas.sum();
+        }
+
+        public HistogramaLatencia getLatencia() {
+            return latencia;
+        }
+
+        private double getTempoTotalMs() {
+            return latencia.getMediaMs() * latencia.getTotal();
+        }
+    }
+
+    private volatile boolean ativo = Boolean.getBoolean(PROPRIEDADE_ATIVO);
+    private volatile LocalDateTime inicioColeta = LocalDateTime.now();
+    private final Map<String, Metrica> porMetodo = new ConcurrentHashMap<>();
+    private final Map<String, Metrica> porComando = new ConcurrentHashMap<>();
+    private final Map<TipoConexao, Metrica> esperaConexao = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> medidores = new ConcurrentSkipListMap<>();
+
+    private RegistroMetricas() {
+    }
+
+    public static RegistroMetricas getInstance() {
+        return instance;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Liga ou desliga a coleta. Vale para as conexões obtidas a partir de agora;
+     * as métricas já coletadas são mantidas.
+     */
+    public void setAtivo(boolean ativo) {
+        if (ativo && !this.ativo) {
+            inicioColeta = LocalDateTime.now();
+        }
+        this.ativo = ativo;
+        logger.info("Coleta de métricas do banco {}", ativo ? "ativada" : "desativada");
+    }
+
+    /**
+     * Descarta as métricas coletadas até agora
+     */
+    public void limpar() {
+        porMetodo.clear();
+        porComando.clear();
+        esperaConexao.clear();
+        inicioColeta = LocalDateTime.now();
+    }
+
+    /**
+     * Registra um medidor, lido no momento do relatório
+     * @param nome Nome exibido no relatório
+     * @param medidor Função que retorna o valor atual
+     */
+    public void registrarMedidor(String nome, LongSupplier medidor) {
+        medidores.put(nome, medidor);
+    }
+
+    /**
+     * @return Métricas por método DAO, no formato Classe.metodo
+     */
+    public Map<String, Metrica> getMetricasPorMetodo() {
+        return Collections.unmodifiableMap(porMetodo);
+    }
+
+    /**
+     * @return Métricas por comando SQL, pelo texto do comando
+     */
+    public Map<String, Metrica> getMetricasPorComando() {
+        return Collections.unmodifiableMap(porComando);
+    }
+
+    void registrarMetodo(String metodo, long nanos, long linhas) {
+        porMetodo.computeIfAbsent(metodo, chave -> new Metrica()).registrar(nanos, linhas);
+    }
+
+    void registrarComando(String sql, long nanos, long linhas) {
+        porComando.computeIfAbsent(sql, chave -> new Metrica()).registrar(nanos, linhas);
+    }
+
+    void registrarEsperaConexao(TipoConexao tipo, long nanos) {
+        esperaConexao.computeIfAbsent(tipo, chave -> new Metrica()).registrar(nanos, 0);
+    }
+
+    /**
+     * Identifica quem pediu a conexão: o primeiro método da pilha fora do DatabaseConnection
+     * @return O método no formato Classe.metodo
+     */
+    static String origemDaChamada() {
+        return stackWalker.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(DatabaseConnection.class.getName())
+                        && !frame.getClassName().equals(RegistroMetricas.class.getName()))
+                .findFirst()
+                .map(frame -> {
+                    String classe = frame.getClassName();
+                    return classe.substring(classe.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse("desconhecido"));
+    }
+
+    /**
+     * Monta o relatório em texto das métricas coletadas e dos medidores dos pools e caches
+     * @return O relatório
+     */
+    public String gerarRelatorio() {
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append("Coleta: ").append(ativo ? "ativa" : "desativada")
+                .append(" | desde ").append(inicioColeta.format(FORMATO_DATA)).append('\n');
+
+        relatorio.append("\n-- Medidores (pools de conexão e caches) --\n");
+        for (Map.Entry<String, LongSupplier> medidor : medidores.entrySet()) {
+            String valor;
+            try {
+                valor = String.valueOf(medidor.getValue().getAsLong());
+            } catch (RuntimeException e) {
+                valor = "indisponível";
+            }
+            relatorio.append(String.format("%-32s %s%n", medidor.getKey(), valor));
+        }
+
+        relatorio.append("\n-- Espera por conexão (ms) --\n");
+        relatorio.append(cabecalho("Tipo", 12));
+        for (TipoConexao tipo : TipoConexao.values()) {
+            Metrica metrica = esperaConexao.get(tipo);
+            if (metrica != null) {
+                relatorio.append(linha(tipo.name(), 12, metrica));
+            }
+        }
+
+        relatorio.append("\n-- Métodos DAO (tempo com a conexão aberta, ms) --\n");
+        relatorio.append(cabecalho("Método", 44));
+        for (Map.Entry<String, Metrica> entrada : ordenarPorTempoTotal(porMetodo, Integer.MAX_VALUE)) {
+            relatorio.append(linha(entrada.getKey(), 44, entrada.getValue()));
+        }
+
+        relatorio.append("\n-- Comandos SQL (tempo no banco, ms; ")
+                .append(MAXIMO_COMANDOS_RELATORIO).append(" de maior tempo total) --\n");
+        int posicao = 1;
+        for (Map.Entry<String, Metrica> entrada : ordenarPorTempoTotal(porComando, MAXIMO_COMANDOS_RELATORIO)) {
+            relatorio.append(String.format("#%d %s%n", posicao++, resumirSql(entrada.getKey())));
+            relatorio.append(linha("", 4, entrada.getValue()));
+        }
+
+        return relatorio.toString();
+    }
+
+    private static List<Map.Entry<String, Metrica>> ordenarPorTempoTotal(Map<String, Metrica> metricas, int limite) {
+        List<Map.Entry<String, Metrica>> entradas = new ArrayList<>(metricas.entrySet());
+        entradas.sort(Comparator.comparingDouble(
+                (Map.Entry<String, Metrica> entrada) -> entrada.getValue().getTempoTotalMs()).reversed());
+        return entradas.size() > limite ? entradas.subList(0, limite) : entradas;
+    }
+
+    private static String cabecalho(String titulo, int largura) {
+        return String.format("%-" + largura + "s %9s %10s %9s %9s %9s %9s %9s%n",
+                titulo, "Chamadas", "Linhas", "Média", "p50", "p95", "p99", "Máx");
+    }
+
+    private static String linha(String nome, int largura, Metrica metrica) {
+        HistogramaLatencia latencia = metrica.getLatencia();
+        return String.format("%-" + largura + "s %9d %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                nome, metrica.getChamadas(), metrica.getLinhas(), latencia.getMediaMs(),
+                latencia.getPercentilMs(50), latencia.getPercentilMs(95), latencia.getPercentilMs(99),
+                latencia.getMaximoMs());
+    }
+
+    private static String resumirSql(String sql) {
+        String resumo = sql.replaceAll("\\s+", " ").trim();
+        return resumo.length() > TAMANHO_MAXIMO_SQL_RELATORIO
+                ? resumo.substring(0, TAMANHO_MAXIMO_SQL_RELATORIO - 3) + "..."
+                : resumo;
+    }
+}
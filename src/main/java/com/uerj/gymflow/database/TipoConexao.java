@@ -0,0 +1,12 @@
+package com.uerj.gymflow.database;
+
+/**
+ * Tipo de conexão que um DAO solicita ao {@link DatabaseConnection}
+ */
+public enum TipoConexao {
+    /** Conexão somente leitura do pool de consultas */
+    LEITURA,
+
+    /** Conexão única de escrita; as escritas são atendidas em fila, uma de cada vez */
+    ESCRITA
+}
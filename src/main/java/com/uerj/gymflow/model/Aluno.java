@@ -7,7 +7,7 @@ public class Aluno extends Pessoa {
     private LocalDate dataMatricula;
     private LocalDate dataAssinatura;
     private Integer idPlano;
-    private Plano plano;
+    private Referencia<Plano> plano;
     
     public Aluno() {
     }
@@ -53,13 +53,27 @@ public class Aluno extends Pessoa {
     }
     
     public Plano getPlano() {
-        return plano;
+        return plano != null ? plano.get() : null;
     }
     
     public void setPlano(Plano plano) {
+        this.plano = plano != null ? Referencia.carregada(plano.getIdPlano(), plano) : null;
+    }
+    
+    /**
+     * Define o plano por uma referência, que pode ser carregada apenas no primeiro acesso a getPlano()
+     */
+    public void setReferenciaPlano(Referencia<Plano> plano) {
         this.plano = plano;
     }
     
+    /**
+     * @return true se não houver plano ou se ele já estiver carregado, sem acessar o banco
+     */
+    public boolean isPlanoCarregado() {
+        return plano == null || plano.isCarregada();
+    }
+    
     @Override
     public String toString() {
         return "Aluno{" +
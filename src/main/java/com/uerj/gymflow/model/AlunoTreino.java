@@ -10,7 +10,7 @@ public class AlunoTreino {
     private String observacoes;
     
     private Aluno aluno;
-    private Treino treino;
+    private Referencia<Treino> treino;
 
     public AlunoTreino() {
         this.dataInicio = LocalDate.now();
@@ -76,16 +76,33 @@ public class AlunoTreino {
     }
 
     public Treino getTreino() {
-        return treino;
+        return treino != null ? treino.get() : null;
     }
 
     public void setTreino(Treino treino) {
-        this.treino = treino;
+        this.treino = treino != null ? Referencia.carregada(treino.getIdTreino(), treino) : null;
         if (treino != null) {
             this.idTreino = treino.getIdTreino();
         }
     }
 
+    /**
+     * Define o treino por uma referência, que pode ser carregada apenas no primeiro acesso a getTreino()
+     */
+    public void setReferenciaTreino(Referencia<Treino> treino) {
+        this.treino = treino;
+        if (treino != null) {
+            this.idTreino = treino.getId();
+        }
+    }
+
+    /**
+     * @return true se não houver treino ou se ele já estiver carregado, sem acessar o banco
+     */
+    public boolean isTreinoCarregado() {
+        return treino == null || treino.isCarregada();
+    }
+
     /**
      * Verifica se o treino está ativo na data atual
      * @return true se o treino estiver ativo
@@ -110,7 +127,7 @@ public class AlunoTreino {
             return -1;
         }
         
-        return (int) hoje.until(dataFim).getDays();
+        return hoje.until(dataFim).getDays();
     }
 
     @Override
@@ -1,8 +1,15 @@
 package com.uerj.gymflow.model;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public class Avaliacao {
+    /**
+     * Classificações do IMC de acordo com a OMS, na ordem das faixas de {@link #faixaIMC(float)}
+     */
+    public static final List<String> CLASSIFICACOES_IMC = List.of("Abaixo do peso", "Peso normal", "Sobrepeso",
+            "Obesidade grau 1", "Obesidade grau 2", "Obesidade grau 3");
+
     private Integer idAvaliacao;
     private LocalDate dataAvaliacao;
     private Float peso;
@@ -12,7 +19,7 @@ public class Avaliacao {
     private Integer idProfessor;
     
     private Aluno aluno;
-    private Professor professor;
+    private Referencia<Professor> professor;
 
     public Avaliacao() {
         this.dataAvaliacao = LocalDate.now();
@@ -96,15 +103,32 @@ public class Avaliacao {
     }
 
     public Professor getProfessor() {
-        return professor;
+        return professor != null ? professor.get() : null;
     }
 
     public void setProfessor(Professor professor) {
-        this.professor = professor;
+        this.professor = professor != null ? Referencia.carregada(professor.getIdProfessor(), professor) : null;
         if (professor != null) {
             this.idProfessor = professor.getIdProfessor();
         }
     }
+
+    /**
+     * Define o professor por uma referência, que pode ser carregada apenas no primeiro acesso a getProfessor()
+     */
+    public void setReferenciaProfessor(Referencia<Professor> professor) {
+        this.professor = professor;
+        if (professor != null) {
+            this.idProfessor = professor.getId();
+        }
+    }
+
+    /**
+     * @return true se não houver professor ou se ele já estiver carregado, sem acessar o banco
+     */
+    public boolean isProfessorCarregado() {
+        return professor == null || professor.isCarregada();
+    }
     
     /**
      * Calcula o IMC (Índice de Massa Corporal) baseado no peso e altura.
@@ -113,16 +137,29 @@ public class Avaliacao {
      */
     public Float calcularIMC() {
         if (this.peso != null && this.altura != null && this.altura > 0) {
-            // Altura deve estar em metros para o cálculo
-            float alturaMetros = this.altura;
-            if (alturaMetros > 3) {
-                // Se altura for maior que 3, provavelmente está em centímetros
-                alturaMetros = alturaMetros / 100;
-            }
-            return this.peso / (alturaMetros * alturaMetros);
+            return calcularIMC(this.peso, this.altura);
         }
         return null;
     }
+
+    /**
+     * Calcula o IMC a partir de valores primitivos, para uso em cálculos sobre muitas avaliações
+     * @param peso Peso em quilos
+     * @param altura Altura em metros ou, se maior que 3, em centímetros
+     * @return O valor do IMC ou NaN se a altura não for positiva ou algum valor for NaN
+     */
+    public static float calcularIMC(float peso, float altura) {
+        if (!(altura > 0)) {
+            return Float.NaN;
+        }
+        // Altura deve estar em metros para o cálculo
+        float alturaMetros = altura;
+        if (alturaMetros > 3) {
+            // Se altura for maior que 3, provavelmente está em centímetros
+            alturaMetros = alturaMetros / 100;
+        }
+        return peso / (alturaMetros * alturaMetros);
+    }
     
     /**
      * Retorna a classificação do IMC de acordo com a OMS
@@ -133,19 +170,27 @@ public class Avaliacao {
         if (imc == null) {
             return "Não calculado";
         }
-        
+        return CLASSIFICACOES_IMC.get(faixaIMC(imc));
+    }
+
+    /**
+     * Retorna a faixa de classificação de um IMC, índice de {@link #CLASSIFICACOES_IMC}
+     * @param imc Valor do IMC, que não pode ser NaN
+     * @return Faixa entre 0 (abaixo do peso) e 5 (obesidade grau 3)
+     */
+    public static int faixaIMC(float imc) {
         if (imc < 18.5) {
-            return "Abaixo do peso";
+            return 0;
         } else if (imc < 25) {
-            return "Peso normal";
+            return 1;
         } else if (imc < 30) {
-            return "Sobrepeso";
+            return 2;
         } else if (imc < 35) {
-            return "Obesidade grau 1";
+            return 3;
         } else if (imc < 40) {
-            return "Obesidade grau 2";
+            return 4;
         } else {
-            return "Obesidade grau 3";
+            return 5;
         }
     }
     
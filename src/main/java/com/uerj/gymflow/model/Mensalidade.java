@@ -11,7 +11,7 @@ public class Mensalidade {
     private Integer idPlano;
     private Plano plano;
     private Integer idAluno;
-    private Aluno aluno;
+    private Referencia<Aluno> aluno;
 
     public Mensalidade() {
     }
@@ -102,16 +102,33 @@ public class Mensalidade {
     }
 
     public Aluno getAluno() {
-        return aluno;
+        return aluno != null ? aluno.get() : null;
     }
 
     public void setAluno(Aluno aluno) {
-        this.aluno = aluno;
+        this.aluno = aluno != null ? Referencia.carregada(aluno.getIdAluno(), aluno) : null;
         if (aluno != null) {
             this.idAluno = aluno.getIdAluno();
         }
     }
 
+    /**
+     * Define o aluno por uma referência, que pode ser carregada apenas no primeiro acesso a getAluno()
+     */
+    public void setReferenciaAluno(Referencia<Aluno> aluno) {
+        this.aluno = aluno;
+        if (aluno != null) {
+            this.idAluno = aluno.getId();
+        }
+    }
+
+    /**
+     * @return true se não houver aluno ou se ele já estiver carregado, sem acessar o banco
+     */
+    public boolean isAlunoCarregado() {
+        return aluno == null || aluno.isCarregada();
+    }
+
     /**
      * Registra o pagamento da mensalidade
      * @param dataPagamento Data em que o pagamento foi realizado
@@ -0,0 +1,63 @@
+package com.uerj.gymflow.model;
+
+import java.util.function.Function;
+
+/**
+ * Referência a uma entidade relacionada, guardada pela chave estrangeira.
+ *
+ * Pode ser criada já com a entidade ou com um carregador; nesse caso a entidade só é
+ * buscada no primeiro acesso a {@link #get()}, e os acessos seguintes retornam a mesma
+ * instância. Assim como as entidades, não é segura para uso concorrente.
+ */
+public final class Referencia<T> {
+    private final Integer id;
+    private Function<Integer, T> carregador;
+    private T entidade;
+
+    private Referencia(Integer id, T entidade, Function<Integer, T> carregador) {
+        this.id = id;
+        this.entidade = entidade;
+        this.carregador = carregador;
+    }
+
+    /**
+     * Cria uma referência para uma entidade já carregada
+     * @param id ID da entidade
+     * @param entidade A entidade
+     */
+    public static <T> Referencia<T> carregada(Integer id, T entidade) {
+        return new Referencia<>(id, entidade, null);
+    }
+
+    /**
+     * Cria uma referência que busca a entidade apenas no primeiro acesso
+     * @param id ID da entidade
+     * @param carregador Função que busca a entidade pelo ID
+     */
+    public static <T> Referencia<T> tardia(Integer id, Function<Integer, T> carregador) {
+        return new Referencia<>(id, null, carregador);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @return true se a entidade já foi buscada (ou se a referência foi criada com ela)
+     */
+    public boolean isCarregada() {
+        return carregador == null;
+    }
+
+    /**
+     * Retorna a entidade, buscando-a no primeiro acesso se necessário
+     * @return A entidade ou null se não existir
+     */
+    public T get() {
+        if (carregador != null) {
+            entidade = carregador.apply(id);
+            carregador = null;
+        }
+        return entidade;
+    }
+}
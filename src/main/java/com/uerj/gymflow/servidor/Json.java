@@ -0,0 +1,233 @@
+package com.uerj.gymflow.servidor;
+
+import java.lang.reflect.RecordComponent;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversão mínima de e para JSON usada pelo servidor da recepção, sem dependências externas.
+ *
+ * A escrita aceita null, textos, números, booleanos, datas (no formato ISO), Map, Iterable,
+ * vetores de objetos e records, cujos componentes viram os campos do objeto. A leitura aceita
+ * apenas um objeto sem aninhamento, como os corpos das requisições, e devolve os valores
+ * como texto.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String escrever(Object valor) {
+        StringBuilder saida = new StringBuilder(256);
+        escrever(valor, saida);
+        return saida.toString();
+    }
+
+    private static void escrever(Object valor, StringBuilder saida) {
+        if (valor == null) {
+            saida.append("null");
+        } else if (valor instanceof CharSequence || valor instanceof TemporalAccessor || valor instanceof Enum<?>) {
+            escreverTexto(valor.toString(), saida);
+        } else if (valor instanceof Float || valor instanceof Double) {
+            double numero = ((Number) valor).doubleValue();
+            // NaN e infinito não existem em JSON: indicam valor não calculado
+            saida.append(Double.isFinite(numero) ? valor.toString() : "null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            saida.append(valor);
+        } else if (valor instanceof Map<?, ?> mapa) {
+            saida.append('{');
+            boolean primeiro = true;
+            for (Map.Entry<?, ?> campo : mapa.entrySet()) {
+                if (!primeiro) {
+                    saida.append(',');
+                }
+                primeiro = false;
+                escreverTexto(String.valueOf(campo.getKey()), saida);
+                saida.append(':');
+                escrever(campo.getValue(), saida);
+            }
+            saida.append('}');
+        } else if (valor instanceof Iterable<?> itens) {
+            saida.append('[');
+            boolean primeiro = true;
+            for (Object item : itens) {
+                if (!primeiro) {
+                    saida.append(',');
+                }
+                primeiro = false;
+                escrever(item, saida);
+            }
+            saida.append(']');
+        } else if (valor instanceof Object[] itens) {
+            escrever(Arrays.asList(itens), saida);
+        } else if (valor instanceof Record registro) {
+            escrever(camposDoRecord(registro), saida);
+        } else {
+            throw new IllegalArgumentException("Tipo sem conversão para JSON: " + valor.getClass().getName());
+        }
+    }
+
+    private static Map<String, Object> camposDoRecord(Record registro) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (RecordComponent componente : registro.getClass().getRecordComponents()) {
+            try {
+                campos.put(componente.getName(), componente.getAccessor().invoke(registro));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Erro ao ler o campo " + componente.getName(), e);
+            }
+        }
+        return campos;
+    }
+
+    private static void escreverTexto(String texto, StringBuilder saida) {
+        saida.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> saida.append("\\\"");
+                case '\\' -> saida.append("\\\\");
+                case '\n' -> saida.append("\\n");
+                case '\r' -> saida.append("\\r");
+                case '\t' -> saida.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        saida.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        saida.append(c);
+                    }
+                }
+            }
+        }
+        saida.append('"');
+    }
+
+    /**
+     * Lê um objeto JSON sem aninhamento
+     * @param texto O JSON, por exemplo {"valor": 120.5, "data": "2024-05-10"}
+     * @return Os campos com os valores em texto; null para os campos nulos
+     * @throws IllegalArgumentException Se o texto não for um objeto JSON nesse formato
+     */
+    static Map<String, String> lerObjeto(String texto) {
+        Leitor leitor = new Leitor(texto);
+        Map<String, String> campos = new LinkedHashMap<>();
+
+        leitor.esperar('{');
+        if (!leitor.consumir('}')) {
+            do {
+                String nome = leitor.lerTexto();
+                leitor.esperar(':');
+                campos.put(nome, leitor.lerValor());
+            } while (leitor.consumir(','));
+            leitor.esperar('}');
+        }
+        leitor.pularEspacos();
+        if (!leitor.fim()) {
+            throw new IllegalArgumentException("Conteúdo após o fim do objeto JSON");
+        }
+        return campos;
+    }
+
+    private static final class Leitor {
+        private final String texto;
+        private int posicao;
+
+        private Leitor(String texto) {
+            this.texto = texto;
+        }
+
+        private boolean fim() {
+            return posicao >= texto.length();
+        }
+
+        private void pularEspacos() {
+            while (!fim() && Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+        }
+
+        private boolean consumir(char esperado) {
+            pularEspacos();
+            if (!fim() && texto.charAt(posicao) == esperado) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        private void esperar(char esperado) {
+            if (!consumir(esperado)) {
+                throw new IllegalArgumentException("JSON inválido: esperado '" + esperado + "' na posição " + posicao);
+            }
+        }
+
+        private String lerValor() {
+            pularEspacos();
+            if (fim()) {
+                throw new IllegalArgumentException("JSON inválido: valor ausente");
+            }
+            char c = texto.charAt(posicao);
+            if (c == '"') {
+                return lerTexto();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("JSON inválido: objetos e listas aninhados não são aceitos");
+            }
+
+            int inicio = posicao;
+            while (!fim() && ",}".indexOf(texto.charAt(posicao)) < 0
+                    && !Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+            String literal = texto.substring(inicio, posicao);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (!literal.equals("true") && !literal.equals("false")
+                    && !literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                throw new IllegalArgumentException("JSON inválido: valor '" + literal + "'");
+            }
+            return literal;
+        }
+
+        private String lerTexto() {
+            esperar('"');
+            StringBuilder valor = new StringBuilder();
+            while (!fim()) {
+                char c = texto.charAt(posicao++);
+                if (c == '"') {
+                    return valor.toString();
+                }
+                if (c != '\\') {
+                    valor.append(c);
+                    continue;
+                }
+                if (fim()) {
+                    break;
+                }
+                char escape = texto.charAt(posicao++);
+                switch (escape) {
+                    case 'n' -> valor.append('\n');
+                    case 'r' -> valor.append('\r');
+                    case 't' -> valor.append('\t');
+                    case 'b' -> valor.append('\b');
+                    case 'f' -> valor.append('\f');
+                    case 'u' -> {
+                        if (posicao + 4 > texto.length()) {
+                            throw new IllegalArgumentException("JSON inválido: escape \\u incompleto");
+                        }
+                        try {
+                            valor.append((char) Integer.parseInt(texto.substring(posicao, posicao + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("JSON inválido: escape \\u inválido", e);
+                        }
+                        posicao += 4;
+                    }
+                    default -> valor.append(escape);
+                }
+            }
+            throw new IllegalArgumentException("JSON inválido: texto não terminado");
+        }
+    }
+}
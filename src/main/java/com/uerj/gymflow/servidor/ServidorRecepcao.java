@@ -0,0 +1,578 @@
+package com.uerj.gymflow.servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uerj.gymflow.dao.AcompanhamentoProgresso;
+import com.uerj.gymflow.dao.AlunoDAO;
+import com.uerj.gymflow.dao.AvaliacaoDAO;
+import com.uerj.gymflow.dao.CarregamentoTardio;
+import com.uerj.gymflow.dao.IndiceInadimplencia;
+import com.uerj.gymflow.dao.MensalidadeDAO;
+import com.uerj.gymflow.dao.PlanoDAO;
+import com.uerj.gymflow.dao.RelatorioFinanceiroDAO;
+import com.uerj.gymflow.database.DatabaseConnection;
+import com.uerj.gymflow.database.HistogramaLatencia;
+import com.uerj.gymflow.database.RegistroMetricas;
+import com.uerj.gymflow.model.Aluno;
+import com.uerj.gymflow.model.Avaliacao;
+import com.uerj.gymflow.model.Mensalidade;
+import com.uerj.gymflow.model.Plano;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor HTTP/JSON da recepção, para catracas, totens e outros clientes da rede local
+ * usarem as mesmas operações dos DAOs que os menus do console.
+ *
+ * Usa o servidor HTTP embutido no JDK, com uma virtual thread por requisição: uma requisição
+ * esperando o banco (ou uma conexão livre do pool) não ocupa uma thread do sistema, então o
+ * processo atende muitos clientes simultâneos com o limite de acesso ao banco dado apenas
+ * pelos pools de conexão. Os DAOs já são seguros para uso concorrente e os escopos do mapa
+ * de identidade ficam na thread de cada requisição.
+ *
+ * Rotas (todas sob /api, respostas em JSON):
+ * <pre>
+ * GET  /acesso?cpf=...                  liberação na catraca: aluno e mensalidades em atraso
+ * GET  /alunos?cpf=...                  aluno pelo CPF
+ * GET  /alunos/{id}                     aluno pelo ID
+ * GET  /alunos/{id}/acesso              liberação na catraca pelo ID do aluno
+ * GET  /alunos/{id}/mensalidades        mensalidades do aluno
+ * GET  /alunos/{id}/avaliacoes          avaliações do aluno, da mais recente para a mais antiga
+ * GET  /alunos/{id}/progresso           evolução do aluno ao longo das avaliações
+ * GET  /planos                          planos disponíveis
+ * GET  /planos/{id}                     plano pelo ID
+ * GET  /mensalidades/atrasadas?limite=  mensalidades em atraso, das mais antigas (padrão 100)
+ * GET  /mensalidades/{id}               mensalidade pelo ID
+ * POST /mensalidades/{id}/pagamento     registra o pagamento; corpo opcional {"valor": 99.9, "data": "2024-05-10"}
+ * GET  /relatorios/receita?meses=12     receita por plano e mês
+ * GET  /relatorios/inadimplencia?meses=12
+ * GET  /relatorios/recebiveis?meses=6   previsão de recebimento das mensalidades em aberto
+ * GET  /metricas                        relatório de métricas em texto
+ * </pre>
+ *
+ * Execução: mvn exec:java@server, com a porta em {@code gymflow.servidor.porta} (padrão 8080)
+ * e o endereço em {@code gymflow.servidor.endereco} (padrão 127.0.0.1, só a máquina local).
+ */
+public final class ServidorRecepcao {
+    private static final Logger logger = LoggerFactory.getLogger(ServidorRecepcao.class);
+    public static final String PROPRIEDADE_PORTA = "gymflow.servidor.porta";
+    public static final String PROPRIEDADE_ENDERECO = "gymflow.servidor.endereco";
+    private static final int PORTA_PADRAO = 8080;
+    private static final String PREFIXO = "/api";
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+    private static final String TIPO_TEXTO = "text/plain; charset=utf-8";
+    private static final int TAMANHO_MAXIMO_CORPO = 16 * 1024;
+    private static final int LIMITE_ATRASADAS_PADRAO = 100;
+
+    static {
+        // O servidor do JDK envia cabeçalhos e corpo em escritas separadas; com o algoritmo de
+        // Nagle ligado, a segunda espera o ACK atrasado do cliente e cada resposta leva ~40 ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Resposta pronta para envio
+     */
+    private record Resposta(int status, String tipo, byte[] corpo) {
+
+        static Resposta json(int status, Object valor) {
+            return new Resposta(status, TIPO_JSON, Json.escrever(valor).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Resposta texto(String texto) {
+            return new Resposta(200, TIPO_TEXTO, texto.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Erro causado pela requisição, respondido com o status informado
+     */
+    private static final class ErroRequisicao extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        private ErroRequisicao(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+    }
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final PlanoDAO planoDAO = new PlanoDAO();
+    private final MensalidadeDAO mensalidadeDAO = new MensalidadeDAO();
+    private final AvaliacaoDAO avaliacaoDAO = new AvaliacaoDAO();
+    private final RelatorioFinanceiroDAO relatorioDAO = new RelatorioFinanceiroDAO();
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final LongAdder erros = new LongAdder();
+
+    /**
+     * Cria o servidor no endereço informado, sem iniciá-lo
+     * @param endereco Endereço e porta; porta 0 escolhe uma porta livre
+     * @throws IOException Se não for possível abrir a porta
+     */
+    public ServidorRecepcao(InetSocketAddress endereco) throws IOException {
+        this.servidor = HttpServer.create(endereco, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.createContext(PREFIXO + "/", this::tratar);
+        servidor.setExecutor(executor);
+
+        RegistroMetricas metricas = RegistroMetricas.getInstance();
+        metricas.registrarMedidor("servidor.requisicoes", latencia::getTotal);
+        metricas.registrarMedidor("servidor.requisicoes.em_andamento", emAndamento::get);
+        metricas.registrarMedidor("servidor.requisicoes.erros", erros::sum);
+    }
+
+    public void iniciar() {
+        servidor.start();
+        logger.info("Servidor da recepção atendendo em http://{}:{}{}",
+                servidor.getAddress().getHostString(), getPorta(), PREFIXO);
+    }
+
+    /**
+     * Para de aceitar conexões e aguarda as requisições em andamento
+     * @param segundosEspera Tempo máximo de espera pelas requisições em andamento
+     */
+    public void parar(int segundosEspera) {
+        servidor.stop(segundosEspera);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(segundosEspera, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Servidor da recepção parado após {} requisições", latencia.getTotal());
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * @return Latência das requisições atendidas, do recebimento ao envio da resposta
+     */
+    public HistogramaLatencia getLatencia() {
+        return latencia;
+    }
+
+    private void tratar(HttpExchange troca) {
+        long inicio = System.nanoTime();
+        emAndamento.incrementAndGet();
+        try (troca) {
+            Resposta resposta = atender(troca);
+            if (resposta.status() >= 400) {
+                erros.increment();
+            }
+            enviar(troca, resposta);
+        } catch (IOException e) {
+            // Cliente desconectado antes da resposta
+            erros.increment();
+            logger.debug("Erro ao enviar resposta para {}", troca.getRemoteAddress(), e);
+        } finally {
+            emAndamento.decrementAndGet();
+            latencia.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    private Resposta atender(HttpExchange troca) {
+        String metodo = troca.getRequestMethod();
+        String caminho = troca.getRequestURI().getPath().substring(PREFIXO.length());
+        try {
+            String[] partes = caminho.replaceAll("^/+|/+$", "").split("/+");
+            Map<String, String> parametros = lerParametros(troca.getRequestURI().getRawQuery());
+
+            if (metodo.equals("POST")) {
+                return atenderPost(partes, lerCorpo(troca));
+            }
+            if (!metodo.equals("GET")) {
+                throw new ErroRequisicao(405, "Método não suportado: " + metodo);
+            }
+            return atenderGet(partes, parametros);
+        } catch (ErroRequisicao e) {
+            return erro(e.status, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // Inclui IDs e números mal formados (NumberFormatException) e datas inválidas
+            return erro(400, "Requisição inválida: " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Erro ao atender {} {}", metodo, caminho, e);
+            return erro(500, "Erro interno ao atender a requisição");
+        }
+    }
+
+    private Resposta atenderGet(String[] partes, Map<String, String> parametros) {
+        switch (partes[0]) {
+            case "acesso":
+                exigirTamanho(partes, 1);
+                return ok(verificarAcesso(buscarAlunoPorCpf(parametros)));
+            case "alunos":
+                return atenderAlunos(partes, parametros);
+            case "planos":
+                if (partes.length == 1) {
+                    return ok(planoDAO.listarTodos().stream().map(ServidorRecepcao::plano).toList());
+                }
+                exigirTamanho(partes, 2);
+                Plano plano = planoDAO.buscarPorId(lerId(partes[1]));
+                if (plano == null) {
+                    throw new ErroRequisicao(404, "Plano não encontrado");
+                }
+                return ok(plano(plano));
+            case "mensalidades":
+                exigirTamanho(partes, 2);
+                if (partes[1].equals("atrasadas")) {
+                    int limite = lerInteiro(parametros, "limite", LIMITE_ATRASADAS_PADRAO);
+                    return ok(mensalidadeDAO.listarResumoAtrasadas(limite).stream()
+                            .map(ServidorRecepcao::mensalidadeEmAberto).toList());
+                }
+                return ok(mensalidade(buscarMensalidade(partes[1])));
+            case "relatorios":
+                exigirTamanho(partes, 2);
+                return atenderRelatorio(partes[1], parametros);
+            case "metricas":
+                exigirTamanho(partes, 1);
+                return Resposta.texto(RegistroMetricas.getInstance().gerarRelatorio());
+            default:
+                throw new ErroRequisicao(404, "Rota não encontrada");
+        }
+    }
+
+    private Resposta atenderAlunos(String[] partes, Map<String, String> parametros) {
+        if (partes.length == 1) {
+            return ok(aluno(buscarAlunoPorCpf(parametros)));
+        }
+
+        Integer idAluno = lerId(partes[1]);
+        if (partes.length == 2) {
+            Aluno aluno = alunoDAO.buscarPorId(idAluno);
+            if (aluno == null) {
+                throw new ErroRequisicao(404, "Aluno não encontrado");
+            }
+            return ok(aluno(aluno));
+        }
+
+        exigirTamanho(partes, 3);
+        switch (partes[2]) {
+            case "acesso": {
+                Aluno aluno = alunoDAO.buscarPorId(idAluno);
+                if (aluno == null) {
+                    throw new ErroRequisicao(404, "Aluno não encontrado");
+                }
+                return ok(verificarAcesso(aluno));
+            }
+            // As respostas só levam os IDs do aluno, do plano e do professor, então essas
+            // associações não são buscadas na listagem
+            case "mensalidades":
+                return ok(CarregamentoTardio.emEscopo(() -> mensalidadeDAO.buscarPorAluno(idAluno)).stream()
+                        .map(ServidorRecepcao::mensalidade).toList());
+            case "avaliacoes":
+                return ok(CarregamentoTardio.emEscopo(() -> avaliacaoDAO.listarPorAluno(idAluno)).stream()
+                        .map(ServidorRecepcao::avaliacao).toList());
+            case "progresso":
+                return ok(progresso(avaliacaoDAO.acompanharProgresso(idAluno)));
+            default:
+                throw new ErroRequisicao(404, "Rota não encontrada");
+        }
+    }
+
+    private Resposta atenderRelatorio(String relatorio, Map<String, String> parametros) {
+        LocalDate hoje = LocalDate.now();
+        switch (relatorio) {
+            case "receita": {
+                int meses = lerMeses(parametros, 12);
+                YearMonth fim = YearMonth.from(hoje);
+                return ok(relatorioDAO.receitaPorPlanoEMes(fim.minusMonths(meses - 1L), fim));
+            }
+            case "inadimplencia": {
+                int meses = lerMeses(parametros, 12);
+                RelatorioFinanceiroDAO.IndicadoresInadimplencia indicadores = relatorioDAO.indicadoresInadimplencia(
+                        YearMonth.from(hoje).minusMonths(meses - 1L).atDay(1), hoje, hoje);
+                Map<String, Object> corpo = new LinkedHashMap<>();
+                corpo.put("indicadores", indicadores);
+                corpo.put("taxaInadimplencia", indicadores.taxaInadimplencia());
+                return ok(corpo);
+            }
+            case "recebiveis": {
+                int meses = lerMeses(parametros, 6);
+                return ok(relatorioDAO.previsaoRecebiveis(hoje, hoje.plusMonths(meses)));
+            }
+            default:
+                throw new ErroRequisicao(404, "Relatório não encontrado");
+        }
+    }
+
+    private Resposta atenderPost(String[] partes, String corpo) {
+        if (partes.length != 3 || !partes[0].equals("mensalidades") || !partes[2].equals("pagamento")) {
+            throw new ErroRequisicao(404, "Rota não encontrada para POST");
+        }
+
+        Mensalidade mensalidade = buscarMensalidade(partes[1]);
+        if ("Pago".equals(mensalidade.getStatusPagamento())) {
+            throw new ErroRequisicao(409, "Mensalidade já paga");
+        }
+
+        Map<String, String> campos = corpo.isBlank() ? Map.of() : Json.lerObjeto(corpo);
+        LocalDate dataPagamento = campos.get("data") != null ? LocalDate.parse(campos.get("data")) : LocalDate.now();
+        Float valorPago = campos.get("valor") != null ? Float.valueOf(campos.get("valor")) : mensalidade.getValorPago();
+        if (valorPago == null || valorPago <= 0) {
+            throw new ErroRequisicao(400, "Informe um valor de pagamento positivo");
+        }
+
+        // Outra recepção pode ter pago a mesma mensalidade depois da leitura acima
+        if (!mensalidadeDAO.registrarPagamento(mensalidade.getIdMensalidade(), dataPagamento, valorPago)) {
+            throw new ErroRequisicao(409, "Mensalidade já paga");
+        }
+        mensalidade.registrarPagamento(dataPagamento, valorPago);
+        return ok(mensalidade(mensalidade));
+    }
+
+    /**
+     * Decide a liberação na catraca: o aluno entra se não tiver mensalidade vencida em aberto.
+     * As mensalidades vêm do índice de inadimplência em memória, sem consulta ao banco
+     */
+    private Map<String, Object> verificarAcesso(Aluno aluno) {
+        List<IndiceInadimplencia.MensalidadeEmAberto> atrasadas =
+                mensalidadeDAO.listarResumoAtrasadasDoAluno(aluno.getIdAluno());
+        double valorEmAtraso = 0;
+        for (IndiceInadimplencia.MensalidadeEmAberto atrasada : atrasadas) {
+            valorEmAtraso += atrasada.valor();
+        }
+
+        Map<String, Object> acesso = new LinkedHashMap<>();
+        acesso.put("idAluno", aluno.getIdAluno());
+        acesso.put("nome", aluno.getNome());
+        acesso.put("liberado", atrasadas.isEmpty());
+        acesso.put("mensalidadesAtrasadas", atrasadas.size());
+        // Os valores são float no índice: arredonda a soma para centavos
+        acesso.put("valorEmAtraso", Math.round(valorEmAtraso * 100) / 100.0);
+        acesso.put("vencimentoMaisAntigo", atrasadas.isEmpty() ? null : atrasadas.get(0).getDataVencimento());
+        return acesso;
+    }
+
+    private Aluno buscarAlunoPorCpf(Map<String, String> parametros) {
+        String cpf = parametros.get("cpf");
+        if (cpf == null || cpf.isBlank()) {
+            throw new ErroRequisicao(400, "Informe o parâmetro cpf");
+        }
+        Aluno aluno = alunoDAO.buscarPorCpf(cpf.trim());
+        if (aluno == null) {
+            throw new ErroRequisicao(404, "Aluno não encontrado");
+        }
+        return aluno;
+    }
+
+    private Mensalidade buscarMensalidade(String id) {
+        Mensalidade mensalidade = mensalidadeDAO.buscarPorId(lerId(id));
+        if (mensalidade == null) {
+            throw new ErroRequisicao(404, "Mensalidade não encontrada");
+        }
+        return mensalidade;
+    }
+
+    private static Map<String, Object> aluno(Aluno aluno) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idAluno", aluno.getIdAluno());
+        campos.put("nome", aluno.getNome());
+        campos.put("cpf", aluno.getCpf());
+        campos.put("dataNascimento", aluno.getDataNascimento());
+        campos.put("telefone", aluno.getTelefone());
+        campos.put("email", aluno.getEmail());
+        campos.put("dataMatricula", aluno.getDataMatricula());
+        campos.put("dataAssinatura", aluno.getDataAssinatura());
+        campos.put("idPlano", aluno.getIdPlano());
+        return campos;
+    }
+
+    private static Map<String, Object> plano(Plano plano) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idPlano", plano.getIdPlano());
+        campos.put("nomePlano", plano.getNomePlano());
+        campos.put("descricao", plano.getDescricao());
+        campos.put("duracao", plano.getDuracao());
+        campos.put("valorMensal", plano.getValorMensal());
+        return campos;
+    }
+
+    private static Map<String, Object> mensalidade(Mensalidade mensalidade) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idMensalidade", mensalidade.getIdMensalidade());
+        campos.put("idAluno", mensalidade.getIdAluno());
+        campos.put("idPlano", mensalidade.getIdPlano());
+        campos.put("dataVencimento", mensalidade.getDataVencimento());
+        campos.put("dataPagamento", mensalidade.getDataPagamento());
+        campos.put("valorPago", mensalidade.getValorPago());
+        campos.put("statusPagamento", mensalidade.getStatusPagamento());
+        campos.put("atrasada", mensalidade.getDataVencimento() != null && mensalidade.isAtrasada());
+        return campos;
+    }
+
+    private static Map<String, Object> mensalidadeEmAberto(IndiceInadimplencia.MensalidadeEmAberto mensalidade) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idMensalidade", mensalidade.idMensalidade());
+        campos.put("idAluno", mensalidade.idAluno());
+        campos.put("idPlano", mensalidade.idPlano());
+        campos.put("dataVencimento", mensalidade.getDataVencimento());
+        campos.put("valor", mensalidade.valor());
+        return campos;
+    }
+
+    private static Map<String, Object> avaliacao(Avaliacao avaliacao) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idAvaliacao", avaliacao.getIdAvaliacao());
+        campos.put("idAluno", avaliacao.getIdAluno());
+        campos.put("idProfessor", avaliacao.getIdProfessor());
+        campos.put("dataAvaliacao", avaliacao.getDataAvaliacao());
+        campos.put("peso", avaliacao.getPeso());
+        campos.put("altura", avaliacao.getAltura());
+        campos.put("imc", avaliacao.calcularIMC());
+        campos.put("classificacaoIMC", avaliacao.getClassificacaoIMC());
+        campos.put("observacoes", avaliacao.getObservacoes());
+        return campos;
+    }
+
+    private static Map<String, Object> progresso(AcompanhamentoProgresso.Progresso progresso) {
+        List<Map<String, Object>> avaliacoes = new ArrayList<>(progresso.getQuantidade());
+        for (int i = 0; i < progresso.getQuantidade(); i++) {
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put("idAvaliacao", progresso.getIdAvaliacao(i));
+            campos.put("data", progresso.getData(i));
+            campos.put("peso", progresso.getPeso(i));
+            campos.put("imc", progresso.getImc(i));
+            campos.put("variacaoPeso", progresso.getVariacaoPeso(i));
+            campos.put("variacaoImc", progresso.getVariacaoImc(i));
+            campos.put("tendenciaPeso", progresso.getTendenciaPeso(i));
+            campos.put("tendenciaImc", progresso.getTendenciaImc(i));
+            avaliacoes.add(campos);
+        }
+
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idAluno", progresso.getIdAluno());
+        campos.put("variacaoPesoTotal", progresso.getVariacaoPesoTotal());
+        campos.put("avaliacoes", avaliacoes);
+        campos.put("marcos", progresso.getMarcos());
+        return campos;
+    }
+
+    private static Resposta ok(Object valor) {
+        return Resposta.json(200, valor);
+    }
+
+    private static Resposta erro(int status, String mensagem) {
+        return Resposta.json(status, Map.of("erro", mensagem));
+    }
+
+    private static void exigirTamanho(String[] partes, int tamanho) {
+        if (partes.length != tamanho) {
+            throw new ErroRequisicao(404, "Rota não encontrada");
+        }
+    }
+
+    private static Integer lerId(String texto) {
+        int id = Integer.parseInt(texto);
+        if (id <= 0) {
+            throw new ErroRequisicao(400, "ID inválido: " + texto);
+        }
+        return id;
+    }
+
+    private static int lerInteiro(Map<String, String> parametros, String nome, int padrao) {
+        String valor = parametros.get(nome);
+        if (valor == null) {
+            return padrao;
+        }
+        int numero = Integer.parseInt(valor);
+        if (numero <= 0) {
+            throw new ErroRequisicao(400, "O parâmetro " + nome + " deve ser positivo");
+        }
+        return numero;
+    }
+
+    private static int lerMeses(Map<String, String> parametros, int padrao) {
+        int meses = lerInteiro(parametros, "meses", padrao);
+        if (meses > 120) {
+            throw new ErroRequisicao(400, "O parâmetro meses deve ser no máximo 120");
+        }
+        return meses;
+    }
+
+    private static Map<String, String> lerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nome, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static String lerCorpo(HttpExchange troca) {
+        try (InputStream entrada = troca.getRequestBody()) {
+            byte[] corpo = entrada.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+            if (corpo.length > TAMANHO_MAXIMO_CORPO) {
+                throw new ErroRequisicao(413, "Corpo da requisição acima de " + TAMANHO_MAXIMO_CORPO + " bytes");
+            }
+            return new String(corpo, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ErroRequisicao(400, "Não foi possível ler o corpo da requisição");
+        }
+    }
+
+    private static void enviar(HttpExchange troca, Resposta resposta) throws IOException {
+        troca.getResponseHeaders().set("Content-Type", resposta.tipo());
+        troca.sendResponseHeaders(resposta.status(), resposta.corpo().length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(resposta.corpo());
+        }
+    }
+
+    public static void main(String[] args) {
+        String endereco = System.getProperty(PROPRIEDADE_ENDERECO, "127.0.0.1");
+        int porta = Integer.getInteger(PROPRIEDADE_PORTA, PORTA_PADRAO);
+
+        ServidorRecepcao servidorRecepcao;
+        try {
+            servidorRecepcao = new ServidorRecepcao(new InetSocketAddress(endereco, porta));
+        } catch (IOException e) {
+            logger.error("Não foi possível abrir a porta {} em {}", porta, endereco, e);
+            throw new RuntimeException("Erro ao iniciar o servidor da recepção", e);
+        }
+
+        // A thread do servidor mantém a aplicação ativa até o Ctrl+C
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidorRecepcao.parar(5);
+            DatabaseConnection.getInstance().closeDataSource();
+        }));
+        servidorRecepcao.iniciar();
+    }
+}
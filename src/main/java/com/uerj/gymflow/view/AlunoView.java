@@ -41,6 +41,8 @@ public class AlunoView {
         System.out.println("4. Listar todos os alunos");
         System.out.println("5. Atualizar aluno");
         System.out.println("6. Excluir aluno");
+        System.out.println("7. Gerenciar treinos do aluno");
+        System.out.println("8. Importar alunos de arquivo CSV");
         System.out.println("0. Voltar ao menu principal");
         System.out.print("Escolha uma opção: ");
 
@@ -270,19 +272,48 @@ public class AlunoView {
 
         System.out.println("\n===== LISTA DE ALUNOS =====");
         for (Aluno aluno : alunos) {
-            System.out.println("---------------------------");
-            System.out.println("ID: " + aluno.getIdAluno());
-            System.out.println("Nome: " + aluno.getNome());
-            System.out.println("CPF: " + formatarCpf(aluno.getCpf()));
-            System.out.println("Data de Matrícula: " + 
-                    (aluno.getDataMatricula() != null ? aluno.getDataMatricula().format(dateFormatter) : "Não informada"));
-            System.out.println("Plano: " + 
-                    (aluno.getPlano() != null ? aluno.getPlano().getNomePlano() : "Nenhum"));
+            exibirResumoAluno(aluno);
         }
         System.out.println("---------------------------");
         System.out.println("Total de alunos: " + alunos.size());
     }
 
+    /**
+     * Exibe uma página da listagem de alunos
+     *
+     * @param alunos Alunos da página
+     * @param numeroPagina Número da página, a partir de 1
+     */
+    public void exibirPaginaAlunos(List<Aluno> alunos, int numeroPagina) {
+        System.out.println("\n===== LISTA DE ALUNOS (página " + numeroPagina + ") =====");
+        for (Aluno aluno : alunos) {
+            exibirResumoAluno(aluno);
+        }
+        System.out.println("---------------------------");
+    }
+
+    /**
+     * Pergunta se o usuário deseja ver a próxima página da listagem
+     *
+     * @return true para exibir a próxima página, false para encerrar a listagem
+     */
+    public boolean solicitarProximaPagina() {
+        System.out.print("Pressione Enter para a próxima página ou digite 0 para voltar: ");
+        String resposta = scanner.nextLine().trim();
+        return !resposta.equals("0");
+    }
+
+    private void exibirResumoAluno(Aluno aluno) {
+        System.out.println("---------------------------");
+        System.out.println("ID: " + aluno.getIdAluno());
+        System.out.println("Nome: " + aluno.getNome());
+        System.out.println("CPF: " + formatarCpf(aluno.getCpf()));
+        System.out.println("Data de Matrícula: " + 
+                (aluno.getDataMatricula() != null ? aluno.getDataMatricula().format(dateFormatter) : "Não informada"));
+        System.out.println("Plano: " + 
+                (aluno.getPlano() != null ? aluno.getPlano().getNomePlano() : "Nenhum"));
+    }
+
     /**
      * Solicita o ID de um aluno
      *
@@ -318,6 +349,59 @@ public class AlunoView {
         return cpf;
     }
 
+    /**
+     * Solicita o caminho do arquivo CSV para importação de alunos
+     *
+     * @return O caminho informado ou null se vazio
+     */
+    public String solicitarArquivoImportacao() {
+        System.out.println("\n===== IMPORTAÇÃO DE ALUNOS =====");
+        System.out.println("O arquivo deve ter cabeçalho com as colunas nome, data_nascimento, cpf, telefone e email,");
+        System.out.println("e opcionalmente data_matricula, data_assinatura e plano (ID ou nome), separadas por ; ou ,");
+        System.out.print("Caminho do arquivo CSV: ");
+        String caminho = scanner.nextLine().trim();
+        
+        if (caminho.isEmpty()) {
+            System.out.println("Nenhum arquivo informado.");
+            return null;
+        }
+        
+        return caminho;
+    }
+
+    /**
+     * Exibe o andamento da importação
+     *
+     * @param linhasLidas Linhas lidas até o momento
+     * @param importados Alunos gravados até o momento
+     * @param rejeitados Linhas rejeitadas até o momento
+     * @param linhasPorSegundo Vazão da importação
+     */
+    public void exibirProgressoImportacao(long linhasLidas, long importados, long rejeitados, double linhasPorSegundo) {
+        System.out.printf("%d linhas lidas, %d importadas, %d rejeitadas (%.0f linhas/s)%n",
+                linhasLidas, importados, rejeitados, linhasPorSegundo);
+    }
+
+    /**
+     * Exibe o resumo da importação e as linhas rejeitadas
+     *
+     * @param importados Total de alunos gravados
+     * @param rejeitados Total de linhas rejeitadas
+     * @param segundos Duração da importação
+     * @param rejeicoes Descrição das rejeições a exibir, já com o número da linha
+     */
+    public void exibirResultadoImportacao(long importados, long rejeitados, double segundos, List<String> rejeicoes) {
+        System.out.printf("%nImportação concluída em %.1f s: %d alunos importados, %d linhas rejeitadas.%n",
+                segundos, importados, rejeitados);
+        
+        if (!rejeicoes.isEmpty()) {
+            System.out.println("Linhas rejeitadas" + (rejeicoes.size() < rejeitados ? " (primeiras " + rejeicoes.size() + ")" : "") + ":");
+            for (String rejeicao : rejeicoes) {
+                System.out.println("  " + rejeicao);
+            }
+        }
+    }
+
     /**
      * Solicita confirmação para exclusão
      *
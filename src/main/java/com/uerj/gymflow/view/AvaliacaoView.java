@@ -1,5 +1,6 @@
 package com.uerj.gymflow.view;
 
+import com.uerj.gymflow.dao.AcompanhamentoProgresso;
 import com.uerj.gymflow.model.Aluno;
 import com.uerj.gymflow.model.Avaliacao;
 import com.uerj.gymflow.model.Professor;
@@ -8,6 +9,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -33,6 +35,8 @@ public class AvaliacaoView {
         System.out.println("3. Listar avaliações de um aluno");
         System.out.println("4. Atualizar avaliação");
         System.out.println("5. Excluir avaliação");
+        System.out.println("6. Estatísticas das avaliações");
+        System.out.println("7. Acompanhar progresso de um aluno");
         System.out.println("0. Voltar ao menu principal");
         System.out.print("Escolha uma opção: ");
 
@@ -438,6 +442,97 @@ public class AvaliacaoView {
         System.out.println("Operação cancelada.");
     }
 
+    /**
+     * Exibe a evolução do aluno em todas as avaliações, da mais antiga para a mais recente,
+     * com as variações, as tendências e os marcos atingidos
+     *
+     * @param progresso O progresso calculado do aluno
+     * @param aluno O aluno
+     */
+    public void exibirProgresso(AcompanhamentoProgresso.Progresso progresso, Aluno aluno) {
+        if (progresso.getQuantidade() == 0) {
+            System.out.println("Não há avaliações cadastradas para " + aluno.getNome() + ".");
+            return;
+        }
+
+        System.out.println("\n===== PROGRESSO DE " + aluno.getNome().toUpperCase() + " =====");
+        System.out.printf("%-10s %8s %8s %7s %7s %14s %14s%n",
+                "Data", "Peso", "Dif.", "IMC", "Dif.", "Tend. peso/mês", "Tend. IMC/mês");
+        for (int i = 0; i < progresso.getQuantidade(); i++) {
+            System.out.printf("%-10s %8s %8s %7s %7s %14s %14s%n",
+                    progresso.getData(i).format(dateFormatter),
+                    formatarValor(progresso.getPeso(i), "%.1f"),
+                    formatarValor(progresso.getVariacaoPeso(i), "%+.1f"),
+                    formatarValor(progresso.getImc(i), "%.2f"),
+                    formatarValor(progresso.getVariacaoImc(i), "%+.2f"),
+                    formatarValor(progresso.getTendenciaPeso(i), "%+.2f"),
+                    formatarValor(progresso.getTendenciaImc(i), "%+.2f"));
+        }
+
+        float variacaoTotal = progresso.getVariacaoPesoTotal();
+        if (!Float.isNaN(variacaoTotal)) {
+            System.out.printf("%nVariação total de peso: %+.1f kg em %d avaliações%n",
+                    variacaoTotal, progresso.getQuantidade());
+        }
+
+        if (!progresso.getMarcos().isEmpty()) {
+            System.out.println("\nMarcos:");
+            for (AcompanhamentoProgresso.Marco marco : progresso.getMarcos()) {
+                System.out.println("- " + marco.data().format(dateFormatter) + ": " + marco.descricao());
+            }
+        }
+    }
+
+    private String formatarValor(float valor, String formato) {
+        return Float.isNaN(valor) ? "-" : String.format(formato, valor);
+    }
+
+    /**
+     * Exibe a distribuição das avaliações por classificação do IMC
+     *
+     * @param distribuicao Quantidade de avaliações por classificação
+     * @param imcMedio IMC médio das avaliações com peso e altura
+     * @param inicio Primeiro dia considerado
+     * @param fim Último dia considerado
+     */
+    public void exibirDistribuicaoIMC(Map<String, Integer> distribuicao, double imcMedio,
+                                      LocalDate inicio, LocalDate fim) {
+        int total = 0;
+        for (int quantidade : distribuicao.values()) {
+            total += quantidade;
+        }
+
+        System.out.println("\n===== ESTATÍSTICAS DAS AVALIAÇÕES =====");
+        System.out.println("Período: " + inicio.format(dateFormatter) + " a " + fim.format(dateFormatter));
+        System.out.println("Avaliações: " + total + (Double.isNaN(imcMedio) ? "" : String.format(" - IMC médio: %.2f", imcMedio)));
+        System.out.println("\n-- Distribuição por classificação do IMC --");
+        for (Map.Entry<String, Integer> faixa : distribuicao.entrySet()) {
+            System.out.printf("%-18s %8d (%5.1f%%)%n", faixa.getKey(), faixa.getValue(),
+                    total == 0 ? 0.0 : faixa.getValue() * 100.0 / total);
+        }
+    }
+
+    /**
+     * Exibe o cabeçalho da variação de peso por professor
+     *
+     * @param quantidade Quantidade de professores exibidos
+     */
+    public void exibirCabecalhoVariacaoPeso(int quantidade) {
+        System.out.println("\n-- Variação média de peso por professor (" + quantidade + " com maior redução) --");
+        System.out.printf("%-35s %11s %14s%n", "Professor", "Avaliações", "Variação (kg)");
+    }
+
+    /**
+     * Exibe a variação média de peso dos alunos avaliados por um professor
+     *
+     * @param professor Nome do professor
+     * @param avaliacoes Avaliações comparadas com a anterior do aluno
+     * @param variacaoMedia Variação média de peso
+     */
+    public void exibirVariacaoPeso(String professor, int avaliacoes, double variacaoMedia) {
+        System.out.printf("%-35s %11d %+14.2f%n", professor, avaliacoes, variacaoMedia);
+    }
+
     /**
      * Exibe mensagem de erro
      *
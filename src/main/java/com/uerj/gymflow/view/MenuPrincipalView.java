@@ -8,9 +8,14 @@ import com.uerj.gymflow.controller.PessoaController;
 import com.uerj.gymflow.controller.PlanoController;
 import com.uerj.gymflow.controller.ProfessorController;
 import com.uerj.gymflow.controller.TreinoController;
+import com.uerj.gymflow.dao.RelatorioFinanceiroDAO;
+import com.uerj.gymflow.database.LogConsultasLentas;
+import com.uerj.gymflow.database.RegistroMetricas;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Scanner;
 
 /**
@@ -40,6 +45,8 @@ public class MenuPrincipalView {
             System.out.println("6. Gerenciar Avaliações");
             System.out.println("7. Gerenciar Exercícios");
             System.out.println("8. Gerenciar Treinos");
+            System.out.println("9. Métricas do Banco de Dados");
+            System.out.println("10. Relatório Financeiro");
             System.out.println("0. Sair");
             System.out.print("Escolha uma opção: ");
 
@@ -71,6 +78,12 @@ public class MenuPrincipalView {
                     case 8:
                         new TreinoController(scanner).mostrarMenu();
                         break;
+                    case 9:
+                        exibirMetricas();
+                        break;
+                    case 10:
+                        exibirRelatorioFinanceiro();
+                        break;
                     case 0:
                         System.out.println("Saindo do sistema...");
                         break;
@@ -86,5 +99,96 @@ public class MenuPrincipalView {
             }
         }
     }
-}
 
+    /**
+     * Exibe o relatório de métricas do banco e permite ligar, desligar ou zerar a coleta
+     * e ajustar o limite do log de consultas lentas
+     */
+    private void exibirMetricas() {
+        RegistroMetricas metricas = RegistroMetricas.getInstance();
+        LogConsultasLentas consultasLentas = LogConsultasLentas.getInstance();
+        int opcao = -1;
+
+        while (opcao != 0) {
+            System.out.println("\n===== MÉTRICAS DO BANCO DE DADOS =====");
+            System.out.print(metricas.gerarRelatorio());
+            System.out.println();
+            System.out.println("Log de consultas lentas: " + (consultasLentas.isAtivo()
+                    ? "acima de " + consultasLentas.getLimiteMs() + " ms em " + consultasLentas.getArquivo()
+                    : "desativado"));
+            System.out.println();
+            System.out.println("1. Atualizar");
+            System.out.println("2. " + (metricas.isAtivo() ? "Desativar" : "Ativar") + " coleta");
+            System.out.println("3. Zerar métricas");
+            System.out.println("4. Definir limite de consultas lentas");
+            System.out.println("0. Voltar");
+            System.out.print("Escolha uma opção: ");
+
+            try {
+                opcao = Integer.parseInt(scanner.nextLine());
+
+                switch (opcao) {
+                    case 1:
+                        break;
+                    case 2:
+                        metricas.setAtivo(!metricas.isAtivo());
+                        break;
+                    case 3:
+                        metricas.limpar();
+                        break;
+                    case 4:
+                        System.out.print("Limite em milissegundos (0 para desativar): ");
+                        consultasLentas.setLimiteMs(Long.parseLong(scanner.nextLine().trim()));
+                        break;
+                    case 0:
+                        break;
+                    default:
+                        System.out.println("Opção inválida. Tente novamente.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Por favor, digite um número válido.");
+            }
+        }
+    }
+
+    /**
+     * Exibe a receita por plano nos últimos 12 meses, os totais dos últimos anos, os indicadores
+     * de inadimplência do mesmo período e a previsão de recebimento dos próximos 6 meses
+     */
+    private void exibirRelatorioFinanceiro() {
+        RelatorioFinanceiroDAO relatorio = new RelatorioFinanceiroDAO();
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = hoje.minusMonths(11).withDayOfMonth(1);
+
+        System.out.println("\n===== RELATÓRIO FINANCEIRO =====");
+        System.out.println("\n-- Receita por plano e mês --");
+        System.out.printf("%-8s %-20s %10s %14s%n", "Mês", "Plano", "Pagamentos", "Total (R$)");
+        for (RelatorioFinanceiroDAO.ReceitaPlanoMes linha
+                : relatorio.receitaPorPlanoEMes(YearMonth.from(inicio), YearMonth.from(hoje))) {
+            System.out.printf("%-8s %-20s %10d %14.2f%n", linha.mes(),
+                    linha.nomePlano() != null ? linha.nomePlano() : "(sem plano)", linha.pagamentos(), linha.total());
+        }
+
+        System.out.println("\n-- Totais por ano --");
+        System.out.printf("%-6s %10s %16s %10s %16s%n", "Ano", "Pagas", "Recebido (R$)", "Em aberto", "A receber (R$)");
+        for (RelatorioFinanceiroDAO.ResumoAno linha : relatorio.resumoAnual(hoje.getYear() - 4, hoje.getYear())) {
+            System.out.printf("%-6d %10d %16.2f %10d %16.2f%n", linha.ano(), linha.pagas(), linha.recebido(),
+                    linha.emAberto(), linha.valorEmAberto());
+        }
+
+        RelatorioFinanceiroDAO.IndicadoresInadimplencia indicadores =
+                relatorio.indicadoresInadimplencia(inicio, hoje, hoje);
+        System.out.println("\n-- Inadimplência (vencimentos desde " + inicio + ") --");
+        System.out.printf("Mensalidades vencidas: %d, em atraso: %d (%.1f%%)%n",
+                indicadores.vencidas(), indicadores.emAtraso(), indicadores.taxaInadimplencia() * 100);
+        System.out.printf("Valor em atraso: R$ %.2f%n", indicadores.valorEmAtraso());
+        System.out.printf("Atraso médio: %.1f dias nas pagas, %.1f dias nas em aberto%n",
+                indicadores.diasAtrasoMedioPagas(), indicadores.diasAtrasoMedioEmAberto());
+
+        System.out.println("\n-- Previsão de recebimento --");
+        System.out.printf("%-8s %12s %14s%n", "Mês", "Mensalidades", "Valor (R$)");
+        for (RelatorioFinanceiroDAO.RecebivelMes linha : relatorio.previsaoRecebiveis(hoje, hoje.plusMonths(6))) {
+            System.out.printf("%-8s %12d %14.2f%n", linha.mes(), linha.mensalidades(), linha.valor());
+        }
+    }
+}
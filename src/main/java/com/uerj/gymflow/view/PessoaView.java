@@ -229,16 +229,43 @@ public class PessoaView {
         
         System.out.println("\n===== LISTA DE PESSOAS =====");
         for (Pessoa pessoa : pessoas) {
-            System.out.println("---------------------------");
-            System.out.println("ID: " + pessoa.getIdPessoa());
-            System.out.println("Nome: " + pessoa.getNome());
-            System.out.println("CPF: " + formatarCpf(pessoa.getCpf()));
-            System.out.println("E-mail: " + pessoa.getEmail());
+            exibirResumoPessoa(pessoa);
         }
         System.out.println("---------------------------");
         System.out.println("Total de pessoas: " + pessoas.size());
     }
 
+    /**
+     * Exibe uma página da listagem de pessoas
+     * @param pessoas Pessoas da página
+     * @param numeroPagina Número da página, a partir de 1
+     */
+    public void exibirPaginaPessoas(List<Pessoa> pessoas, int numeroPagina) {
+        System.out.println("\n===== LISTA DE PESSOAS (página " + numeroPagina + ") =====");
+        for (Pessoa pessoa : pessoas) {
+            exibirResumoPessoa(pessoa);
+        }
+        System.out.println("---------------------------");
+    }
+
+    /**
+     * Pergunta se o usuário deseja ver a próxima página da listagem
+     * @return true para exibir a próxima página, false para encerrar a listagem
+     */
+    public boolean solicitarProximaPagina() {
+        System.out.print("Pressione Enter para a próxima página ou digite 0 para voltar: ");
+        String resposta = scanner.nextLine().trim();
+        return !resposta.equals("0");
+    }
+
+    private void exibirResumoPessoa(Pessoa pessoa) {
+        System.out.println("---------------------------");
+        System.out.println("ID: " + pessoa.getIdPessoa());
+        System.out.println("Nome: " + pessoa.getNome());
+        System.out.println("CPF: " + formatarCpf(pessoa.getCpf()));
+        System.out.println("E-mail: " + pessoa.getEmail());
+    }
+
     /**
      * Exibe mensagem de sucesso para cadastro
      * @param pessoa A pessoa cadastrada
@@ -171,17 +171,46 @@ public class ProfessorView {
 
         System.out.println("\n===== LISTA DE PROFESSORES =====");
         for (Professor professor : professores) {
-            System.out.println("---------------------------");
-            System.out.println("ID: " + professor.getIdProfessor());
-            System.out.println("Nome: " + professor.getNome());
-            System.out.println("CPF: " + formatarCpf(professor.getCpf()));
-            System.out.println("Especialidade: " + professor.getEspecialidade());
-            System.out.println("CREF: " + professor.getCref());
+            exibirResumoProfessor(professor);
         }
         System.out.println("---------------------------");
         System.out.println("Total de professores: " + professores.size());
     }
 
+    /**
+     * Exibe uma página da listagem de professores
+     *
+     * @param professores Professores da página
+     * @param numeroPagina Número da página, a partir de 1
+     */
+    public void exibirPaginaProfessores(List<Professor> professores, int numeroPagina) {
+        System.out.println("\n===== LISTA DE PROFESSORES (página " + numeroPagina + ") =====");
+        for (Professor professor : professores) {
+            exibirResumoProfessor(professor);
+        }
+        System.out.println("---------------------------");
+    }
+
+    /**
+     * Pergunta se o usuário deseja ver a próxima página da listagem
+     *
+     * @return true para exibir a próxima página, false para encerrar a listagem
+     */
+    public boolean solicitarProximaPagina() {
+        System.out.print("Pressione Enter para a próxima página ou digite 0 para voltar: ");
+        String resposta = scanner.nextLine().trim();
+        return !resposta.equals("0");
+    }
+
+    private void exibirResumoProfessor(Professor professor) {
+        System.out.println("---------------------------");
+        System.out.println("ID: " + professor.getIdProfessor());
+        System.out.println("Nome: " + professor.getNome());
+        System.out.println("CPF: " + formatarCpf(professor.getCpf()));
+        System.out.println("Especialidade: " + professor.getEspecialidade());
+        System.out.println("CREF: " + professor.getCref());
+    }
+
     /**
      * Solicita o ID de um professor
      *
@@ -276,6 +276,30 @@ public class TreinoView {
         }
         
         System.out.println("\n===== LISTA DE TREINOS =====");
+        exibirTabelaTreinos(treinos);
+    }
+    
+    /**
+     * Exibe uma página da listagem de treinos
+     * @param treinos Treinos da página
+     * @param numeroPagina Número da página, a partir de 1
+     */
+    public void exibirPaginaTreinos(List<Treino> treinos, int numeroPagina) {
+        System.out.println("\n===== LISTA DE TREINOS (página " + numeroPagina + ") =====");
+        exibirTabelaTreinos(treinos);
+    }
+    
+    /**
+     * Pergunta se o usuário deseja ver a próxima página da listagem
+     * @return true para exibir a próxima página, false para encerrar a listagem
+     */
+    public boolean solicitarProximaPagina() {
+        System.out.print("Pressione Enter para a próxima página ou digite 0 para voltar: ");
+        String resposta = scanner.nextLine().trim();
+        return !resposta.equals("0");
+    }
+    
+    private void exibirTabelaTreinos(List<Treino> treinos) {
         System.out.printf("%-5s %-30s %-12s %-20s %s\n", "ID", "Nome", "Data", "Professor", "Exercícios");
         System.out.println("-".repeat(85));
         